@@ -0,0 +1,89 @@
+package com.halmber.springordersapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, active when {@code spring.threads.virtual.enabled=true}.
+ *
+ * <p>A virtual thread that blocks inside {@code synchronized} code or a native frame cannot unmount and keeps its
+ * carrier (one of only as many as there are CPUs) blocked with it. This listens to the JFR
+ * {@code jdk.VirtualThreadPinned} event in-process: every pinning longer than {@code threshold} is counted in
+ * the {@code jvm.threads.virtual.pinned} timer and logged with the top of its stack trace, which names
+ * the offending monitor, e.g. a driver or client library holding a lock around blocking I/O.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Timer pinned;
+    private final Duration threshold;
+    private final int stackDepth;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${threads.virtual.pinned.threshold:20ms}") Duration threshold,
+            @Value("${threads.virtual.pinned.stack-depth:8}") int stackDepth
+    ) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        log.warn("Virtual thread {} pinned its carrier for {} ms:\n{}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(),
+                format(event.getStackTrace()));
+    }
+
+    private String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(stackDepth)
+                .map(frame -> "\tat %s.%s(line %d)".formatted(
+                        frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber()))
+                .collect(Collectors.joining("\n"));
+    }
+}
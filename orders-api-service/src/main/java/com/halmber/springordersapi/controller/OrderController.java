@@ -1,20 +1,35 @@
 package com.halmber.springordersapi.controller;
 
 import com.halmber.springordersapi.controller.annotation.PageableConstraints;
+import com.halmber.springordersapi.controller.exception.InvalidRequestParameterException;
+import com.halmber.springordersapi.model.OrderCriteria;
 import com.halmber.springordersapi.model.OrderReportFilter;
+import com.halmber.springordersapi.model.ReportJob;
 import com.halmber.springordersapi.model.dto.request.order.OrderCreateDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderEditDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderFilterDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderReportFilterDto;
 import com.halmber.springordersapi.model.dto.response.MessageResponseDto;
 import com.halmber.springordersapi.model.dto.response.customer.CustomerListResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportJobResponseDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderListResponseDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderResponseDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderShortListResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.ReportJobResponseDto;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
 import com.halmber.springordersapi.model.mapper.OrderMapper;
+import com.halmber.springordersapi.service.OrderImportErrorReportService;
+import com.halmber.springordersapi.service.OrderImportJobService;
 import com.halmber.springordersapi.service.OrderImportService;
 import com.halmber.springordersapi.service.OrderService;
+import com.halmber.springordersapi.service.OrderStreamService;
+import com.halmber.springordersapi.service.ReportCancellation;
+import com.halmber.springordersapi.service.ReportCompressionService;
+import com.halmber.springordersapi.service.ReportJobService;
+import com.halmber.springordersapi.service.ReportMetricsService;
 import com.halmber.springordersapi.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,16 +43,29 @@ import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Tag(name = "Orders", description = "Order management APIs")
 @Slf4j
@@ -50,12 +78,20 @@ public class OrderController {
     private final ReportService reportService;
     private final OrderMapper orderMapper;
     private final OrderImportService orderImportService;
+    private final ReportJobService reportJobService;
+    private final ReportCompressionService reportCompressionService;
+    private final OrderStreamService orderStreamService;
+    private final ReportMetricsService reportMetricsService;
+    private final OrderImportJobService orderImportJobService;
+    private final OrderImportErrorReportService orderImportErrorReportService;
 
     @Operation(
             summary = "Get paginated list of orders",
             description = "Retrieves a paginated list of orders. Supports sorting by amount, paymentMethod, status. " +
                     "Can retrieve multiple sorting fields at once if in query params. " +
-                    "Pageable is recommended to be used in query (designed for that) or write status in string type.",
+                    "Pageable is recommended to be used in query (designed for that) or write status in string type. " +
+                    "Pass 'after' (empty for the first page, then 'nextCursor' from the previous response) to switch to " +
+                    "cursor pagination: newest orders first, no total pages count and no sorting.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -73,9 +109,19 @@ public class OrderController {
     public OrderListResponseDto getPageableList(
             @Parameter(description = "Pagination and sorting parameters. Recommended to be used in query (designed for that) or write status in string type.")
             @PageableConstraints(whitelist = {"status", "paymentMethod", "amount"})
-            @PageableDefault(size = 5) Pageable pageable
+            @PageableDefault(size = 5) Pageable pageable,
+            @Parameter(description = "Cursor from the previous response's 'nextCursor'. Empty value starts cursor pagination.")
+            @RequestParam(value = "after", required = false) String after
     ) {
-        return orderService.listOrders(pageable);
+        if (after == null) {
+            return orderService.listOrders(pageable);
+        }
+
+        if (pageable.getSort().isSorted()) {
+            throw new InvalidRequestParameterException("Sorting is not supported with cursor pagination");
+        }
+
+        return orderService.listOrdersByCursor(after, pageable.getPageSize());
     }
 
     @Operation(
@@ -170,7 +216,9 @@ public class OrderController {
     @Operation(
             summary = "Get filtered and paginated list of orders",
             description = "Retrieves a paginated list of orders with optional filters by customerId, status and paymentMethod. " +
-                    "Body is required to be json and allowed to be empty.",
+                    "Body is required to be json and allowed to be empty. " +
+                    "When 'after' is present (empty for the first page, then 'nextCursor' from the previous response) " +
+                    "cursor pagination is used: 'page' is ignored and total pages count is not calculated.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -192,9 +240,59 @@ public class OrderController {
         return orderService.getFilteredPaginatedList(filter);
     }
 
+    /**
+     * Streams all orders matching the filters as newline-delimited JSON, for clients that sync every order
+     * instead of paging through /_list. No count query runs and nothing is collected in memory.
+     *
+     * @param response HttpServletResponse to write the orders directly
+     * @throws IOException if writing to the client fails
+     */
+    @Operation(
+            summary = "Stream orders as NDJSON",
+            description = "Streams all orders matching the optional filters by customerId, status, paymentMethod, " +
+                    "creation time range [createdFrom, createdTo) and amount range [amountMin, amountMax] in a single response, newest first, as newline-delimited JSON (application/x-ndjson): " +
+                    "one order per line, in the format of the /_list orders.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Orders, one JSON object per line"),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid filter parameters",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @GetMapping("/_stream")
+    public void streamOrders(
+            @Parameter(description = "Customer ID") @RequestParam(value = "customerId", required = false) String customerId,
+            @Parameter(description = "Order status, like NEW") @RequestParam(value = "status", required = false) String status,
+            @Parameter(description = "Payment method, like CARD") @RequestParam(value = "paymentMethod", required = false) String paymentMethod,
+            @Parameter(description = "Created at or after, ISO-8601 instant like 2026-10-01T00:00:00Z") @RequestParam(value = "createdFrom", required = false) Instant createdFrom,
+            @Parameter(description = "Created before, ISO-8601 instant") @RequestParam(value = "createdTo", required = false) Instant createdTo,
+            @Parameter(description = "Minimum amount, inclusive") @RequestParam(value = "amountMin", required = false) Double amountMin,
+            @Parameter(description = "Maximum amount, inclusive") @RequestParam(value = "amountMax", required = false) Double amountMax,
+            HttpServletResponse response
+    ) throws IOException {
+        UUID uuid = orderService.parseAndValidateUUID(customerId);
+        OrderCriteria criteria = orderMapper.toOrderCriteria(OrderFilterDto.builder()
+                .customerId(uuid != null ? uuid.toString() : null)
+                .status(status)
+                .paymentMethod(paymentMethod)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .amountMin(amountMin)
+                .amountMax(amountMax)
+                .build());
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+
+        long rows = orderStreamService.writeOrders(criteria, response.getOutputStream());
+        log.info("Streamed {} orders: {}", rows, criteria);
+    }
+
     /**
      * Generates and downloads a report file (CSV or XLSX) with all orders matching the filters.
      * Uses streaming to handle large datasets efficiently without loading everything into memory.
+     * When the client disconnects, the report is cancelled, including its running database queries.
      *
      * @param dto      Contains filtering criteria and fileType (csv or xlsx, default: csv)
      * @param response HttpServletResponse to write the file directly
@@ -202,63 +300,192 @@ public class OrderController {
      */
     @Operation(
             summary = "Generate report of orders",
-            description = "Generates and downloads a report file (Excel .xlsx or CSV .csv) with all orders matching the filter criteria. " +
-                    "Use fileType to specify output format: 'xlsx' or 'csv' (default). Body is required to be json and allowed to be empty."
+            description = "Generates and downloads a report file (Excel .xlsx, CSV .csv or Parquet .parquet) with all orders matching the filter criteria. " +
+                    "Orders can be filtered by customerId, status, paymentMethod, creation time range [createdFrom, createdTo) " +
+                    "given as ISO-8601 instants, and amount range [amountMin, amountMax]. " +
+                    "Use fileType to specify output format: 'xlsx', 'parquet' or 'csv' (default). Body is required to be json and allowed to be empty. " +
+                    "CSV reports are sent with Content-Encoding zstd or gzip when the client accepts it (Accept-Encoding). " +
+                    "Set compression to 'gzip' or 'zstd' to download a compressed file (.gz, .zst) instead, or to 'none' to disable compression."
     )
     @PostMapping(value = "/_report")
     public void generateReport(
             @Parameter(description = "Filter parameters for report generation. Required to be json. Allowed to be empty.")
             @Valid @RequestBody OrderReportFilterDto dto,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response
     ) throws IOException {
 
         OrderReportFilter filter = orderMapper.toOrderReportFilter(dto);
 
-        log.info("Generating report: fileType={}, filters: customerId={}, status={}, paymentMethod={}",
-                filter.fileType(), filter.customerId(), filter.status(), filter.paymentMethod());
+        log.info("Generating report: fileType={}, compression={}, filters: {}",
+                filter.fileType(), filter.compression(), filter.criteria());
 
-        UUID customerId = orderService.parseAndValidateUUID(dto.customerId());
+        orderService.parseAndValidateUUID(dto.customerId());
 
         String filename = "orders_report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
                 + filter.fileType().getExtension();
+        String contentType = filter.fileType().getMimeType();
 
-        response.setContentType(filter.fileType().getMimeType());
+        ReportCompressionEnum compression = filter.compression();
+        if (compression != null) {
+            // Requested in the body: the downloaded file itself is compressed
+            if (compression != ReportCompressionEnum.NONE) {
+                filename += compression.getExtension();
+                contentType = compression.getMimeType();
+            }
+        } else {
+            compression = filter.fileType().isCompressible()
+                    ? reportCompressionService.negotiate(acceptEncoding)
+                    : ReportCompressionEnum.NONE;
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (compression != ReportCompressionEnum.NONE) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, compression.getEncoding());
+            }
+        }
+
+        response.setContentType(contentType);
         response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
         response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
         response.setHeader("Pragma", "no-cache");
         response.setHeader("Expires", "0");
 
-        try {
+        // A failed write to the response means the client is gone: it cancels the report
+        ReportCancellation cancellation = new ReportCancellation();
+        AtomicLong rowsWritten = new AtomicLong();
+
+        // Closing finishes the compressed data, the response stream itself is closed by the container
+        try (OutputStream outputStream = reportCompressionService.compress(
+                cancellation.guard(StreamUtils.nonClosing(response.getOutputStream())), compression)) {
             reportService.generateReport(
-                    customerId,
-                    filter.status(),
-                    filter.paymentMethod(),
+                    filter.criteria(),
                     filter.fileType(),
-                    response.getOutputStream()
+                    outputStream,
+                    rowsWritten,
+                    cancellation
             );
-            response.getOutputStream().flush();
+            outputStream.flush();
             log.info("Report generated successfully: {}", filename);
         } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                // Nobody is left to receive an error response
+                reportMetricsService.recordAbandoned(filter.fileType(), rowsWritten.get());
+                log.warn("Report {} abandoned by the client after {} rows: {}", filename, rowsWritten.get(), e.toString());
+                return;
+            }
+
             log.error("Error generating report", e);
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            // The error body is plain JSON
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, null);
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Submit a background report job",
+            description = "Queues generation of a report file (Excel .xlsx, CSV .csv or Parquet .parquet) with all orders matching the filter criteria " +
+                    "and returns immediately. Poll the job for progress and download the file once it is COMPLETED. " +
+                    "Accepts the same body as /_report.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Job accepted",
+                            content = @Content(schema = @Schema(implementation = ReportJobResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Too many report jobs in progress",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @PostMapping("/_report/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ReportJobResponseDto submitReportJob(
+            @Parameter(description = "Filter parameters for report generation. Required to be json. Allowed to be empty.")
+            @Valid @RequestBody OrderReportFilterDto dto
+    ) {
+        orderService.parseAndValidateUUID(dto.customerId());
+
+        return reportJobService.submit(orderMapper.toOrderReportFilter(dto));
+    }
+
+    @Operation(
+            summary = "Get report job status",
+            description = "Returns the job status and progress: number of order rows written so far.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Job found",
+                            content = @Content(schema = @Schema(implementation = ReportJobResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found or expired",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @GetMapping("/_report/jobs/{id}")
+    public ReportJobResponseDto getReportJob(@PathVariable UUID id) {
+        return reportJobService.getJob(id);
+    }
+
+    @Operation(
+            summary = "Download report job file",
+            description = "Serves the file of a COMPLETED report job from disk. " +
+                    "Supports HTTP Range requests, so interrupted downloads can be resumed.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Report file"),
+                    @ApiResponse(responseCode = "206", description = "Requested range of the report file"),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found or expired",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Job is not completed",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @GetMapping("/_report/jobs/{id}/file")
+    public ResponseEntity<Resource> downloadReportJobFile(@PathVariable UUID id) {
+        ReportJob job = reportJobService.getCompletedJob(id);
+        ReportFileTypeEnum fileType = job.getFilter().fileType();
+        ReportCompressionEnum compression = job.getCompression();
+
+        String filename = "orders_report_" + LocalDateTime.ofInstant(job.getCreatedAt(), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + fileType.getExtension() + compression.getExtension();
+        String contentType = compression != ReportCompressionEnum.NONE ? compression.getMimeType() : fileType.getMimeType();
+
+        // Range requests on a Resource body are answered with 206 by Spring MVC
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(new FileSystemResource(job.getFile()));
+    }
+
     /**
-     * Imports orders from JSON file.
-     * Accepts JSON array of orders and validates/saves them to database.
+     * Imports orders from a JSON, NDJSON or CSV file.
+     * Accepts a file of orders and validates/saves them to database.
      * Uses streaming parser to handle large files efficiently.
      *
-     * @param file JSON file containing array of orders
+     * @param file       JSON array, NDJSON or CSV file of orders
+     * @param chunked    commit in chunks with a resumable checkpoint instead of one transaction
+     * @param resumeFrom checkpoint of a failed chunked import of the same file (implies {@code chunked})
      * @return Import statistics with success/failure counts and error details
      * @throws IOException if file cannot be read
      */
     @Operation(
-            summary = "Import orders from JSON file",
-            description = "Accepts a JSON file containing an array of orders and validates/saves them to the database. " +
-                    "Uses streaming parser to handle large files efficiently. " +
-                    "Returns statistics with success/failure counts and detailed error information for failed imports.",
+            summary = "Import orders from a JSON, NDJSON or CSV file",
+            description = "Accepts a file of orders and validates/saves them to the database: a JSON array (.json), " +
+                    "one JSON object per line (.ndjson, .jsonl) or CSV with a header row (.csv). The format is detected " +
+                    "from the file extension, or else the content type of the part. Files compressed with gzip (.gz) " +
+                    "or zstd (.zst), e.g. orders.json.gz, are decompressed as they are read; the 10MB limit " +
+                    "(orders.import.chunked.max-file-size with chunked=true) applies to the decompressed file. " +
+                    "Uses streaming parser to handle large files efficiently. Errors of NDJSON and CSV files are " +
+                    "reported with the line number in the file, errors of JSON arrays with the position in the array. " +
+                    "Returns statistics with success/failure counts, the number of errors by reason and the first " +
+                    "orders.import.errors.max-inline errors; with more errors than that, errorReportId names a " +
+                    "report with all of them, see GET /upload/errors/{id}. " +
+                    "With chunked=true the import commits every orders.import.chunk-size records; if it fails, " +
+                    "upload the same file with the returned checkpoint id as resumeFrom to continue.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -267,22 +494,38 @@ public class OrderController {
                     @ApiResponse(
                             responseCode = "400",
                             description = "Invalid file format or unreadable file",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Checkpoint to resume from not found",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Chunked import failed, the message contains the checkpoint to resume from",
                             content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
             }
     )
     @PostMapping(path = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public OrderImportResultDto uploadOrders(
             @Parameter(
-                    description = "JSON file containing array of orders. Each order should have: " +
-                            "orderId, customerId, amount, status, paymentMethod",
+                    description = "JSON, NDJSON or CSV file of orders, optionally gzip or zstd compressed. " +
+                            "Each order should have: " +
+                            "customerId, amount, status, paymentMethod, and optionally orderId: the order id of the " +
+                            "source system, an order imported again with the same orderId is updated instead of added",
                     required = true
             )
-            @RequestParam("file") MultipartFile file
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Commit every orders.import.chunk-size records with a resumable checkpoint")
+            @RequestParam(value = "chunked", defaultValue = "false") boolean chunked,
+            @Parameter(description = "Checkpoint id of a failed chunked import of the same file")
+            @RequestParam(value = "resumeFrom", required = false) UUID resumeFrom
     ) throws IOException {
-        log.info("Received upload request: filename={}, size={}",
-                file.getOriginalFilename(), file.getSize());
+        log.info("Received upload request: filename={}, size={}, chunked={}, resumeFrom={}",
+                file.getOriginalFilename(), file.getSize(), chunked, resumeFrom);
 
-        OrderImportResultDto result = orderImportService.importOrders(file);
+        OrderImportResultDto result = chunked || resumeFrom != null
+                ? orderImportService.importOrdersInChunks(file, resumeFrom)
+                : orderImportService.importOrders(file);
 
         log.info("Upload completed: {} successful, {} failed out of {} total",
                 result.successfulImports(), result.failedImports(), result.totalRecords());
@@ -290,6 +533,108 @@ public class OrderController {
         return result;
     }
 
+    @Operation(
+            summary = "Submit a background import job",
+            description = "Streams the request body, a file of orders like for /upload, to local disk and returns " +
+                    "immediately. The file is imported in the background in chunks (see /upload?chunked=true) and may be " +
+                    "as large as orders.import.jobs.max-file-size. Poll the job or follow its events for progress. " +
+                    "The body is sent as is, not as a multipart form: curl --data-binary @orders.json. Its format is " +
+                    "given by the content type: application/json (or application/octet-stream), " +
+                    "application/x-ndjson or text/csv. With Content-Encoding gzip or zstd the body is decompressed " +
+                    "as it is stored, the size limit applies to the decompressed file.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "File stored and job accepted",
+                            content = @Content(schema = @Schema(implementation = OrderImportJobResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Empty or too large file, unsupported or invalid Content-Encoding",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Too many import jobs in progress",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @PostMapping(path = "/upload/jobs", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            "text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public OrderImportJobResponseDto submitImportJob(
+            @Parameter(description = "Checkpoint id of a failed import of the same file")
+            @RequestParam(value = "resumeFrom", required = false) UUID resumeFrom,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body
+    ) throws IOException {
+        OrderImportFormatEnum format = OrderImportFormatEnum.fromContentType(contentType);
+        ReportCompressionEnum compression = ReportCompressionEnum.fromEncoding(contentEncoding);
+        // Binary uploads are JSON arrays, as before other formats were supported
+        return orderImportJobService.submit(body, format != null ? format : OrderImportFormatEnum.JSON, compression,
+                resumeFrom);
+    }
+
+    @Operation(
+            summary = "Get import job status",
+            description = "Returns the job status and progress: records processed, successful and failed imports " +
+                    "and the first errors.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Job found",
+                            content = @Content(schema = @Schema(implementation = OrderImportJobResponseDto.class))),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found or expired",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @GetMapping("/upload/jobs/{id}")
+    public OrderImportJobResponseDto getImportJob(@PathVariable UUID id) {
+        return orderImportJobService.getJob(id);
+    }
+
+    @Operation(
+            summary = "Follow import job progress",
+            description = "Server-sent events: the job status as a 'progress' event every " +
+                    "orders.import.jobs.event-interval, the stream ends after the job is finished.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Event stream"),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found or expired",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @GetMapping(path = "/upload/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followImportJob(@PathVariable UUID id) {
+        return orderImportJobService.follow(id);
+    }
+
+    @Operation(
+            summary = "Download import error report",
+            description = "Every error of an import with more errors than its result keeps, one JSON object per line " +
+                    "in the order they were found. The report of a running import job holds the errors found so far. " +
+                    "Reports are removed after orders.import.errors.ttl.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Error report"),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Report not found or expired",
+                            content = @Content(schema = @Schema(implementation = MessageResponseDto.class)))
+            }
+    )
+    @GetMapping(path = "/upload/errors/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Resource> downloadImportErrors(@PathVariable UUID id) {
+        Path report = orderImportErrorReportService.getReport(id);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("import_errors_" + id + ".ndjson").build().toString())
+                .body(new FileSystemResource(report));
+    }
+
     @Operation(
             summary = "Delete order",
             description = "Deletes an order",
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import com.halmber.springordersapi.controller.exception.InvalidRequestParameterException;
 import com.halmber.springordersapi.model.dto.response.MessageResponseDto;
 import com.halmber.springordersapi.service.exeption.AlreadyExistsException;
+import com.halmber.springordersapi.service.exeption.OrderImportFailedException;
+import com.halmber.springordersapi.service.exeption.ReportNotReadyException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -104,6 +107,39 @@ public class GlobalExceptionHandler {
         return buildAndLog(HttpStatus.CONFLICT, "Conflict", ex);
     }
 
+    /**
+     * Handles requests for report files that are not rendered yet (or failed).
+     */
+    @ExceptionHandler(ReportNotReadyException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public MessageResponseDto handleReportNotReady(ReportNotReadyException ex) {
+        return buildAndLog(HttpStatus.CONFLICT, "Report not ready", ex);
+    }
+
+    /**
+     * Handles chunked imports that failed part way. The message tells the checkpoint to resume from,
+     * the cause is only logged.
+     */
+    @ExceptionHandler(OrderImportFailedException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public MessageResponseDto handleImportFailed(OrderImportFailedException ex) {
+        log.warn("Import failed, resumable from checkpoint {}: {}", ex.getCheckpointId(), ex.getCause().getMessage());
+
+        return MessageResponseDto.builder()
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .message(ex.getMessage())
+                .build();
+    }
+
+    /**
+     * Handles background work rejected because the worker pool and its queue are full.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public MessageResponseDto handleTaskRejected(TaskRejectedException ex) {
+        return buildAndLog(HttpStatus.SERVICE_UNAVAILABLE, "Task rejected", ex);
+    }
+
     /**
      * Handles Jackson Unknown JSON fields.
      * Triggered when FAIL_ON_UNKNOWN_PROPERTIES is enabled.
@@ -0,0 +1,38 @@
+package com.halmber.springordersapi.model;
+
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filters of order queries, shared by lists, streams and reports. Every filter is optional,
+ * {@code null} ones match all orders. Creation time is matched in {@code [createdFrom, createdTo)},
+ * the amount in {@code [amountMin, amountMax]}.
+ *
+ * @throws IllegalArgumentException if a range is empty
+ */
+@Builder
+public record OrderCriteria(
+        UUID customerId,
+        StatusEnum status,
+        PaymentEnum paymentMethod,
+        Instant createdFrom,
+        Instant createdTo,
+        Double amountMin,
+        Double amountMax
+) {
+    public OrderCriteria {
+        if (amountMin != null && !Double.isFinite(amountMin) || amountMax != null && !Double.isFinite(amountMax)) {
+            throw new IllegalArgumentException("Amount filters must be finite numbers");
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("'createdFrom' must be before 'createdTo'");
+        }
+        if (amountMin != null && amountMax != null && amountMin > amountMax) {
+            throw new IllegalArgumentException("'amountMin' must not be greater than 'amountMax'");
+        }
+    }
+}
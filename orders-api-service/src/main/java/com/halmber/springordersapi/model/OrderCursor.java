@@ -0,0 +1,53 @@
+package com.halmber.springordersapi.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last order returned by a keyset (cursor) paginated query.
+ * Orders are sorted by {@code createdAt DESC, id DESC}, so the pair uniquely
+ * identifies where the next page has to start.
+ *
+ * <p>Clients only see the opaque {@link #encode() token}; its format is not a part of the API.
+ */
+public record OrderCursor(
+        Instant createdAt,
+        UUID id
+) {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor into an opaque URL-safe token.
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token opaque cursor token
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing cursor separator");
+            }
+
+            return new OrderCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor timestamp", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.halmber.springordersapi.model;
+
+import java.time.Instant;
+
+/**
+ * Cheap stamp of the data behind a filtered set of orders: it changes whenever an order
+ * is added to, removed from or updated in the set, or one of their customers is updated.
+ * Timestamps are {@code null} for an empty set.
+ */
+public record OrderDataVersion(
+        long count,
+        Instant lastOrderUpdate,
+        Instant lastCustomerUpdate
+) {
+}
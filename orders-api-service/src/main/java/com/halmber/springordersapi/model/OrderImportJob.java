@@ -0,0 +1,66 @@
+package com.halmber.springordersapi.model;
+
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+import com.halmber.springordersapi.model.enums.OrderImportJobStatusEnum;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Order import of a file uploaded to local disk, processed in the background.
+ * Updated by the worker thread and read by status requests, hence the volatile state.
+ */
+@Getter
+public class OrderImportJob {
+    private final UUID id;
+    private final Path file;
+    private final OrderImportFormatEnum format;
+    private final long fileSize;
+    private final String fileHash;
+    private final UUID resumeFrom;
+    private final OrderImportProgress progress;
+    private final Instant createdAt = Instant.now();
+
+    private volatile OrderImportJobStatusEnum status = OrderImportJobStatusEnum.PENDING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public OrderImportJob(
+            UUID id,
+            Path file,
+            OrderImportFormatEnum format,
+            long fileSize,
+            String fileHash,
+            UUID resumeFrom,
+            int maxErrors
+    ) {
+        this.id = id;
+        this.file = file;
+        this.format = format;
+        this.fileSize = fileSize;
+        this.fileHash = fileHash;
+        this.resumeFrom = resumeFrom;
+        this.progress = new OrderImportProgress(maxErrors);
+    }
+
+    public void start() {
+        status = OrderImportJobStatusEnum.RUNNING;
+    }
+
+    public void complete() {
+        this.finishedAt = Instant.now();
+        this.status = OrderImportJobStatusEnum.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = OrderImportJobStatusEnum.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == OrderImportJobStatusEnum.COMPLETED || status == OrderImportJobStatusEnum.FAILED;
+    }
+}
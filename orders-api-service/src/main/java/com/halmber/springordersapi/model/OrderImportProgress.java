@@ -0,0 +1,88 @@
+package com.halmber.springordersapi.model;
+
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Live progress of an order import, published by the importing thread after every batch
+ * and read by status requests.
+ */
+public class OrderImportProgress {
+    private final int maxErrors;
+    private final List<OrderImportResultDto.ImportError> errors = new ArrayList<>();
+    private volatile int recordsProcessed;
+    private volatile int successfulImports;
+    private volatile int failedImports;
+    private volatile UUID checkpointId;
+    private volatile Map<String, Integer> errorsByReason = Map.of();
+    private volatile UUID errorReportId;
+
+    /**
+     * @param maxErrors number of errors kept for status requests, the first ones reported
+     */
+    public OrderImportProgress(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void update(int recordsProcessed, int successfulImports, List<OrderImportResultDto.ImportError> newErrors) {
+        synchronized (errors) {
+            for (int i = 0; i < newErrors.size() && errors.size() < maxErrors; i++) {
+                errors.add(newErrors.get(i));
+            }
+        }
+
+        this.recordsProcessed = recordsProcessed;
+        this.successfulImports = successfulImports;
+        this.failedImports = recordsProcessed - successfulImports;
+    }
+
+    /**
+     * @param errorsByReason number of all errors so far by reason
+     * @param errorReportId  report with every error, {@code null} until there are more errors than the result keeps
+     */
+    public void updateErrorSummary(Map<String, Integer> errorsByReason, UUID errorReportId) {
+        this.errorsByReason = errorsByReason;
+        this.errorReportId = errorReportId;
+    }
+
+    /**
+     * @param checkpointId checkpoint of the import, the token to resume it with
+     */
+    public void setCheckpointId(UUID checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
+    public UUID getCheckpointId() {
+        return checkpointId;
+    }
+
+    public Map<String, Integer> getErrorsByReason() {
+        return errorsByReason;
+    }
+
+    public UUID getErrorReportId() {
+        return errorReportId;
+    }
+
+    public int getRecordsProcessed() {
+        return recordsProcessed;
+    }
+
+    public int getSuccessfulImports() {
+        return successfulImports;
+    }
+
+    public int getFailedImports() {
+        return failedImports;
+    }
+
+    public List<OrderImportResultDto.ImportError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.halmber.springordersapi.model;
+
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.model.enums.ReportJobStatusEnum;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report rendered in the background to a file on local disk.
+ * Updated by the worker thread and read by status requests, hence the volatile state.
+ */
+@Getter
+public class ReportJob {
+    private final UUID id = UUID.randomUUID();
+    private final OrderReportFilter filter;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private volatile ReportJobStatusEnum status = ReportJobStatusEnum.PENDING;
+    private volatile Path file;
+    private volatile long fileSize;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public ReportJob(OrderReportFilter filter) {
+        this.filter = filter;
+    }
+
+    public void start() {
+        status = ReportJobStatusEnum.RUNNING;
+    }
+
+    public void complete(Path file, long fileSize) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.finishedAt = Instant.now();
+        this.status = ReportJobStatusEnum.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = ReportJobStatusEnum.FAILED;
+    }
+
+    /**
+     * Compression of the job file, jobs don't negotiate it: {@link ReportCompressionEnum#NONE} unless requested.
+     */
+    public ReportCompressionEnum getCompression() {
+        return filter.compression() != null ? filter.compression() : ReportCompressionEnum.NONE;
+    }
+
+    public boolean isFinished() {
+        return status == ReportJobStatusEnum.COMPLETED || status == ReportJobStatusEnum.FAILED;
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.Builder;
 
+import java.time.Instant;
+
 @Builder
 public record OrderFilterDto(
 
@@ -16,11 +18,21 @@ public record OrderFilterDto(
 
         String paymentMethod,
 
+        Instant createdFrom,
+
+        Instant createdTo,
+
+        Double amountMin,
+
+        Double amountMax,
+
         @Min(value = 0, message = "Page must be >= 0")
         Integer page,
 
         @Min(value = 1, message = "Size must be >= 1")
         @Max(value = 100, message = "Size must be <= 100")
-        Integer size
+        Integer size,
+
+        String after
 ) {
 }
@@ -3,8 +3,9 @@ package com.halmber.springordersapi.model.dto.request.order;
 import lombok.Builder;
 
 /**
- * DTO for importing orders from JSON file.
- * Matches the format from the file parser.
+ * DTO for importing orders from JSON, NDJSON or CSV files.
+ * Matches the format from the file parser. {@code orderId} is the optional order id of the source system,
+ * stored as the external id of the order.
  */
 @Builder
 public record OrderImportDto(
@@ -3,6 +3,8 @@ package com.halmber.springordersapi.model.dto.request.order;
 import jakarta.validation.constraints.Pattern;
 import lombok.Builder;
 
+import java.time.Instant;
+
 @Builder
 public record OrderReportFilterDto(
         @Pattern(regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$",
@@ -13,7 +15,18 @@ public record OrderReportFilterDto(
 
         String paymentMethod,
 
-        @Pattern(regexp = "^(csv|xlsx)$", message = "File type must be 'csv' or 'xlsx'")
-        String fileType
+        Instant createdFrom,
+
+        Instant createdTo,
+
+        Double amountMin,
+
+        Double amountMax,
+
+        @Pattern(regexp = "^(csv|xlsx|parquet)$", message = "File type must be 'csv', 'xlsx' or 'parquet'")
+        String fileType,
+
+        @Pattern(regexp = "^(none|gzip|zstd)$", message = "Compression must be 'none', 'gzip' or 'zstd'")
+        String compression
 ) {
 }
@@ -0,0 +1,30 @@
+package com.halmber.springordersapi.model.dto.response.order;
+
+import com.halmber.springordersapi.model.enums.OrderImportJobStatusEnum;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Builder
+public record OrderImportJobResponseDto(
+        UUID id,
+        OrderImportJobStatusEnum status,
+        long fileSize,
+        int recordsProcessed,
+        int successfulImports,
+        int failedImports,
+        // The first errors only, failedImports counts all of them
+        List<OrderImportResultDto.ImportError> errors,
+        Map<String, Integer> errorsByReason,
+        // Report with every error, once there are more than the result keeps
+        UUID errorReportId,
+        // Resume token: upload the same file with it after a failure
+        UUID checkpointId,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+}
@@ -1,15 +1,27 @@
 package com.halmber.springordersapi.model.dto.response.order;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Builder
 public record OrderImportResultDto(
         int totalRecords,
         int successfulImports,
         int failedImports,
-        List<ImportError> errors
+        // The errors with the lowest line numbers only, failedImports counts all of them
+        List<ImportError> errors,
+        // Number of all errors by reason
+        Map<String, Integer> errorsByReason,
+        // Report with every error, downloaded from /api/orders/upload/errors/{id}: only when errors doesn't hold them all
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        UUID errorReportId,
+        // Resume token of chunked imports
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        UUID checkpointId
 ) {
     @Builder
     public record ImportError(
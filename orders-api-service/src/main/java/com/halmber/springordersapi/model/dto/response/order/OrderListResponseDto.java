@@ -7,6 +7,7 @@ import java.util.List;
 @Builder
 public record OrderListResponseDto(
         List<OrderResponseDto> orders,
-        long totalPages
+        long totalPages,
+        String nextCursor
 ) {
 }
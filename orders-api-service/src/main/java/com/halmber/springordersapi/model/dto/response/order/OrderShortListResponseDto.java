@@ -7,6 +7,7 @@ import java.util.List;
 @Builder
 public record OrderShortListResponseDto(
         List<OrderShortResponseDto> orders,
-        long totalPages
+        long totalPages,
+        String nextCursor
 ) {
 }
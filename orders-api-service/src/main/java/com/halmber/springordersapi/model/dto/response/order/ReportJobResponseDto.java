@@ -0,0 +1,21 @@
+package com.halmber.springordersapi.model.dto.response.order;
+
+import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
+import com.halmber.springordersapi.model.enums.ReportJobStatusEnum;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Builder
+public record ReportJobResponseDto(
+        UUID id,
+        ReportJobStatusEnum status,
+        ReportFileTypeEnum fileType,
+        long rowsWritten,
+        Long fileSize,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
@@ -43,8 +44,20 @@ public class Order {
     @Column(nullable = false)
     private Double amount;
 
+    /**
+     * Order id in the system the order was imported from. Imports update the order with the same id. Unique through
+     * {@code order_external_ids}: a unique index on partitioned {@code orders} would have to include created_at.
+     */
+    @Column(name = "external_id", length = 64)
+    private String externalId;
+
+    /**
+     * Partition key of {@code orders}: Hibernate adds it to the where clause of updates and deletes by id, which
+     * then touch a single partition.
+     */
     @CreationTimestamp
-    @Column(name = "created_at", nullable = false)
+    @PartitionKey
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @UpdateTimestamp
@@ -0,0 +1,55 @@
+package com.halmber.springordersapi.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a chunked order import: how many records of the file are committed.
+ * Its id is the token to resume the import with after a failure.
+ */
+@Entity
+@Table(name = "order_import_checkpoints")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder(toBuilder = true)
+public class OrderImportCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    /**
+     * SHA-256 of the file, hex encoded. A resumed import must upload the same file.
+     */
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    /**
+     * Number of records (array elements) of the file committed so far, valid or not.
+     */
+    @Column(name = "committed_records", nullable = false)
+    private int committedRecords;
+
+    @Column(name = "successful_imports", nullable = false)
+    private int successfulImports;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    // Two uploads resuming the same checkpoint can't both commit their chunks
+    @Version
+    private long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,69 @@
+package com.halmber.springordersapi.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public enum OrderImportFormatEnum {
+    // Array of order objects
+    JSON("application/json", List.of(".json")),
+    // One order object per line
+    NDJSON("application/x-ndjson", List.of(".ndjson", ".jsonl")),
+    // Header row with the order field names, one order per row
+    CSV("text/csv", List.of(".csv"));
+
+    private final String mimeType;
+    private final List<String> extensions;
+
+    /**
+     * @return the extension of files stored in this format
+     */
+    public String getExtension() {
+        return extensions.getFirst();
+    }
+
+    /**
+     * @return {@code null} when the file name has no extension of a supported format
+     */
+    public static OrderImportFormatEnum fromFilename(String filename) {
+        if (filename == null) {
+            return null;
+        }
+
+        String name = filename.toLowerCase();
+        for (OrderImportFormatEnum format : values()) {
+            if (format.extensions.stream().anyMatch(name::endsWith)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code null} when the content type is not the type of a supported format, parameters such as
+     * {@code charset} are ignored
+     */
+    public static OrderImportFormatEnum fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return null;
+        }
+
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        for (OrderImportFormatEnum format : values()) {
+            if (MediaType.parseMediaType(format.mimeType).equalsTypeAndSubtype(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
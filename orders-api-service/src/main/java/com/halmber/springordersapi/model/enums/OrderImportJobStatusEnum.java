@@ -0,0 +1,8 @@
+package com.halmber.springordersapi.model.enums;
+
+public enum OrderImportJobStatusEnum {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
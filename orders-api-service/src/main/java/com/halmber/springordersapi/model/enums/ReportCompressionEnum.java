@@ -0,0 +1,73 @@
+package com.halmber.springordersapi.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Compression of report files, and of uploaded order files.
+ */
+@Getter
+@AllArgsConstructor
+public enum ReportCompressionEnum {
+    NONE(null, null, ""),
+    GZIP("gzip", "application/gzip", ".gz"),
+    ZSTD("zstd", "application/zstd", ".zst");
+
+    /**
+     * Token used in {@code Accept-Encoding} and {@code Content-Encoding} headers.
+     */
+    private final String encoding;
+    private final String mimeType;
+    private final String extension;
+
+    /**
+     * @return {@code null} when no compression is requested explicitly
+     */
+    public static ReportCompressionEnum fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return ReportCompressionEnum.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid compression: '%s'. Allowed values: none, gzip, zstd".formatted(value)
+            );
+        }
+    }
+
+    /**
+     * @return compression of a file name such as {@code orders.json.gz}, {@link #NONE} without a compression extension
+     */
+    public static ReportCompressionEnum fromFilename(String filename) {
+        if (filename != null) {
+            String name = filename.toLowerCase();
+            for (ReportCompressionEnum compression : values()) {
+                if (compression != NONE && name.endsWith(compression.extension)) {
+                    return compression;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @param contentEncoding value of a {@code Content-Encoding} header, may be {@code null}
+     * @return {@link #NONE} without an encoding or for {@code identity}
+     * @throws IllegalArgumentException for other encodings, or more than one
+     */
+    public static ReportCompressionEnum fromEncoding(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank()
+                || contentEncoding.trim().equalsIgnoreCase("identity")) {
+            return NONE;
+        }
+        for (ReportCompressionEnum compression : values()) {
+            if (compression != NONE && compression.encoding.equalsIgnoreCase(contentEncoding.trim())) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unsupported Content-Encoding: '%s'. Allowed values: gzip, zstd".formatted(contentEncoding)
+        );
+    }
+}
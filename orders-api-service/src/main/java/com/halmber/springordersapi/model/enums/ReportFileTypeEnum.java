@@ -6,11 +6,18 @@ import lombok.Getter;
 @Getter
 @AllArgsConstructor
 public enum ReportFileTypeEnum {
-    CSV("text/csv", ".csv"),
-    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx");
+    CSV("text/csv", ".csv", true),
+    // XLSX is a zip archive already
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx", false),
+    // Pages are compressed by the format itself
+    PARQUET("application/vnd.apache.parquet", ".parquet", false);
 
     private final String mimeType;
     private final String extension;
+    /**
+     * Whether the format benefits from HTTP compression.
+     */
+    private final boolean compressible;
 
     public static ReportFileTypeEnum fromString(String value) {
         if (value == null || value.isBlank()) {
@@ -20,7 +27,7 @@ public enum ReportFileTypeEnum {
             return ReportFileTypeEnum.valueOf(value.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(
-                    "Invalid file type: '%s'. Allowed values: csv, xlsx".formatted(value)
+                    "Invalid file type: '%s'. Allowed values: csv, xlsx, parquet".formatted(value)
             );
         }
     }
@@ -0,0 +1,8 @@
+package com.halmber.springordersapi.model.enums;
+
+public enum ReportJobStatusEnum {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
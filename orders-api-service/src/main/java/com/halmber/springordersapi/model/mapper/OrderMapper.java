@@ -1,5 +1,6 @@
 package com.halmber.springordersapi.model.mapper;
 
+import com.halmber.springordersapi.model.OrderCriteria;
 import com.halmber.springordersapi.model.OrderFilter;
 import com.halmber.springordersapi.model.OrderReportFilter;
 import com.halmber.springordersapi.model.dto.request.order.OrderCreateDto;
@@ -19,6 +20,7 @@ public interface OrderMapper {
     @Mapping(target = "customer", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "externalId", ignore = true)
     @Mapping(target = "status", expression = "java(toEnum(dto.status(), com.halmber.springordersapi.model.enums.StatusEnum.class, \"status\", true))")
     @Mapping(target = "paymentMethod", expression = "java(toEnum(dto.paymentMethod(), com.halmber.springordersapi.model.enums.PaymentEnum.class, \"payment\", true))")
     Order toEntity(OrderCreateDto dto);
@@ -37,19 +39,27 @@ public interface OrderMapper {
     @Mapping(target = "customer", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "externalId", ignore = true)
     @Mapping(target = "status", expression = "java(toEnum(dto.status(), com.halmber.springordersapi.model.enums.StatusEnum.class, \"status\", true))")
     @Mapping(target = "paymentMethod", expression = "java(toEnum(dto.paymentMethod(), com.halmber.springordersapi.model.enums.PaymentEnum.class, \"payment\", true))")
     void updateEntityFromDto(OrderEditDto dto, @MappingTarget Order entity);
 
-    @Mapping(target = "status", expression = "java(toEnum(dto.status(), com.halmber.springordersapi.model.enums.StatusEnum.class, \"status\", false))")
-    @Mapping(target = "paymentMethod", expression = "java(toEnum(dto.paymentMethod(), com.halmber.springordersapi.model.enums.PaymentEnum.class, \"payment\", false))")
+    @Mapping(target = "criteria", source = "dto")
     OrderFilter toOrderFilter(OrderFilterDto dto);
 
     @Mapping(target = "status", expression = "java(toEnum(dto.status(), com.halmber.springordersapi.model.enums.StatusEnum.class, \"status\", false))")
     @Mapping(target = "paymentMethod", expression = "java(toEnum(dto.paymentMethod(), com.halmber.springordersapi.model.enums.PaymentEnum.class, \"payment\", false))")
+    OrderCriteria toOrderCriteria(OrderFilterDto dto);
+
+    @Mapping(target = "criteria", source = "dto")
     @Mapping(target = "fileType", expression = "java(com.halmber.springordersapi.model.enums.ReportFileTypeEnum.fromString(dto.fileType()))")
+    @Mapping(target = "compression", expression = "java(com.halmber.springordersapi.model.enums.ReportCompressionEnum.fromString(dto.compression()))")
     OrderReportFilter toOrderReportFilter(OrderReportFilterDto dto);
 
+    @Mapping(target = "status", expression = "java(toEnum(dto.status(), com.halmber.springordersapi.model.enums.StatusEnum.class, \"status\", false))")
+    @Mapping(target = "paymentMethod", expression = "java(toEnum(dto.paymentMethod(), com.halmber.springordersapi.model.enums.PaymentEnum.class, \"payment\", false))")
+    OrderCriteria toOrderCriteria(OrderReportFilterDto dto);
+
     default <E extends Enum<E>> E toEnum(String value, Class<E> enumClass, String fieldName, Boolean blankCheck) {
         if (value == null || value.isBlank()) {
             if (!blankCheck) return null; // Allow blank or null values when it's not need
@@ -0,0 +1,8 @@
+package com.halmber.springordersapi.repository;
+
+import com.halmber.springordersapi.model.entity.OrderImportCheckpoint;
+
+import java.util.UUID;
+
+public interface OrderImportCheckpointRepository extends BaseRepository<OrderImportCheckpoint, UUID> {
+}
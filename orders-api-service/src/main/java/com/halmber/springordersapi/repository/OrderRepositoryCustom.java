@@ -0,0 +1,84 @@
+package com.halmber.springordersapi.repository;
+
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.dto.response.order.OrderShortResponseDto;
+import com.halmber.springordersapi.model.entity.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Order queries with optional filters, built dynamically with the Criteria API.
+ * Only filters that are present end up in the SQL, see
+ * {@link com.halmber.springordersapi.repository.specification.OrderSpecifications}.
+ * Entity queries eagerly fetch the order's customer, {@code *Short*} queries select
+ * only the columns of {@link OrderShortResponseDto} without loading entities at all.
+ */
+public interface OrderRepositoryCustom {
+    /**
+     * Offset paginated query. The count query is skipped when the total
+     * can be derived from the page content (e.g. the first page is not full).
+     */
+    Page<Order> findByFilters(
+            OrderCriteria criteria,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset (cursor) query: returns orders strictly after the given position in
+     * {@code createdAt DESC, id DESC} order. Unlike {@link #findByFilters} it never
+     * runs a count query and does not use OFFSET, so deep pages cost the same as the first one.
+     * Pass {@code null} position to start from the newest order.
+     */
+    List<Order> findByFiltersAfter(
+            OrderCriteria criteria,
+            Instant afterCreatedAt,
+            UUID afterId,
+            Limit limit
+    );
+
+    /**
+     * Projection variant of {@link #findByFilters}: selects only the columns needed for
+     * {@link OrderShortResponseDto}, so no entities are hydrated, registered in the
+     * persistence context or mapped afterwards.
+     */
+    Page<OrderShortResponseDto> findShortByFilters(
+            OrderCriteria criteria,
+            Pageable pageable
+    );
+
+    /**
+     * Projection variant of {@link #findByFiltersAfter}, see {@link #findShortByFilters}.
+     */
+    List<OrderShortResponseDto> findShortByFiltersAfter(
+            OrderCriteria criteria,
+            Instant afterCreatedAt,
+            UUID afterId,
+            Limit limit
+    );
+
+    /**
+     * Counts the orders matching the filters and finds the latest update of them and their customers
+     * in a single aggregate query, without loading any rows.
+     */
+    OrderDataVersion findDataVersion(OrderCriteria criteria);
+
+    /**
+     * Stream-based query for memory-efficient processing of large datasets.
+     * Must be used within a transactional context and closed after use.
+     */
+    Stream<Order> streamByFilters(OrderCriteria criteria);
+
+    /**
+     * Projection variant of {@link #streamByFilters}, see {@link #findShortByFilters}. Nothing is registered
+     * in the persistence context, so memory use doesn't grow with the number of rows read.
+     * Ordered by {@code createdAt DESC, id DESC}. Must be used within a transactional context and closed after use.
+     */
+    Stream<OrderShortResponseDto> streamShortByFilters(OrderCriteria criteria);
+}
@@ -0,0 +1,249 @@
+package com.halmber.springordersapi.repository;
+
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.dto.response.customer.CustomerShortResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.OrderShortResponseDto;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.halmber.springordersapi.repository.specification.OrderSpecifications.after;
+import static com.halmber.springordersapi.repository.specification.OrderSpecifications.byFilters;
+
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    private static final int STREAM_FETCH_SIZE = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Order> findByFilters(
+            OrderCriteria criteria,
+            Pageable pageable
+    ) {
+        Specification<Order> specification = byFilters(criteria);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> root = selectWithCustomer(query, specification);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Order> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(
+                typedQuery.getResultList(),
+                pageable,
+                () -> count(specification)
+        );
+    }
+
+    @Override
+    public List<Order> findByFiltersAfter(
+            OrderCriteria criteria,
+            Instant afterCreatedAt,
+            UUID afterId,
+            Limit limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> root = selectWithCustomer(
+                query,
+                keyset(byFilters(criteria), afterCreatedAt, afterId)
+        );
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        return limit(entityManager.createQuery(query), limit).getResultList();
+    }
+
+    @Override
+    public Page<OrderShortResponseDto> findShortByFilters(
+            OrderCriteria criteria,
+            Pageable pageable
+    ) {
+        Specification<Order> specification = byFilters(criteria);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = selectShort(query, specification);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(
+                typedQuery.getResultList().stream().map(this::toShortDto).toList(),
+                pageable,
+                () -> count(specification)
+        );
+    }
+
+    @Override
+    public List<OrderShortResponseDto> findShortByFiltersAfter(
+            OrderCriteria criteria,
+            Instant afterCreatedAt,
+            UUID afterId,
+            Limit limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = selectShort(
+                query,
+                keyset(byFilters(criteria), afterCreatedAt, afterId)
+        );
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        return limit(entityManager.createQuery(query), limit).getResultList().stream()
+                .map(this::toShortDto)
+                .toList();
+    }
+
+    @Override
+    public OrderDataVersion findDataVersion(OrderCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+        Join<Order, Customer> customer = root.join("customer", JoinType.INNER);
+        query.multiselect(
+                cb.count(root),
+                cb.greatest(root.<Instant>get("updatedAt")),
+                cb.greatest(customer.<Instant>get("updatedAt"))
+        );
+        applySpecification(query, root, byFilters(criteria));
+
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+        return new OrderDataVersion(
+                tuple.get(0, Long.class),
+                tuple.get(1, Instant.class),
+                tuple.get(2, Instant.class)
+        );
+    }
+
+    @Override
+    public Stream<Order> streamByFilters(OrderCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> root = selectWithCustomer(query, byFilters(criteria));
+        query.orderBy(cb.desc(root.get("createdAt")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<OrderShortResponseDto> streamShortByFilters(OrderCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = selectShort(query, byFilters(criteria));
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .map(this::toShortDto);
+    }
+
+    private Root<Order> selectWithCustomer(CriteriaQuery<Order> query, Specification<Order> specification) {
+        Root<Order> root = query.from(Order.class);
+        root.fetch("customer", JoinType.INNER);
+        query.select(root);
+        applySpecification(query, root, specification);
+        return root;
+    }
+
+    /**
+     * Selects the columns of {@link OrderShortResponseDto} in the order expected by {@link #toShortDto}.
+     */
+    private Root<Order> selectShort(CriteriaQuery<Tuple> query, Specification<Order> specification) {
+        Root<Order> root = query.from(Order.class);
+        Join<Order, Customer> customer = root.join("customer", JoinType.INNER);
+        query.multiselect(
+                root.get("id"),
+                root.get("amount"),
+                root.get("status"),
+                root.get("paymentMethod"),
+                root.get("createdAt"),
+                customer.get("id"),
+                customer.get("firstName"),
+                customer.get("lastName"),
+                customer.get("email")
+        );
+        applySpecification(query, root, specification);
+        return root;
+    }
+
+    private OrderShortResponseDto toShortDto(Tuple tuple) {
+        return OrderShortResponseDto.builder()
+                .id(tuple.get(0, UUID.class))
+                .amount(tuple.get(1, Double.class))
+                .status(tuple.get(2, StatusEnum.class))
+                .paymentMethod(tuple.get(3, PaymentEnum.class))
+                .createdAt(tuple.get(4, Instant.class))
+                .customer(CustomerShortResponseDto.builder()
+                        .id(tuple.get(5, UUID.class))
+                        .fullName(tuple.get(6, String.class) + " " + tuple.get(7, String.class))
+                        .email(tuple.get(8, String.class))
+                        .build())
+                .build();
+    }
+
+    private Specification<Order> keyset(Specification<Order> specification, Instant afterCreatedAt, UUID afterId) {
+        return afterCreatedAt != null ? specification.and(after(afterCreatedAt, afterId)) : specification;
+    }
+
+    private <T> TypedQuery<T> limit(TypedQuery<T> query, Limit limit) {
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query;
+    }
+
+    private long count(Specification<Order> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> root = query.from(Order.class);
+        query.select(cb.count(root));
+        applySpecification(query, root, specification);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(CriteriaQuery<?> query, Root<Order> root, Specification<Order> specification) {
+        Predicate predicate = specification.toPredicate(root, query, entityManager.getCriteriaBuilder());
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
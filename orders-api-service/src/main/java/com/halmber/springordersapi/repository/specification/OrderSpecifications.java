@@ -0,0 +1,99 @@
+package com.halmber.springordersapi.repository.specification;
+
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Factory of {@link Specification}s for querying {@link Order} entities.
+ *
+ * <p>Only filters that are actually present produce a predicate, so the database receives
+ * a query like {@code WHERE status = ? AND created_at < ?} instead of a generic
+ * {@code (? IS NULL OR status = ?)} form. This lets PostgreSQL choose the matching
+ * composite index for every filter combination.
+ */
+public final class OrderSpecifications {
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> hasCustomerId(UUID customerId) {
+        return (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    }
+
+    public static Specification<Order> hasStatus(StatusEnum status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> hasPaymentMethod(PaymentEnum paymentMethod) {
+        return (root, query, cb) -> cb.equal(root.get("paymentMethod"), paymentMethod);
+    }
+
+    public static Specification<Order> createdFrom(Instant createdFrom) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), createdFrom);
+    }
+
+    public static Specification<Order> createdBefore(Instant createdTo) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), createdTo);
+    }
+
+    public static Specification<Order> amountAtLeast(Double amountMin) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), amountMin);
+    }
+
+    public static Specification<Order> amountAtMost(Double amountMax) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), amountMax);
+    }
+
+    /**
+     * Keyset predicate: orders located strictly after the given position
+     * in {@code createdAt DESC, id DESC} order.
+     */
+    public static Specification<Order> after(Instant createdAt, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.get("id"), id)
+                )
+        );
+    }
+
+    /**
+     * Combines predicates for all non-null filters. Returns a specification
+     * matching every order when no filter is set.
+     */
+    public static Specification<Order> byFilters(OrderCriteria criteria) {
+        List<Specification<Order>> specifications = new ArrayList<>();
+
+        if (criteria.customerId() != null) {
+            specifications.add(hasCustomerId(criteria.customerId()));
+        }
+        if (criteria.status() != null) {
+            specifications.add(hasStatus(criteria.status()));
+        }
+        if (criteria.paymentMethod() != null) {
+            specifications.add(hasPaymentMethod(criteria.paymentMethod()));
+        }
+        if (criteria.createdFrom() != null) {
+            specifications.add(createdFrom(criteria.createdFrom()));
+        }
+        if (criteria.createdTo() != null) {
+            specifications.add(createdBefore(criteria.createdTo()));
+        }
+        if (criteria.amountMin() != null) {
+            specifications.add(amountAtLeast(criteria.amountMin()));
+        }
+        if (criteria.amountMax() != null) {
+            specifications.add(amountAtMost(criteria.amountMax()));
+        }
+
+        return Specification.allOf(specifications);
+    }
+}
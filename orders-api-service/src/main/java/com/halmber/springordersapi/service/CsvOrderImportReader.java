@@ -0,0 +1,322 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.dto.request.order.OrderImportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads CSV (RFC 4180: quoted fields may contain separators, quotes and line breaks). The header row names the
+ * columns, matched to the order fields case-insensitively and in any order; unknown columns are ignored. Fields
+ * are trimmed, empty fields are missing values and blank lines are skipped.
+ *
+ * <p>Records are numbered by the line they start on, the header being line 1. A malformed record (a quote left
+ * open, or followed by anything but a separator) is reported as the error of its record and doesn't stop the
+ * import: reading resumes on the line after the one it starts on, so the rows a stray quote swallowed are read
+ * again. Like the lines of {@link NdjsonOrderImportReader}, a record is read no further than
+ * {@link #MAX_RECORD_LENGTH} characters, so a quote left open doesn't buffer the rest of the file.
+ */
+final class CsvOrderImportReader implements OrderImportReader {
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("customerId", "amount", "status", "paymentMethod");
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder field = new StringBuilder();
+    /** Lines a malformed record was read over, to be read again before the rest of the file */
+    private final Deque<Line> unread = new ArrayDeque<>();
+    private final List<String> header;
+    private final int orderIdColumn;
+    private final int customerIdColumn;
+    private final int amountColumn;
+    private final int statusColumn;
+    private final int paymentMethodColumn;
+    private int position;
+    private int limit;
+    private int lineNumber;
+    private boolean truncated;
+    private boolean skipLineFeed;
+
+    CsvOrderImportReader(InputStream inputStream) throws IOException {
+        this.reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        try {
+            Record record = readRecord();
+            if (record == null) {
+                throw new IllegalArgumentException("CSV file has no header row");
+            }
+            if (record.error() != null) {
+                throw new IllegalArgumentException("CSV header is malformed: " + record.error());
+            }
+            this.header = record.values().stream().map(column -> column.toLowerCase(Locale.ROOT)).toList();
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> column(column) < 0).toList();
+        if (!missing.isEmpty()) {
+            reader.close();
+            throw new IllegalArgumentException("CSV header is missing the columns " + missing);
+        }
+
+        this.orderIdColumn = column("orderId");
+        this.customerIdColumn = column("customerId");
+        this.amountColumn = column("amount");
+        this.statusColumn = column("status");
+        this.paymentMethodColumn = column("paymentMethod");
+    }
+
+    @Override
+    public ParsedLine next() throws IOException {
+        Record record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        if (record.error() != null) {
+            return new ParsedLine(record.lineNumber(), null, new IllegalArgumentException(record.error()));
+        }
+
+        try {
+            return new ParsedLine(record.lineNumber(), toOrder(record.values()), null);
+        } catch (IllegalArgumentException e) {
+            return new ParsedLine(record.lineNumber(), null, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private OrderImportDto toOrder(List<String> row) {
+        String amount = value(row, amountColumn);
+        Double parsedAmount;
+        try {
+            parsedAmount = amount != null ? Double.valueOf(amount) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount is not a number: " + amount);
+        }
+
+        return OrderImportDto.builder()
+                .orderId(value(row, orderIdColumn))
+                .customerId(value(row, customerIdColumn))
+                .amount(parsedAmount)
+                .status(value(row, statusColumn))
+                .paymentMethod(value(row, paymentMethodColumn))
+                .build();
+    }
+
+    /**
+     * @return index of the column in the header, -1 if it has none
+     */
+    private int column(String name) {
+        return header.indexOf(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the value of the column, {@code null} if it is empty or missing in the row
+     */
+    private static String value(List<String> row, int column) {
+        if (column < 0 || column >= row.size() || row.get(column).isEmpty()) {
+            return null;
+        }
+        return row.get(column);
+    }
+
+    /**
+     * Reads the fields of the next record. A malformed record puts the lines after its first one back to be read
+     * again.
+     *
+     * @return the record, with the error instead of the fields if it is malformed; {@code null} at the end of the
+     * file
+     */
+    private Record readRecord() throws IOException {
+        Line first;
+        do {
+            first = nextLine();
+            if (first == null) {
+                return null;
+            }
+        } while (!first.truncated() && first.text().isBlank());
+
+        if (first.truncated()) {
+            return Record.malformed(first, "Line is longer than %d characters".formatted(MAX_RECORD_LENGTH));
+        }
+
+        List<Line> continuation = new ArrayList<>(0);
+        List<String> values = new ArrayList<>(header != null ? header.size() : 8);
+        String text = first.text();
+        int length = text.length();
+        int recordLength = length;
+        int i = 0;
+        while (true) {
+            while (i < length && isSpace(text.charAt(i))) {
+                i++;
+            }
+
+            if (i < length && text.charAt(i) == '"') {
+                i++;
+                field.setLength(0);
+                while (true) {
+                    if (i == length) {
+                        // A line break in the quotes
+                        Line next = nextLine();
+                        if (next != null) {
+                            continuation.add(next);
+                            recordLength += next.text().length();
+                        }
+                        if (next == null || next.truncated() || recordLength > MAX_RECORD_LENGTH) {
+                            unread(continuation);
+                            return Record.malformed(first, "Quoted field is not closed");
+                        }
+                        field.append('\n');
+                        text = next.text();
+                        length = next.text().length();
+                        i = 0;
+                        continue;
+                    }
+
+                    char c = text.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < length && text.charAt(i) == '"') {
+                        // Escaped quote
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                values.add(field.toString());
+
+                while (i < length && isSpace(text.charAt(i))) {
+                    i++;
+                }
+                if (i < length && text.charAt(i) != ',') {
+                    unread(continuation);
+                    return Record.malformed(first,
+                            "Unexpected character '%c' after a quoted field".formatted(text.charAt(i)));
+                }
+            } else {
+                // Quotes inside an unquoted field are kept as they are
+                int end = text.indexOf(',', i);
+                if (end < 0) {
+                    end = length;
+                }
+                values.add(text.substring(i, end).strip());
+                i = end;
+            }
+
+            if (i == length) {
+                return new Record(first.number(), values, null);
+            }
+            // Separator
+            i++;
+        }
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    /**
+     * Puts the lines back, in order, ahead of the lines not read yet.
+     */
+    private void unread(List<Line> lines) {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            unread.addFirst(lines.get(i));
+        }
+    }
+
+    /**
+     * @return the next line, one put back first; {@code null} at the end of the file
+     */
+    private Line nextLine() throws IOException {
+        if (!unread.isEmpty()) {
+            return unread.removeFirst();
+        }
+        if (!readLine()) {
+            return null;
+        }
+
+        lineNumber++;
+        if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            // Byte order mark
+            line.deleteCharAt(0);
+        }
+        return new Line(lineNumber, line.toString(), truncated);
+    }
+
+    /**
+     * Reads the next line without its terminator (LF, CRLF or CR), keeping at most {@link #MAX_RECORD_LENGTH}
+     * characters of it.
+     *
+     * @return {@code false} at the end of the file
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        boolean read = false;
+
+        while (true) {
+            if (position == limit) {
+                int count = reader.read(buffer);
+                if (count == -1) {
+                    position = limit = 0;
+                    return read;
+                }
+                position = 0;
+                limit = count;
+            }
+
+            if (skipLineFeed) {
+                // The LF of a CRLF
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+
+            read = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            append(start, position);
+
+            if (position < limit) {
+                skipLineFeed = buffer[position] == '\r';
+                position++;
+                return true;
+            }
+        }
+    }
+
+    private void append(int start, int end) {
+        int count = Math.min(end - start, MAX_RECORD_LENGTH - line.length());
+        if (count < end - start) {
+            truncated = true;
+        }
+        line.append(buffer, start, count);
+    }
+
+    private record Line(int number, String text, boolean truncated) {
+    }
+
+    private record Record(int lineNumber, List<String> values, String error) {
+        static Record malformed(Line line, String error) {
+            return new Record(line.number(), null, error);
+        }
+    }
+}
@@ -7,13 +7,12 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.io.Writer;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.stream.Stream;
 
 /**
  * Service for generating CSV (Comma-Separated Values) reports from order data.
  * Produces standard CSV files with proper escaping and formatting.
- *
+ * Rows are encoded by {@link CsvRowWriter} without per-row allocations.
  *
  * <p>Report columns:
  * <ol>
@@ -30,9 +29,6 @@ import java.util.stream.Stream;
 @Slf4j
 @Service
 public class CsvReportService {
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
-
     private static final String[] HEADERS = {
             "Order ID", "Customer ID", "Customer Name", "Email",
             "Amount", "Status", "Payment Method", "Created At"
@@ -42,43 +38,17 @@ public class CsvReportService {
         writer.write(String.join(",", HEADERS));
         writer.write("\n");
 
+        CsvRowWriter rowWriter = new CsvRowWriter(writer, ZoneId.systemDefault());
         ordersStream.forEach(order -> {
             try {
-                writeOrderRow(writer, order);
+                rowWriter.writeOrderRow(order);
             } catch (IOException e) {
                 log.error("Error writing order to CSV: {}", order.getId(), e);
                 throw new RuntimeException("Failed to write order to CSV", e);
             }
         });
 
+        rowWriter.flush();
         writer.flush();
     }
-
-    private void writeOrderRow(Writer writer, Order order) throws IOException {
-        String[] values = {
-                escapeCsv(order.getId().toString()),
-                escapeCsv(order.getCustomer().getId().toString()),
-                escapeCsv(order.getCustomer().getFullName()),
-                escapeCsv(order.getCustomer().getEmail()),
-                String.valueOf(order.getAmount()),
-                escapeCsv(order.getStatus().name()),
-                escapeCsv(order.getPaymentMethod().name()),
-                escapeCsv(DATE_FORMATTER.format(order.getCreatedAt()))
-        };
-
-        writer.write(String.join(",", values));
-        writer.write("\n");
-    }
-
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
-        }
-        // Escape quotes and wrap in quotes if contains comma, quote, or newline
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
 }
-
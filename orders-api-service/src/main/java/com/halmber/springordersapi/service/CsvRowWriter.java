@@ -0,0 +1,302 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes order rows in the {@link CsvReportService} format into a reusable char buffer.
+ *
+ * <p>UUIDs, amounts and timestamps are encoded straight into the buffer and text fields are
+ * escaped in a single pass, so writing a row allocates no intermediate strings or arrays.
+ * The buffer is handed to the underlying {@link Writer} once it holds {@value #FLUSH_THRESHOLD} chars.
+ *
+ * <p>Not thread-safe: create one instance per report.
+ */
+final class CsvRowWriter {
+    private static final int FLUSH_THRESHOLD = 8192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    private final Writer writer;
+    private final ZoneRules zoneRules;
+    private long offsetValidFrom = Long.MAX_VALUE;
+    private long offsetValidTo = Long.MIN_VALUE;
+    private int offsetSeconds;
+    private char[] buffer = new char[FLUSH_THRESHOLD + 1024];
+    private int length;
+
+    CsvRowWriter(Writer writer, ZoneId zone) {
+        this.writer = writer;
+        this.zoneRules = zone.getRules();
+    }
+
+    /**
+     * Appends one order row terminated with a newline.
+     */
+    void writeOrderRow(Order order) throws IOException {
+        Customer customer = order.getCustomer();
+
+        appendUuid(order.getId());
+        append(',');
+        appendUuid(customer.getId());
+        append(',');
+        appendFullName(customer.getFirstName(), customer.getLastName());
+        append(',');
+        appendEscaped(customer.getEmail());
+        append(',');
+        appendDouble(order.getAmount());
+        append(',');
+        appendEscaped(order.getStatus().name());
+        append(',');
+        appendEscaped(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null);
+        append(',');
+        appendDateTime(order.getCreatedAt());
+        append('\n');
+
+        if (length >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands buffered rows over to the underlying writer (without flushing the writer itself).
+     */
+    void flush() throws IOException {
+        writer.write(buffer, 0, length);
+        length = 0;
+    }
+
+    private void appendUuid(UUID uuid) {
+        ensureCapacity(36);
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+
+        appendHex(msb >>> 32, 8);
+        buffer[length++] = '-';
+        appendHex(msb >>> 16, 4);
+        buffer[length++] = '-';
+        appendHex(msb, 4);
+        buffer[length++] = '-';
+        appendHex(lsb >>> 48, 4);
+        buffer[length++] = '-';
+        appendHex(lsb, 12);
+    }
+
+    private void appendHex(long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        length += digits;
+    }
+
+    /**
+     * Same output as escaping {@code firstName + " " + lastName}, without building the string.
+     */
+    private void appendFullName(String firstName, String lastName) {
+        int start = beginEscaped();
+        boolean quote = appendEscapedChars(String.valueOf(firstName));
+        append(' ');
+        quote |= appendEscapedChars(String.valueOf(lastName));
+        endEscaped(start, quote);
+    }
+
+    /**
+     * Writes a CSV field, quoting it when it contains a comma, quote or newline.
+     * {@code null} is written as an empty field.
+     */
+    private void appendEscaped(String value) {
+        if (value == null) {
+            return;
+        }
+
+        int start = beginEscaped();
+        endEscaped(start, appendEscapedChars(value));
+    }
+
+    /**
+     * Reserves a slot for the opening quote, which is only known to be needed after the value is scanned.
+     */
+    private int beginEscaped() {
+        append('"');
+        return length;
+    }
+
+    /**
+     * Copies the value doubling quotes on the way.
+     *
+     * @return whether the value has to be quoted
+     */
+    private boolean appendEscapedChars(String value) {
+        int valueLength = value.length();
+        ensureCapacity(valueLength * 2);
+
+        boolean quote = false;
+        for (int i = 0; i < valueLength; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer[length++] = '"';
+                quote = true;
+            } else if (c == ',' || c == '\n') {
+                quote = true;
+            }
+            buffer[length++] = c;
+        }
+
+        return quote;
+    }
+
+    private void endEscaped(int start, boolean quote) {
+        if (quote) {
+            append('"');
+        } else {
+            // No quoting needed (so no quotes were doubled): drop the reserved slot
+            System.arraycopy(buffer, start, buffer, start - 1, length - start);
+            length--;
+        }
+    }
+
+    /**
+     * Produces the same text as {@link Double#toString(double)}. Amounts with up to two decimals
+     * (all real money values) are encoded directly; anything else falls back to {@code Double.toString}.
+     */
+    private void appendDouble(double value) {
+        double abs = Math.abs(value);
+        if (abs >= 1e-3 && abs < 1e7) {
+            long cents = Math.round(abs * 100);
+            if (cents / 100.0 == abs) {
+                ensureCapacity(20);
+                if (value < 0) {
+                    buffer[length++] = '-';
+                }
+                appendLong(cents / 100);
+                buffer[length++] = '.';
+
+                int fraction = (int) (cents % 100);
+                if (fraction % 10 == 0) {
+                    buffer[length++] = (char) ('0' + fraction / 10);
+                } else {
+                    buffer[length++] = (char) ('0' + fraction / 10);
+                    buffer[length++] = (char) ('0' + fraction % 10);
+                }
+                return;
+            }
+        }
+
+        String text = Double.toString(value);
+        ensureCapacity(text.length());
+        text.getChars(0, text.length(), buffer, length);
+        length += text.length();
+    }
+
+    private void appendLong(long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    /**
+     * Writes {@code yyyy-MM-dd HH:mm:ss} in the configured zone (years 0-9999).
+     */
+    private void appendDateTime(Instant instant) {
+        long localSeconds = instant.getEpochSecond() + offsetSeconds(instant);
+        long epochDay = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(localSeconds, SECONDS_PER_DAY);
+
+        // Civil date from epoch day, same algorithm as LocalDate.ofEpochDay
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+        long adjust = 0;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / 146_097 - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * 146_097;
+        }
+        long yearEst = (400 * zeroDay + 591) / 146_097;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;
+        int marchDoy0 = (int) doyEst;
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        int month = (marchMonth0 + 2) % 12 + 1;
+        int day = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        long year = yearEst + marchMonth0 / 10;
+
+        ensureCapacity(19);
+        appendPadded((int) year, 4);
+        buffer[length++] = '-';
+        appendPadded(month, 2);
+        buffer[length++] = '-';
+        appendPadded(day, 2);
+        buffer[length++] = ' ';
+        appendPadded(secondOfDay / 3600, 2);
+        buffer[length++] = ':';
+        appendPadded(secondOfDay / 60 % 60, 2);
+        buffer[length++] = ':';
+        appendPadded(secondOfDay % 60, 2);
+    }
+
+    /**
+     * Caches the offset until the neighbouring transitions: looking it up boxes the year for zones with DST.
+     */
+    private int offsetSeconds(Instant instant) {
+        long epochSecond = instant.getEpochSecond();
+        if (epochSecond >= offsetValidFrom && epochSecond < offsetValidTo) {
+            return offsetSeconds;
+        }
+
+        ZoneOffset offset = zoneRules.getOffset(instant);
+        ZoneOffsetTransition previous = zoneRules.previousTransition(instant);
+        ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+
+        offsetSeconds = offset.getTotalSeconds();
+        if (previous == null) {
+            offsetValidFrom = Long.MIN_VALUE;
+        } else {
+            // previousTransition() skips a transition at exactly this instant
+            offsetValidFrom = previous.getOffsetAfter().equals(offset) ? previous.toEpochSecond() : epochSecond;
+        }
+        offsetValidTo = next != null ? next.toEpochSecond() : Long.MAX_VALUE;
+
+        return offsetSeconds;
+    }
+
+    private void appendPadded(int value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        buffer[length++] = c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.dto.request.order.OrderImportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON array of orders with the streaming Jackson parser, records are numbered by their position in the array.
+ */
+final class JsonOrderImportReader implements OrderImportReader {
+    private final JsonParser parser;
+    private int lineNumber;
+    private boolean ended;
+
+    JsonOrderImportReader(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.createParser(inputStream);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Expected JSON array at root level");
+        }
+    }
+
+    @Override
+    public ParsedLine next() throws IOException {
+        if (!nextElement()) {
+            return null;
+        }
+
+        int number = ++lineNumber;
+        try {
+            return new ParsedLine(number, parser.readValueAs(OrderImportDto.class), null);
+        } catch (Exception e) {
+            return new ParsedLine(number, null, e);
+        }
+    }
+
+    /**
+     * Skips whole elements without binding them.
+     */
+    @Override
+    public void skip(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (!nextElement()) {
+                throw new IllegalArgumentException("File has less than %d records".formatted(count));
+            }
+            parser.skipChildren();
+            lineNumber++;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * Moves to the next element of the array.
+     *
+     * @return {@code false} at the end of the array
+     */
+    private boolean nextElement() throws IOException {
+        if (ended) {
+            return false;
+        }
+
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            ended = true;
+            return false;
+        }
+        if (token == null) {
+            throw new IllegalArgumentException("Unexpected end of file, JSON array is not closed");
+        }
+        return true;
+    }
+}
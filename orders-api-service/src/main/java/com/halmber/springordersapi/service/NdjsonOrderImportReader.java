@@ -0,0 +1,119 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.halmber.springordersapi.model.dto.request.order.OrderImportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads newline delimited JSON, one order object per line. Every line is parsed on its own, so a malformed line
+ * is reported as the error of its record and doesn't stop the import. Blank lines are skipped.
+ *
+ * <p>Lines are read into a bounded buffer: a line longer than {@link #MAX_LINE_LENGTH} is reported as an error
+ * instead of being buffered whole.
+ */
+final class NdjsonOrderImportReader implements OrderImportReader {
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final ObjectReader orderReader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private int lineNumber;
+    private boolean truncated;
+
+    NdjsonOrderImportReader(InputStream inputStream, ObjectMapper objectMapper) {
+        this.reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        // A line holds a single order, anything after it is an error
+        this.orderReader = objectMapper.readerFor(OrderImportDto.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    @Override
+    public ParsedLine next() throws IOException {
+        while (readLine()) {
+            lineNumber++;
+            if (truncated) {
+                return new ParsedLine(lineNumber, null, new IllegalArgumentException(
+                        "Line is longer than %d characters".formatted(MAX_LINE_LENGTH)));
+            }
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                // Byte order mark
+                line.deleteCharAt(0);
+            }
+
+            String json = line.toString();
+            if (json.isBlank()) {
+                continue;
+            }
+
+            try {
+                return new ParsedLine(lineNumber, orderReader.readValue(json), null);
+            } catch (IOException e) {
+                return new ParsedLine(lineNumber, null, e);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next line without its terminator, keeping at most {@link #MAX_LINE_LENGTH} characters of it.
+     *
+     * @return {@code false} at the end of the file
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        boolean read = false;
+
+        while (true) {
+            if (position == limit) {
+                int count = reader.read(buffer);
+                if (count == -1) {
+                    position = limit = 0;
+                    return read;
+                }
+                position = 0;
+                limit = count;
+            }
+
+            read = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position);
+
+            if (position < limit) {
+                // Skip the terminator, CRLF included
+                position++;
+                if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                    line.setLength(line.length() - 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    private void append(int start, int end) {
+        int count = Math.min(end - start, MAX_LINE_LENGTH - line.length());
+        if (count < end - start) {
+            truncated = true;
+        }
+        line.append(buffer, start, count);
+    }
+}
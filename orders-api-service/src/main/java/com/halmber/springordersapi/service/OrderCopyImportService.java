@@ -0,0 +1,332 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Bulk loader for order imports on PostgreSQL.
+ *
+ * <p>Validated orders are streamed with {@code COPY ... FROM STDIN} into a temporary staging table, then moved into
+ * {@code orders} with a single {@code INSERT ... SELECT} joined to {@code customers}: rows whose customer doesn't
+ * exist are left out and reported by line number instead of failing the foreign key, so customers don't have to be
+ * looked up beforehand (the connection can't run other statements during the COPY anyway). Nothing goes through
+ * Hibernate, ids and timestamps are generated by the database.
+ *
+ * <p>Orders with an external id are upserted by the same statement: staged orders whose external id is in
+ * {@code order_external_ids} update the order it points to, the others are inserted. Loading a file again updates
+ * its orders instead of duplicating them, without a lookup per order. Unchanged orders aren't rewritten. Two imports
+ * inserting the same new external id at once don't fail: the later one updates the order of the first.
+ * ({@code orders} is partitioned by {@code created_at} and can't have a unique index on {@code external_id} alone,
+ * so {@code ON CONFLICT} isn't available.)
+ *
+ * <p>On other databases (H2 in tests) {@link #isSupported()} returns {@code false} and orders have to be saved
+ * with JPA instead.
+ */
+@Slf4j
+@Service
+public class OrderCopyImportService {
+    private static final String STAGING_TABLE = "order_import_staging";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private volatile Boolean postgres;
+
+    public OrderCopyImportService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${orders.import.copy-enabled:true}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether imports can be bulk loaded: it is enabled and the datasource is PostgreSQL.
+     */
+    public boolean isSupported() {
+        if (!enabled) {
+            return false;
+        }
+
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+            log.info("PostgreSQL COPY loader for order imports is {}", Boolean.TRUE.equals(postgres) ? "active" : "not available");
+        }
+
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    /**
+     * Starts a bulk load on the connection of the current transaction.
+     * The orders become visible when the transaction commits.
+     */
+    public CopyLoad begin() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Order import bulk load requires a transaction");
+        }
+
+        DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                // Dropped on commit; a later load in the same transaction reuses it, finish() leaves it empty
+                statement.execute("""
+                        CREATE TEMPORARY TABLE IF NOT EXISTS %s (
+                            line_number integer NOT NULL,
+                            external_id varchar(64),
+                            customer_id uuid NOT NULL,
+                            amount double precision NOT NULL,
+                            status varchar(30) NOT NULL,
+                            payment_method varchar(50)
+                        ) ON COMMIT DROP""".formatted(STAGING_TABLE));
+            }
+
+            PGCopyOutputStream copyStream = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                    "COPY %s FROM STDIN".formatted(STAGING_TABLE), COPY_BUFFER_SIZE);
+            return new CopyLoad(dataSource, connection, copyStream);
+        } catch (SQLException e) {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            throw new IllegalStateException("Could not start order import bulk load", e);
+        }
+    }
+
+    /**
+     * A bulk load in progress: {@link #write} the orders, then {@link #finish()} and {@link #close()} it.
+     */
+    public static final class CopyLoad implements AutoCloseable {
+        private final DataSource dataSource;
+        private final Connection connection;
+        private final PGCopyOutputStream copyStream;
+        private final Writer writer;
+
+        private CopyLoad(DataSource dataSource, Connection connection, PGCopyOutputStream copyStream) {
+            this.dataSource = dataSource;
+            this.connection = connection;
+            this.copyStream = copyStream;
+            this.writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+        }
+
+        /**
+         * Stages a validated order. Only its external id, customer id, amount, status and payment method are loaded.
+         */
+        public void write(int lineNumber, Order order) {
+            // COPY text format: tab separated, \N is null. UUIDs, numbers and enum names need no escaping
+            try {
+                writer.write(Integer.toString(lineNumber));
+                writer.write('\t');
+                if (order.getExternalId() != null) {
+                    writeEscaped(order.getExternalId());
+                } else {
+                    writer.write("\\N");
+                }
+                writer.write('\t');
+                writer.write(order.getCustomer().getId().toString());
+                writer.write('\t');
+                writer.write(Double.toString(order.getAmount()));
+                writer.write('\t');
+                writer.write(order.getStatus().name());
+                writer.write('\t');
+                writer.write(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : "\\N");
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> writer.write("\\\\");
+                    case '\t' -> writer.write("\\t");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    default -> writer.write(c);
+                }
+            }
+        }
+
+        /**
+         * Ends the COPY and inserts the staged orders whose customer exists, or updates the orders with the same
+         * external id. When an external id is staged more than once, its last line of an existing customer wins.
+         *
+         * @return the staged orders that were left out because their customer doesn't exist, by line number
+         */
+        public Result finish() {
+            try {
+                writer.flush();
+                long staged = copyStream.endCopy();
+
+                List<RejectedLine> rejected = new ArrayList<>();
+                try (Statement statement = connection.createStatement()) {
+                    // Temporary tables aren't analyzed automatically, the plan below needs the row count
+                    statement.execute("ANALYZE " + STAGING_TABLE);
+
+                    Upsert upsert = upsert(statement, "");
+                    int written = upsert.written();
+                    if (upsert.lost() > 0) {
+                        // Concurrent imports inserted these external ids first and have committed since: a new
+                        // statement sees their orders and updates them. Orders without an external id were all
+                        // inserted, the other ones are found in order_external_ids now and left unchanged
+                        log.debug("{} external ids were inserted by a concurrent import, updating them", upsert.lost());
+                        written += upsert(statement, "AND s.external_id IS NOT NULL").written();
+                    }
+
+                    // Fewer rows are written when customers are missing, but also for duplicate and unchanged orders
+                    if (written < staged) {
+                        try (ResultSet resultSet = statement.executeQuery("""
+                                SELECT s.line_number, s.customer_id
+                                FROM %s s
+                                WHERE NOT EXISTS (SELECT 1 FROM customers c WHERE c.id = s.customer_id)
+                                ORDER BY s.line_number""".formatted(STAGING_TABLE))) {
+                            while (resultSet.next()) {
+                                rejected.add(new RejectedLine(resultSet.getInt(1), resultSet.getObject(2, UUID.class)));
+                            }
+                        }
+                    }
+
+                    statement.execute("TRUNCATE " + STAGING_TABLE);
+                    log.debug("Bulk loaded {} of {} staged orders", written, staged);
+                    return new Result(written, rejected);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Order import bulk load failed", e);
+            }
+        }
+
+        /**
+         * Inserts or updates the staged orders matching the condition.
+         */
+        private Upsert upsert(Statement statement, String condition) throws SQLException {
+            // Rows are numbered in file order, so are their creation times; FOR KEY SHARE keeps the joined
+            // customers from being deleted before commit, like the foreign key check would. A statement can't
+            // update a row twice: earlier lines of an external id are left out by an anti join (NULLs never
+            // match) on the later lines that are written, those of an existing customer. Existing orders are
+            // found by (id, created_at) in order_external_ids; bounding the update by the min and max created_at
+            // of the found orders prunes all other partitions when the statement starts, instead of hashing all
+            // orders. All parts of the statement see the same snapshot: an order is either updated or inserted.
+            // New external ids are claimed in order_external_ids before their orders are inserted (the trigger
+            // accepts the claim). An id a concurrent import claimed first waits for that import to commit and
+            // is then lost instead of failing the statement; claiming in external id order avoids deadlocks
+            try (ResultSet resultSet = statement.executeQuery("""
+                    WITH staged AS MATERIALIZED (
+                        SELECT s.line_number, s.external_id, s.customer_id, s.amount, s.status,
+                               s.payment_method, clock_timestamp() AS created_at, gen_random_uuid() AS new_id,
+                               e.order_id, e.created_at AS order_created_at
+                        FROM %1$s s
+                        JOIN customers c ON c.id = s.customer_id
+                        LEFT JOIN %1$s later ON later.external_id = s.external_id
+                                            AND later.line_number > s.line_number
+                                            AND EXISTS (SELECT 1 FROM customers lc WHERE lc.id = later.customer_id)
+                        LEFT JOIN order_external_ids e ON e.external_id = s.external_id
+                        WHERE later.line_number IS NULL %2$s
+                        ORDER BY s.line_number
+                        FOR KEY SHARE OF c
+                    ),
+                    updated AS (
+                        UPDATE orders
+                        SET customer_id = staged.customer_id,
+                            amount = staged.amount,
+                            status = staged.status,
+                            payment_method = staged.payment_method,
+                            updated_at = staged.created_at
+                        FROM staged
+                        WHERE orders.id = staged.order_id
+                          AND orders.created_at = staged.order_created_at
+                          AND orders.created_at BETWEEN (SELECT min(order_created_at) FROM staged)
+                                                    AND (SELECT max(order_created_at) FROM staged)
+                          AND (orders.customer_id, orders.amount, orders.status, orders.payment_method)
+                              IS DISTINCT FROM
+                              (staged.customer_id, staged.amount, staged.status, staged.payment_method)
+                        RETURNING orders.id
+                    ),
+                    claimed AS (
+                        INSERT INTO order_external_ids (external_id, order_id, created_at)
+                        SELECT external_id, new_id, created_at
+                        FROM staged
+                        WHERE order_id IS NULL AND external_id IS NOT NULL
+                        ORDER BY external_id
+                        ON CONFLICT (external_id) DO NOTHING
+                        RETURNING order_id
+                    ),
+                    inserted AS (
+                        INSERT INTO orders (id, external_id, customer_id, amount, status, payment_method,
+                                            created_at, updated_at)
+                        SELECT new_id, external_id, customer_id, amount, status, payment_method,
+                               created_at, created_at
+                        FROM staged
+                        WHERE order_id IS NULL
+                          AND (external_id IS NULL OR new_id IN (SELECT order_id FROM claimed))
+                        ORDER BY line_number
+                        RETURNING id
+                    )
+                    SELECT (SELECT count(*) FROM updated) + (SELECT count(*) FROM inserted),
+                           (SELECT count(*) FROM staged WHERE order_id IS NULL AND external_id IS NOT NULL)
+                           - (SELECT count(*) FROM claimed)
+                    """.formatted(STAGING_TABLE, condition))) {
+                resultSet.next();
+                return new Upsert(resultSet.getInt(1), resultSet.getInt(2));
+            }
+        }
+
+        /**
+         * Aborts the COPY if it wasn't finished and returns the connection to the transaction.
+         */
+        @Override
+        public void close() {
+            try {
+                if (copyStream.isActive()) {
+                    copyStream.cancelCopy();
+                }
+            } catch (SQLException e) {
+                log.warn("Could not cancel order import COPY: {}", e.getMessage());
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+    }
+
+    /**
+     * @param written  number of orders inserted or updated
+     * @param rejected staged orders whose customer doesn't exist
+     */
+    public record Result(int written, List<RejectedLine> rejected) {
+    }
+
+    public record RejectedLine(int lineNumber, UUID customerId) {
+    }
+
+    /**
+     * @param written number of orders inserted or updated
+     * @param lost    staged orders not written because a concurrent import inserted their external id first
+     */
+    private record Upsert(int written, int lost) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Error reports of order imports with more errors than their result keeps: NDJSON files on local disk with
+ * every error of the import, one {@link OrderImportResultDto.ImportError} per line, in the order they were found.
+ *
+ * <p>Reports are files only, the report id is their name: they survive a restart and are removed once
+ * older than the configured TTL.
+ */
+@Slf4j
+@Service
+public class OrderImportErrorReportService {
+    private static final Pattern REPORT_FILE_NAME = Pattern.compile("^[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.ndjson$");
+
+    private final ObjectWriter errorWriter;
+    private final Path directory;
+    private final Duration ttl;
+
+    public OrderImportErrorReportService(
+            ObjectMapper objectMapper,
+            @Value("${orders.import.errors.directory:${java.io.tmpdir}/orders-import-errors}") Path directory,
+            @Value("${orders.import.errors.ttl:PT24H}") Duration ttl
+    ) {
+        this.errorWriter = objectMapper.writerFor(OrderImportResultDto.ImportError.class);
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Creates the report directory and removes the reports that expired while the service was down.
+     */
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        purgeExpired();
+    }
+
+    /**
+     * Starts a new report, written by the import while it runs.
+     */
+    public Report create() {
+        purgeExpired();
+
+        UUID id = UUID.randomUUID();
+        try {
+            return new Report(id, Files.newBufferedWriter(file(id), StandardCharsets.UTF_8), errorWriter);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create import error report " + id, e);
+        }
+    }
+
+    /**
+     * Returns the report file. The report of a running import holds the errors found so far.
+     *
+     * @throws IllegalStateException if the report doesn't exist or has expired
+     */
+    public Path getReport(UUID id) {
+        Path file = file(id);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Import error report with id '%s' not found".formatted(id));
+        }
+        return file;
+    }
+
+    /**
+     * Removes reports not written to for longer than the TTL.
+     */
+    void purgeExpired() {
+        Instant expiredBefore = Instant.now().minus(ttl);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> REPORT_FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .filter(file -> isModifiedBefore(file, expiredBefore))
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                            log.info("Import error report {} expired", file.getFileName());
+                        } catch (IOException e) {
+                            log.warn("Could not delete import error report {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Could not list import error reports in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private Path file(UUID id) {
+        return directory.resolve(id + ".ndjson");
+    }
+
+    private static boolean isModifiedBefore(Path file, Instant instant) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(instant);
+        } catch (IOException e) {
+            // Deleted meanwhile
+            return false;
+        }
+    }
+
+    /**
+     * Error report being written.
+     */
+    public static final class Report implements Closeable {
+        private final UUID id;
+        private final BufferedWriter writer;
+        private final ObjectWriter errorWriter;
+
+        private Report(UUID id, BufferedWriter writer, ObjectWriter errorWriter) {
+            this.id = id;
+            this.writer = writer;
+            this.errorWriter = errorWriter;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public void write(OrderImportResultDto.ImportError error) {
+            try {
+                writer.write(errorWriter.writeValueAsString(error));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write import error report " + id, e);
+            }
+        }
+
+        /**
+         * Makes the errors written so far visible to downloads of the report.
+         */
+        public void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write import error report " + id, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto.ImportError;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Errors of one import in bounded memory. Every error is counted by its reason, but only the {@code maxInline}
+ * errors with the lowest line numbers are kept for the result. Once an import has more errors than that, all of
+ * them are written to an error report, see {@link OrderImportErrorReportService}.
+ */
+final class OrderImportErrors implements Closeable {
+    private static final Comparator<ImportError> BY_LINE_NUMBER = Comparator.comparingInt(ImportError::lineNumber);
+
+    private final int maxInline;
+    private final OrderImportErrorReportService reportService;
+    // Head is the highest line number, the first one to drop
+    private final PriorityQueue<ImportError> inline;
+    private final Map<String, Integer> countsByReason = new TreeMap<>();
+    private OrderImportErrorReportService.Report report;
+    private int count;
+
+    OrderImportErrors(int maxInline, OrderImportErrorReportService reportService) {
+        this.maxInline = maxInline;
+        this.reportService = reportService;
+        this.inline = new PriorityQueue<>(Math.max(1, Math.min(maxInline, 1024)) + 1, BY_LINE_NUMBER.reversed());
+    }
+
+    void add(ImportError error) {
+        count++;
+        countsByReason.merge(error.reason(), 1, Integer::sum);
+
+        if (report == null && count > maxInline) {
+            // Errors found so far go first, the report holds every error of the import
+            report = reportService.create();
+            inline.stream().sorted(BY_LINE_NUMBER).forEach(report::write);
+        }
+        if (report != null) {
+            report.write(error);
+        }
+
+        inline.add(error);
+        if (inline.size() > maxInline) {
+            inline.poll();
+        }
+    }
+
+    /**
+     * @return the errors with the lowest line numbers, sorted by line number
+     */
+    List<ImportError> getInline() {
+        return inline.stream().sorted(BY_LINE_NUMBER).toList();
+    }
+
+    /**
+     * @return number of errors by reason, sorted by reason
+     */
+    Map<String, Integer> getCountsByReason() {
+        return new TreeMap<>(countsByReason);
+    }
+
+    /**
+     * @return id of the error report, {@code null} while all errors fit in the result
+     */
+    UUID getReportId() {
+        return report != null ? report.getId() : null;
+    }
+
+    /**
+     * Makes the errors found so far visible to downloads of the error report.
+     */
+    void flush() {
+        if (report != null) {
+            report.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (report != null) {
+            report.close();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderImportJob;
+import com.halmber.springordersapi.model.OrderImportProgress;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportJobResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.service.exeption.OrderImportFailedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Imports order files of any size in the background.
+ *
+ * <p>The request body is streamed to local disk as it arrives (no multipart parsing, no in-memory buffering),
+ * decompressed if it is gzip or zstd encoded and hashed on the way for the import checkpoint, and the request
+ * returns a job id. A bounded worker pool then imports the file
+ * with {@link OrderImportService#importOrdersInChunks}; when both the pool and its queue are full new jobs are
+ * rejected. Progress (records processed, first errors) can be polled or followed as server-sent events, sent by
+ * a virtual thread per follower so that a client reading slowly only delays its own events.
+ * The file is deleted once the job is finished, finished jobs are removed once older than the configured TTL.
+ *
+ * <p>Jobs are kept in memory: they are local to the instance and do not survive a restart. The committed chunks
+ * of a job interrupted by a restart can still be resumed with the checkpoint reported by the job.
+ */
+@Slf4j
+@Service
+public class OrderImportJobService {
+    private static final Pattern JOB_FILE_NAME = Pattern.compile("^[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.(json|ndjson|csv)(\\.part)?$");
+
+    private final OrderImportService orderImportService;
+    private final ReportCompressionService compressionService;
+    private final Path directory;
+    private final DataSize maxFileSize;
+    private final Duration ttl;
+    private final int maxErrors;
+    private final Duration eventInterval;
+    private final ThreadPoolTaskExecutor executor;
+    private final SimpleAsyncTaskExecutor eventExecutor;
+    private final Map<UUID, OrderImportJob> jobs = new ConcurrentHashMap<>();
+
+    public OrderImportJobService(
+            OrderImportService orderImportService,
+            ReportCompressionService compressionService,
+            @Value("${orders.import.jobs.directory:${java.io.tmpdir}/orders-imports}") Path directory,
+            @Value("${orders.import.jobs.max-file-size:10GB}") DataSize maxFileSize,
+            @Value("${orders.import.jobs.ttl:PT1H}") Duration ttl,
+            @Value("${orders.import.jobs.pool-size:1}") int poolSize,
+            @Value("${orders.import.jobs.queue-capacity:10}") int queueCapacity,
+            @Value("${orders.import.jobs.max-errors:100}") int maxErrors,
+            @Value("${orders.import.jobs.event-interval:PT1S}") Duration eventInterval,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.orderImportService = orderImportService;
+        this.compressionService = compressionService;
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.ttl = ttl;
+        this.maxErrors = maxErrors;
+        this.eventInterval = eventInterval;
+
+        // Not beans: an Executor bean would replace Spring Boot's default application task executor
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-import-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+
+        // Followers mostly wait, virtual threads whatever spring.threads.virtual.enabled says
+        this.eventExecutor = new SimpleAsyncTaskExecutor("order-import-events-");
+        eventExecutor.setVirtualThreads(true);
+        eventExecutor.setCancelRemainingTasksOnClose(true);
+    }
+
+    /**
+     * Creates the upload directory and removes uploads left by a previous run (the jobs themselves are gone).
+     */
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> JOB_FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .forEach(this::deleteQuietly);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        eventExecutor.close();
+        executor.shutdown();
+    }
+
+    /**
+     * Stores the uploaded file on disk and queues its import.
+     *
+     * @param body        file of orders, read to the end
+     * @param format      format of the file
+     * @param compression compression of the body, stored decompressed
+     * @param resumeFrom  checkpoint of a failed import of the same file, {@code null} to start a new import
+     * @throws IllegalArgumentException if the file is empty or larger than the configured maximum, decompressed
+     * @throws TaskRejectedException    if the worker pool and its queue are full
+     */
+    public OrderImportJobResponseDto submit(
+            InputStream body,
+            OrderImportFormatEnum format,
+            ReportCompressionEnum compression,
+            UUID resumeFrom
+    ) throws IOException {
+        purgeExpired();
+
+        UUID id = UUID.randomUUID();
+        Path file = directory.resolve(id + format.getExtension());
+        Path partFile = directory.resolve(file.getFileName() + ".part");
+        MessageDigest digest = OrderImportService.newFileDigest();
+        long fileSize;
+        try {
+            // The checkpoint hash is of the decompressed file, whatever the encoding of the upload
+            try (InputStream inputStream = compressionService.decompress(body, compression);
+                 OutputStream outputStream = new DigestOutputStream(Files.newOutputStream(partFile), digest)) {
+                fileSize = copy(inputStream, outputStream);
+            }
+            Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(partFile);
+            throw e;
+        }
+
+        String fileHash = HexFormat.of().formatHex(digest.digest());
+        OrderImportJob job = new OrderImportJob(id, file, format, fileSize, fileHash, resumeFrom, maxErrors);
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> runImport(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(file);
+            throw new TaskRejectedException("Too many import jobs in progress, try again later", e);
+        }
+
+        log.info("Import job {} submitted: {} {} bytes, compression={}, resumeFrom={}", job.getId(), fileSize, format,
+                compression, resumeFrom);
+        return toDto(job);
+    }
+
+    /**
+     * @throws IllegalStateException if the job doesn't exist or has expired
+     */
+    public OrderImportJobResponseDto getJob(UUID id) {
+        return toDto(findJobOrThrow(id));
+    }
+
+    /**
+     * Sends the job status as a {@code progress} event every {@code orders.import.jobs.event-interval}
+     * until the job is finished, then completes the stream.
+     *
+     * @throws IllegalStateException if the job doesn't exist or has expired
+     */
+    public SseEmitter follow(UUID id) {
+        // Finished or expired jobs complete the emitter, no need for a timeout
+        return follow(id, new SseEmitter(0L));
+    }
+
+    /**
+     * Sends the events of {@link #follow(UUID)} on a thread of their own: {@code send} blocks while the client
+     * doesn't read, the next event is sent an interval after it returns.
+     */
+    SseEmitter follow(UUID id, SseEmitter emitter) {
+        OrderImportJob job = findJobOrThrow(id);
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        emitter.onCompletion(() -> stopped.set(true));
+        emitter.onError(error -> stopped.set(true));
+
+        eventExecutor.execute(() -> {
+            try {
+                while (!stopped.get()) {
+                    emitter.send(SseEmitter.event().name("progress").data(toDto(job)));
+                    if (job.isFinished()) {
+                        emitter.complete();
+                        return;
+                    }
+                    Thread.sleep(eventInterval);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client is gone
+                log.debug("Import job {} events stopped: {}", id, e.getMessage());
+            } catch (InterruptedException e) {
+                // Shutdown
+                emitter.complete();
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * Removes finished jobs older than the TTL.
+     */
+    void purgeExpired() {
+        Instant expiredBefore = Instant.now().minus(ttl);
+
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(expiredBefore)) {
+                return false;
+            }
+
+            log.info("Import job {} expired", job.getId());
+            return true;
+        });
+    }
+
+    private void runImport(OrderImportJob job) {
+        job.start();
+        try {
+            OrderImportResultDto result = orderImportService.importOrdersInChunks(
+                    new FileSystemResource(job.getFile()), job.getFormat(), job.getFileHash(), job.getResumeFrom(),
+                    job.getProgress());
+
+            job.complete();
+            log.info("Import job {} completed: {} total, {} successful, {} failed", job.getId(),
+                    result.totalRecords(), result.successfulImports(), result.failedImports());
+        } catch (OrderImportFailedException e) {
+            // Logged by the import, the message tells the checkpoint to resume from without the cause
+            job.fail(e.getMessage());
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            deleteQuietly(job.getFile());
+        }
+    }
+
+    private long copy(InputStream body, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            size += read;
+            if (size > maxFileSize.toBytes()) {
+                throw new IllegalArgumentException("File size exceeds maximum allowed size of %dMB".formatted(maxFileSize.toMegabytes()));
+            }
+            outputStream.write(buffer, 0, read);
+        }
+
+        if (size == 0) {
+            throw new IllegalArgumentException("Uploaded file is empty");
+        }
+        return size;
+    }
+
+    private OrderImportJob findJobOrThrow(UUID id) {
+        OrderImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalStateException("Import job with id '%s' not found".formatted(id));
+        }
+
+        return job;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private OrderImportJobResponseDto toDto(OrderImportJob job) {
+        OrderImportProgress progress = job.getProgress();
+        return OrderImportJobResponseDto.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .fileSize(job.getFileSize())
+                .recordsProcessed(progress.getRecordsProcessed())
+                .successfulImports(progress.getSuccessfulImports())
+                .failedImports(progress.getFailedImports())
+                .errors(progress.getErrors())
+                .errorsByReason(progress.getErrorsByReason())
+                .errorReportId(progress.getErrorReportId())
+                .checkpointId(progress.getCheckpointId())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
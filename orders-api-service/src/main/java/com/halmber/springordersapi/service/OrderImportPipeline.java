@@ -0,0 +1,244 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.service.OrderImportReader.ParsedLine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Staged import of an order file: parse, validate, write.
+ *
+ * <p>A parser thread reads batches of records from the {@link OrderImportReader}, validator threads validate whole batches, and the calling thread
+ * writes them in file order, so it can use its transaction. Parsing and validation thereby overlap the database
+ * round trips of the writer. At most {@code maxBatches} batches are in flight between the parser and the writer:
+ * the parser waits when the writer falls behind.
+ *
+ * <p>With no validator threads, everything runs on the calling thread, batch after batch.
+ *
+ * @param <T> a validated record
+ */
+final class OrderImportPipeline<T> {
+    private final int batchSize;
+    private final int validators;
+    private final int maxBatches;
+    private final ThreadFactory threadFactory;
+
+    OrderImportPipeline(int batchSize, int validators, int maxBatches, ThreadFactory threadFactory) {
+        this.batchSize = batchSize;
+        this.validators = validators;
+        this.maxBatches = maxBatches;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Imports up to {@code limit} records. The reader is used by one thread at a time and is positioned after
+     * the last imported record when this returns.
+     *
+     * @param validator validates a record, called concurrently
+     * @param writer    writes a batch of validated records, called on the calling thread in file order
+     * @return {@code true} when the end of the file was reached
+     */
+    boolean run(
+            OrderImportReader reader,
+            int limit,
+            Function<ParsedLine, T> validator,
+            Consumer<List<T>> writer
+    ) throws IOException {
+        if (validators == 0) {
+            return runInline(reader, limit, validator, writer);
+        }
+
+        Semaphore inFlight = new Semaphore(maxBatches);
+        BlockingQueue<Batch<ParsedLine>> parsed = new LinkedBlockingQueue<>();
+        BlockingQueue<Batch<T>> validated = new LinkedBlockingQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        boolean[] completed = new boolean[1];
+        List<Thread> threads = new ArrayList<>(validators + 1);
+
+        try {
+            threads.add(start(() -> {
+                try {
+                    ParseState state = new ParseState(limit);
+                    for (int sequence = 0; !state.done(); sequence++) {
+                        inFlight.acquire();
+                        List<ParsedLine> lines = readBatch(reader, state);
+                        if (lines.isEmpty()) {
+                            inFlight.release();
+                            break;
+                        }
+                        parsed.put(new Batch<>(sequence, lines));
+                    }
+                    completed[0] = state.completed;
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    for (int i = 0; i < validators; i++) {
+                        parsed.add(Batch.end());
+                    }
+                }
+            }));
+
+            for (int i = 0; i < validators; i++) {
+                threads.add(start(() -> {
+                    try {
+                        for (Batch<ParsedLine> batch = parsed.take(); !batch.isEnd(); batch = parsed.take()) {
+                            validated.put(new Batch<>(batch.sequence(), batch.lines().stream().map(validator).toList()));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        validated.add(Batch.end());
+                    }
+                }));
+            }
+
+            // Validators finish batches in any order, they are written by sequence
+            Map<Integer, Batch<T>> pending = new HashMap<>();
+            int next = 0;
+            for (int ended = 0; ended < validators; ) {
+                Batch<T> batch = validated.take();
+                // Checked on end markers too: a stage sets the failure before its end markers, and the batch of a
+                // failed validator never arrives, so the batches after it could never be written
+                if (failure.get() != null) {
+                    break;
+                }
+                if (batch.isEnd()) {
+                    ended++;
+                    continue;
+                }
+
+                pending.put(batch.sequence(), batch);
+                for (Batch<T> ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                    writer.accept(ready.lines());
+                    inFlight.release();
+                    next++;
+                }
+            }
+
+            // A failed stage stops the others in finally before the failure is thrown: the parser may be waiting
+            // for the writer, the validators for the parser
+            rethrow(failure.get());
+            join(threads);
+            return completed[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order import was interrupted", e);
+        } finally {
+            // Stops the other stages when writing failed
+            threads.forEach(Thread::interrupt);
+            joinUninterruptibly(threads);
+        }
+    }
+
+    private boolean runInline(
+            OrderImportReader reader,
+            int limit,
+            Function<ParsedLine, T> validator,
+            Consumer<List<T>> writer
+    ) throws IOException {
+        ParseState state = new ParseState(limit);
+        while (!state.done()) {
+            List<ParsedLine> lines = readBatch(reader, state);
+            if (lines.isEmpty()) {
+                break;
+            }
+            writer.accept(lines.stream().map(validator).toList());
+        }
+
+        return state.completed;
+    }
+
+    private List<ParsedLine> readBatch(OrderImportReader reader, ParseState state) throws IOException {
+        List<ParsedLine> lines = new ArrayList<>(batchSize);
+        while (lines.size() < batchSize && !state.done()) {
+            ParsedLine line = reader.next();
+            if (line == null) {
+                state.completed = true;
+                break;
+            }
+
+            state.remaining--;
+            lines.add(line);
+        }
+
+        return lines;
+    }
+
+    private Thread start(Runnable task) {
+        Thread thread = threadFactory.newThread(task);
+        thread.start();
+        return thread;
+    }
+
+    private static void join(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void joinUninterruptibly(List<Thread> threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        switch (failure) {
+            case null -> {
+            }
+            case IOException e -> throw e;
+            case UncheckedIOException e -> throw e.getCause();
+            case RuntimeException e -> throw e;
+            case Error e -> throw e;
+            default -> throw new IllegalStateException(failure);
+        }
+    }
+
+    private static final class ParseState {
+        private int remaining;
+        private boolean completed;
+
+        private ParseState(int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean done() {
+            return completed || remaining <= 0;
+        }
+    }
+
+    /**
+     * Batch number {@code sequence} of the run, or the end marker of a stage.
+     */
+    private record Batch<L>(int sequence, List<L> lines) {
+        static <L> Batch<L> end() {
+            return new Batch<>(-1, null);
+        }
+
+        boolean isEnd() {
+            return lines == null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.dto.request.order.OrderImportDto;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming reader of the orders of an import file, one record at a time: memory use doesn't depend on the file size.
+ * Used by a single thread at a time.
+ *
+ * <p>Records are numbered by their line in the file for line based formats (NDJSON, CSV, where the header is line 1)
+ * and by their position in the array for JSON.
+ */
+interface OrderImportReader extends Closeable {
+
+    /**
+     * A record of the file: the parsed order, or the error that prevented parsing it.
+     */
+    record ParsedLine(int lineNumber, OrderImportDto dto, Exception error) {
+    }
+
+    /**
+     * @return the next record, {@code null} after the last one
+     * @throws IOException if the rest of the file can't be read, unlike a malformed record
+     */
+    ParsedLine next() throws IOException;
+
+    /**
+     * Skips records, e.g. the ones committed by an earlier attempt of the import.
+     *
+     * @throws IllegalArgumentException if the file has less records
+     */
+    default void skip(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (next() == null) {
+                throw new IllegalArgumentException("File has less than %d records".formatted(count));
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the start of the file doesn't match the format, e.g. a CSV header
+     */
+    static OrderImportReader open(
+            OrderImportFormatEnum format,
+            InputStream inputStream,
+            ObjectMapper objectMapper
+    ) throws IOException {
+        return switch (format) {
+            case JSON -> new JsonOrderImportReader(inputStream, objectMapper);
+            case NDJSON -> new NdjsonOrderImportReader(inputStream, objectMapper);
+            case CSV -> new CsvOrderImportReader(inputStream);
+        };
+    }
+}
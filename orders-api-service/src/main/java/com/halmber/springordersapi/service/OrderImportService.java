@@ -1,40 +1,70 @@
 package com.halmber.springordersapi.service;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.OrderImportProgress;
 import com.halmber.springordersapi.model.dto.request.order.OrderImportDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.entity.OrderImportCheckpoint;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
 import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
 import com.halmber.springordersapi.model.enums.StatusEnum;
 import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.repository.OrderImportCheckpointRepository;
 import com.halmber.springordersapi.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import com.halmber.springordersapi.service.exeption.OrderImportFailedException;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
 
 /**
- * Service for importing orders from JSON files.
- * Uses streaming Jackson parser to handle large files efficiently
+ * Service for importing orders from JSON, NDJSON and CSV files.
+ * Uses streaming readers to handle large files efficiently
  * without loading the entire file into memory.
  *
  * <p>Support:
  * <ul>
- *   <li>Memory-efficient streaming JSON parsing</li>
+ *   <li>Memory-efficient streaming parsing of every format, see {@link OrderImportReader}</li>
+ *   <li>Format detection from the file extension or content type</li>
+ *   <li>gzip and zstd compressed files ({@code .json.gz}, {@code .csv.zst}, ...), decompressed as they are read</li>
  *   <li>Batch processing with configurable batch size (50 records)</li>
+ *   <li>Parsing and validation on their own threads, ahead of the writer, see {@link OrderImportPipeline}</li>
+ *   <li>Customer lookups in bulk: one query per batch for the customers not seen yet in the file</li>
+ *   <li>Bulk loading with {@code COPY} on PostgreSQL, see {@link OrderCopyImportService}</li>
+ *   <li>Idempotent re-imports: orders with an {@code orderId} update the order imported with the same id</li>
  *   <li>Comprehensive validation with detailed error reporting</li>
- *   <li>File size limit enforcement (10MB maximum)</li>
- *   <li>Transaction management for data consistency</li>
+ *   <li>Errors in bounded memory: the result keeps the first ones, counts all of them by reason
+ *       and links a downloadable report with every error, see {@link OrderImportErrors}</li>
+ *   <li>File size limit enforcement (10MB maximum, decompressed; {@code orders.import.chunked.max-file-size}
+ *       for chunked imports)</li>
+ *   <li>Transaction management for data consistency, or chunked commits with resumable checkpoints</li>
  *   <li>Line-by-line error tracking for debugging</li>
  * </ul>
  *
@@ -49,135 +79,437 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderImportService {
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_EXTERNAL_ID_LENGTH = 64;
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final ObjectMapper objectMapper;
+    private final OrderCopyImportService orderCopyImportService;
+    private final OrderImportCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final OrderImportErrorReportService errorReportService;
+    private final ReportCompressionService compressionService;
+    private final int chunkSize;
+    private final int validators;
+    private final int pipelineBatches;
+    private final int maxInlineErrors;
+    private final long chunkedMaxFileSize;
+    private final ThreadFactory pipelineThreads;
+
+    public OrderImportService(
+            OrderRepository orderRepository,
+            CustomerRepository customerRepository,
+            ObjectMapper objectMapper,
+            OrderCopyImportService orderCopyImportService,
+            OrderImportCheckpointRepository checkpointRepository,
+            TransactionTemplate transactionTemplate,
+            EntityManager entityManager,
+            OrderImportErrorReportService errorReportService,
+            ReportCompressionService compressionService,
+            @Value("${orders.import.chunk-size:10000}") int chunkSize,
+            @Value("${orders.import.pipeline.validators:2}") int validators,
+            @Value("${orders.import.pipeline.max-batches:16}") int pipelineBatches,
+            @Value("${orders.import.errors.max-inline:100}") int maxInlineErrors,
+            @Value("${orders.import.chunked.max-file-size:1GB}") DataSize chunkedMaxFileSize,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.objectMapper = objectMapper;
+        this.orderCopyImportService = orderCopyImportService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.errorReportService = errorReportService;
+        this.compressionService = compressionService;
+        this.chunkSize = chunkSize;
+        this.validators = validators;
+        this.pipelineBatches = pipelineBatches;
+        this.maxInlineErrors = maxInlineErrors;
+        this.chunkedMaxFileSize = chunkedMaxFileSize.toBytes();
+        // Threads of one import, not pooled: a stage waiting for a pooled thread could stall the others
+        this.pipelineThreads = virtualThreads
+                ? Thread.ofVirtual().name("order-import-stage-", 0).factory()
+                : Thread.ofPlatform().name("order-import-stage-", 0).daemon().factory();
+    }
 
     /**
-     * Imports orders from JSON file using streaming to avoid memory issues with large files.
-     * Processes orders in batches for better database performance.
+     * Imports orders from a file using streaming to avoid memory issues with large files.
+     * Processes orders in batches for better database performance. Valid orders are saved
+     * with JPA, or bulk loaded when {@link OrderCopyImportService#isSupported()}.
+     * The whole file is imported in one transaction.
      *
-     * @param file JSON file containing orders array
-     * @return Import result with statistics and error details
+     * @param file JSON array, NDJSON or CSV file of orders, see {@link OrderImportFormatEnum}, optionally gzip or
+     *             zstd compressed
+     * @return Import result with statistics, the first {@code orders.import.errors.max-inline} errors
+     * and the id of the report with all of them when there are more
      * @throws IOException if file cannot be read or parsed
      */
     @Transactional
     public OrderImportResultDto importOrders(MultipartFile file) throws IOException {
-        validateFile(file);
+        UploadedFileType type = validateFile(file, MAX_FILE_SIZE);
 
-        List<OrderImportResultDto.ImportError> errors = new ArrayList<>();
-        List<Order> ordersToSave = new ArrayList<>();
-        int lineNumber = 0;
-        int totalRecords = 0;
-        int successfulImports = 0;
+        try (ImportRun run = newRun(0, 0, null);
+             InputStream inputStream = open(file, type.compression(), MAX_FILE_SIZE);
+             OrderImportReader reader = OrderImportReader.open(type.format(), inputStream, objectMapper)) {
+            importRecords(reader, run, Integer.MAX_VALUE);
+            return run.toResult(null);
+        }
+    }
 
-        try (InputStream inputStream = file.getInputStream();
-             JsonParser parser = objectMapper.createParser(inputStream)) {
+    /**
+     * Imports orders like {@link #importOrders(MultipartFile)}, but commits every {@code orders.import.chunk-size}
+     * records together with a checkpoint of the progress, and clears the persistence context, so memory stays flat
+     * and a failure only rolls back the current chunk. Must not be called inside a transaction, or chunks join it.
+     * Files may be as large as {@code orders.import.chunked.max-file-size}, decompressed.
+     *
+     * <p>When the import fails, {@link OrderImportFailedException} carries the checkpoint id: uploading the same file
+     * again with it as {@code resumeFrom} skips the committed records. Errors of earlier attempts aren't repeated,
+     * the counts of the result cover the whole file.
+     *
+     * @param file       JSON array, NDJSON or CSV file of orders, optionally compressed
+     * @param resumeFrom checkpoint of a failed import of the same file, {@code null} to start a new import
+     * @return Import result with statistics, error details and the checkpoint id
+     * @throws IOException if file cannot be read or doesn't match its format
+     */
+    public OrderImportResultDto importOrdersInChunks(MultipartFile file, UUID resumeFrom) throws IOException {
+        UploadedFileType type = validateFile(file, chunkedMaxFileSize);
 
-            if (parser.nextToken() != JsonToken.START_ARRAY) {
-                throw new IllegalArgumentException("Expected JSON array at root level");
-            }
+        // The checkpoint is of the decompressed content, like the files of import jobs
+        InputStreamSource source = () -> open(file, type.compression(), chunkedMaxFileSize);
+        try (InputStream inputStream = source.getInputStream()) {
+            return importOrdersInChunks(source, type.format(), hash(inputStream), resumeFrom, null);
+        }
+    }
 
-            // Process each order in the array
-            while (parser.nextToken() != JsonToken.END_ARRAY) {
-                lineNumber++;
-                totalRecords++;
+    /**
+     * Imports orders of a file already checked by the caller (e.g. an upload stored on disk, of any size) in chunks,
+     * see {@link #importOrdersInChunks(MultipartFile, UUID)}.
+     *
+     * @param source     file of orders
+     * @param format     format of the file
+     * @param fileHash   SHA-256 of the file, see {@link #hash(InputStream)}
+     * @param resumeFrom checkpoint of a failed import of the same file, {@code null} to start a new import
+     * @param progress   updated after every batch, {@code null} if not needed
+     */
+    public OrderImportResultDto importOrdersInChunks(
+            InputStreamSource source,
+            OrderImportFormatEnum format,
+            String fileHash,
+            UUID resumeFrom,
+            OrderImportProgress progress
+    ) throws IOException {
+        OrderImportCheckpoint checkpoint = resumeFrom != null
+                ? findCheckpoint(resumeFrom, fileHash)
+                : checkpointRepository.save(OrderImportCheckpoint.builder().fileHash(fileHash).build());
+        if (resumeFrom != null) {
+            log.info("Resuming import {} after {} committed records", checkpoint.getId(), checkpoint.getCommittedRecords());
+        }
 
+        if (progress != null) {
+            progress.setCheckpointId(checkpoint.getId());
+        }
+        try (ImportRun run = newRun(checkpoint.getCommittedRecords(), checkpoint.getSuccessfulImports(), progress);
+             InputStream inputStream = source.getInputStream();
+             OrderImportReader reader = OrderImportReader.open(format, inputStream, objectMapper)) {
+            run.publish();
+            reader.skip(checkpoint.getCommittedRecords());
+
+            while (!checkpoint.isCompleted()) {
+                OrderImportCheckpoint committed = checkpoint;
                 try {
-                    OrderImportDto dto = parser.readValueAs(OrderImportDto.class);
-                    Order order = processOrder(dto, lineNumber, errors);
+                    checkpoint = transactionTemplate.execute(status -> commitChunk(reader, run, committed));
+                } catch (RuntimeException e) {
+                    log.error("Import {} failed after {} committed records", committed.getId(),
+                            committed.getCommittedRecords(), e);
+                    throw new OrderImportFailedException(committed.getId(), committed.getCommittedRecords(), e);
+                }
+            }
 
-                    if (order != null) {
-                        ordersToSave.add(order);
-                        successfulImports++;
+            return run.toResult(checkpoint.getId());
+        }
+    }
 
-                        // Batch insert every 50 records
-                        if (ordersToSave.size() >= 50) {
-                            orderRepository.saveAll(ordersToSave);
-                            ordersToSave.clear();
-                        }
-                    }
-                } catch (Exception e) {
-                    errors.add(OrderImportResultDto.ImportError.builder()
-                            .lineNumber(lineNumber)
-                            .reason("Parse error")
-                            .details(e.getMessage())
-                            .build());
-                    log.warn("Error parsing order at line {}: {}", lineNumber, e.getMessage());
+    /**
+     * Imports the next chunk of records and saves the progress in the current transaction.
+     * The saved orders are flushed and detached before the commit.
+     *
+     * @return the updated checkpoint
+     */
+    private OrderImportCheckpoint commitChunk(OrderImportReader reader, ImportRun run, OrderImportCheckpoint checkpoint) {
+        boolean completed;
+        try {
+            completed = importRecords(reader, run, chunkSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // A copy, the given checkpoint stays the last committed one if this transaction rolls back
+        OrderImportCheckpoint saved = checkpointRepository.save(checkpoint.toBuilder()
+                .committedRecords(run.totalRecords)
+                .successfulImports(run.successfulImports)
+                .completed(completed)
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+        log.debug("Import {} committed {} records", saved.getId(), saved.getCommittedRecords());
+        return saved;
+    }
+
+    private OrderImportCheckpoint findCheckpoint(UUID id, String fileHash) {
+        OrderImportCheckpoint checkpoint = checkpointRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Import checkpoint with id '%s' not found".formatted(id)));
+
+        if (!checkpoint.getFileHash().equals(fileHash)) {
+            throw new IllegalArgumentException("Uploaded file differs from the file of import " + id);
+        }
+        if (checkpoint.isCompleted()) {
+            throw new IllegalArgumentException("Import %s is already completed".formatted(id));
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Reads up to {@code limit} records of the file and imports them in batches of 50 records,
+     * parsed and validated ahead by the {@link OrderImportPipeline} and written on this thread.
+     *
+     * @return {@code true} when the end of the file was reached
+     */
+    private boolean importRecords(OrderImportReader reader, ImportRun run, int limit) throws IOException {
+        try (OrderCopyImportService.CopyLoad copyLoad = orderCopyImportService.isSupported()
+                ? orderCopyImportService.begin()
+                : null) {
+
+            OrderImportPipeline<ValidatedLine> pipeline =
+                    new OrderImportPipeline<>(BATCH_SIZE, validators, pipelineBatches, pipelineThreads);
+            boolean completed = pipeline.run(reader, limit, this::validate,
+                    batch -> writeBatch(batch, run, copyLoad));
+
+            if (copyLoad != null) {
+                // Orders of unknown customers are left out by the insert
+                OrderCopyImportService.Result result = copyLoad.finish();
+                for (OrderCopyImportService.RejectedLine rejected : result.rejected()) {
+                    run.addError(createError(rejected.lineNumber(), "Customer not found",
+                            "No customer with ID: " + rejected.customerId()));
                 }
+                run.successfulImports -= result.rejected().size();
+                run.publish();
             }
 
-            // Save remaining orders
-            if (!ordersToSave.isEmpty()) {
-                orderRepository.saveAll(ordersToSave);
-            }
+            return completed;
         }
+    }
 
-        int failedImports = totalRecords - successfulImports;
-        log.info("Import completed: {} total, {} successful, {} failed",
-                totalRecords, successfulImports, failedImports);
+    /**
+     * @return SHA-256 of the stream, hex encoded: the file hash of import checkpoints
+     */
+    public static String hash(InputStream inputStream) throws IOException {
+        MessageDigest digest = newFileDigest();
+        new DigestInputStream(inputStream, digest).transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-        return OrderImportResultDto.builder()
-                .totalRecords(totalRecords)
-                .successfulImports(successfulImports)
-                .failedImports(failedImports)
-                .errors(errors)
-                .build();
+    /**
+     * @return digest for the file hash of import checkpoints, for callers that see the file as it is written
+     */
+    public static MessageDigest newFileDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
      * Validates uploaded file.
+     *
+     * @param maxSize maximum size of the file, and of its content once decompressed
+     * @return the compression of the file by its extension, and its format by the extension before it
+     * or else its content type
      */
-    private void validateFile(MultipartFile file) {
+    private UploadedFileType validateFile(MultipartFile file, long maxSize) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Uploaded file is empty");
         }
 
         String filename = file.getOriginalFilename();
-        if (filename == null || !filename.toLowerCase().endsWith(".json")) {
-            throw new IllegalArgumentException("Only JSON files are allowed");
+        ReportCompressionEnum compression = ReportCompressionEnum.fromFilename(filename);
+        if (compression != ReportCompressionEnum.NONE) {
+            // orders.json.gz is a JSON file
+            filename = filename.substring(0, filename.length() - compression.getExtension().length());
         }
 
-        // Check file size (max 10MB)
-        long maxSize = 10 * 1024 * 1024; // 10MB
+        OrderImportFormatEnum format = OrderImportFormatEnum.fromFilename(filename);
+        if (format == null && compression == ReportCompressionEnum.NONE) {
+            // The content type of a compressed file is the compression
+            format = OrderImportFormatEnum.fromContentType(file.getContentType());
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("Only JSON, NDJSON and CSV files are allowed, optionally gzip or zstd compressed");
+        }
+
+        // Check file size, compressed files are checked again as they are decompressed
         if (file.getSize() > maxSize) {
             throw new IllegalArgumentException(
-                    "File size exceeds maximum allowed size of 10MB"
+                    "File size exceeds maximum allowed size of %dMB".formatted(maxSize / (1024 * 1024))
             );
         }
+        return new UploadedFileType(format, compression);
     }
 
     /**
-     * Processes a single order DTO and converts it to Order entity.
-     * Validates all fields and checks if customer exists.
+     * Opens the uploaded file, decompressed as it is read.
      *
-     * @param dto        Order data from JSON
-     * @param lineNumber Current line number for error reporting
-     * @param errors     List to collect errors
-     * @return Order entity if valid, null otherwise
-     */
-    private Order processOrder(
-            OrderImportDto dto,
-            int lineNumber,
-            List<OrderImportResultDto.ImportError> errors
-    ) {
+     * @throws IllegalArgumentException while reading, once the decompressed content exceeds {@code maxSize}
+     */
+    private InputStream open(MultipartFile file, ReportCompressionEnum compression, long maxSize) throws IOException {
+        InputStream inputStream = file.getInputStream();
+        if (compression == ReportCompressionEnum.NONE) {
+            return inputStream;
+        }
+
+        try {
+            return new SizeLimitedInputStream(compressionService.decompress(inputStream, compression), maxSize);
+        } catch (IOException | RuntimeException e) {
+            // Not a valid compressed file
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks the customers of a batch of validated orders and saves the valid ones, or stages them when bulk loading.
+     * The customers of the batch are fetched up front, in a single query. When bulk loading, the connection
+     * is busy with the COPY and customers are checked by the final insert instead.
+     *
+     * <p>Orders with an external id replace the order with the same id: the bulk load upserts them, otherwise
+     * the existing orders of the batch are fetched with a single query as well and updated.
+     *
+     * @param copyLoad bulk load to stage the orders in, {@code null} to save them with JPA
+     */
+    private void writeBatch(List<ValidatedLine> batch, ImportRun run, OrderCopyImportService.CopyLoad copyLoad) {
+        Map<String, Order> ordersByExternalId = new HashMap<>();
+        if (copyLoad == null) {
+            run.customers.prefetch(batch.stream()
+                    .map(ValidatedLine::customerId)
+                    .filter(Objects::nonNull)
+                    .toList());
+            ordersByExternalId = findByExternalId(batch);
+        }
+
+        List<Order> ordersToSave = new ArrayList<>(batch.size());
+        int staged = 0;
+        int updated = 0;
+        for (ValidatedLine line : batch) {
+            OrderImportResultDto.ImportError error = line.error();
+            if (line.customerId() != null) {
+                // Check if customer exists
+                Customer customer = copyLoad == null
+                        ? run.customers.get(line.customerId())
+                        : Customer.builder().id(line.customerId()).build();
+                if (customer == null) {
+                    error = createError(line.lineNumber(), "Customer not found",
+                            "No customer with ID: " + line.customerId());
+                } else if (error == null) {
+                    line.order().setCustomer(customer);
+                    Order existing = ordersByExternalId.get(line.order().getExternalId());
+                    if (copyLoad != null) {
+                        copyLoad.write(line.lineNumber(), line.order());
+                        staged++;
+                    } else if (existing != null) {
+                        // Written on flush, or with the batch if it was added by an earlier line of the batch
+                        update(existing, line.order());
+                        updated++;
+                    } else {
+                        ordersToSave.add(line.order());
+                        if (line.order().getExternalId() != null) {
+                            ordersByExternalId.put(line.order().getExternalId(), line.order());
+                        }
+                    }
+                }
+            }
+
+            if (error != null) {
+                run.addError(error);
+            }
+        }
+
+        if (!ordersToSave.isEmpty()) {
+            orderRepository.saveAll(ordersToSave);
+        }
+
+        run.totalRecords += batch.size();
+        run.successfulImports += ordersToSave.size() + staged + updated;
+        run.publish();
+    }
+
+    /**
+     * Loads the orders imported earlier with the external ids of the batch, with a single query.
+     */
+    private Map<String, Order> findByExternalId(List<ValidatedLine> batch) {
+        List<String> externalIds = batch.stream()
+                .map(ValidatedLine::order)
+                .filter(Objects::nonNull)
+                .map(Order::getExternalId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, Order> orders = new HashMap<>();
+        if (!externalIds.isEmpty()) {
+            orderRepository.findAllByExternalIdIn(externalIds).forEach(order -> orders.put(order.getExternalId(), order));
+        }
+        return orders;
+    }
+
+    private static void update(Order existing, Order imported) {
+        existing.setCustomer(imported.getCustomer());
+        existing.setAmount(imported.getAmount());
+        existing.setStatus(imported.getStatus());
+        existing.setPaymentMethod(imported.getPaymentMethod());
+    }
+
+    /**
+     * Validates a single parsed order and converts it to Order entity, without its customer.
+     * Runs on the validator threads of the pipeline: no database access, the writer checks the customer.
+     *
+     * @param line Order data from the file, or its parse error
+     * @return the order and its customer ID if valid. Otherwise the error, with the customer ID when the error was
+     * found after the customer check: it is reported only if the customer exists, "Customer not found" otherwise
+     */
+    private ValidatedLine validate(OrderImportReader.ParsedLine line) {
+        int lineNumber = line.lineNumber();
+        if (line.error() != null) {
+            return ValidatedLine.invalid(lineNumber, null, parseError(lineNumber, line.error()));
+        }
+
         // Validate required fields
+        OrderImportDto dto = line.dto();
         if (dto.customerId() == null || dto.customerId().isBlank()) {
-            errors.add(createError(lineNumber, "Missing customer ID", "customerId is required"));
-            return null;
+            return ValidatedLine.invalid(lineNumber, null,
+                    createError(lineNumber, "Missing customer ID", "customerId is required"));
         }
 
         if (dto.amount() == null || dto.amount() <= 0) {
-            errors.add(createError(lineNumber, "Invalid amount",
+            return ValidatedLine.invalid(lineNumber, null, createError(lineNumber, "Invalid amount",
                     "Amount must be positive, got: " + dto.amount()));
-            return null;
         }
 
         if (dto.status() == null || dto.status().isBlank()) {
-            errors.add(createError(lineNumber, "Missing status", "status is required"));
-            return null;
+            return ValidatedLine.invalid(lineNumber, null,
+                    createError(lineNumber, "Missing status", "status is required"));
+        }
+
+        // Optional order id of the source system, blank is none
+        String externalId = dto.orderId() != null && !dto.orderId().isBlank() ? dto.orderId() : null;
+        if (externalId != null && externalId.length() > MAX_EXTERNAL_ID_LENGTH) {
+            return ValidatedLine.invalid(lineNumber, null, createError(lineNumber, "Invalid order ID",
+                    "orderId must be at most %d characters".formatted(MAX_EXTERNAL_ID_LENGTH)));
         }
 
         // Parse and validate customer ID
@@ -185,46 +517,46 @@ public class OrderImportService {
         try {
             customerId = UUID.fromString(dto.customerId());
         } catch (IllegalArgumentException e) {
-            errors.add(createError(lineNumber, "Invalid customer ID format",
+            return ValidatedLine.invalid(lineNumber, null, createError(lineNumber, "Invalid customer ID format",
                     "Expected UUID, got: " + dto.customerId()));
-            return null;
         }
 
-        // Check if customer exists
-        Customer customer = customerRepository.findById(customerId).orElse(null);
-        if (customer == null) {
-            errors.add(createError(lineNumber, "Customer not found",
-                    "No customer with ID: " + customerId));
-            return null;
-        }
-
-        // Parse status enum
-        StatusEnum status;
         try {
-            status = StatusEnum.valueOf(dto.status().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            errors.add(createError(lineNumber, "Invalid status",
-                    "Unknown status: " + dto.status()));
-            return null;
-        }
+            // Parse status enum
+            StatusEnum status;
+            try {
+                status = StatusEnum.valueOf(dto.status().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ValidatedLine.invalid(lineNumber, customerId, createError(lineNumber, "Invalid status",
+                        "Unknown status: " + dto.status()));
+            }
 
-        // Parse payment method enum (optional)
-        PaymentEnum paymentMethod;
-        try {
-            paymentMethod = PaymentEnum.valueOf(dto.paymentMethod().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            errors.add(createError(lineNumber, "Invalid payment method",
-                    "Unknown payment method: " + dto.paymentMethod()));
-            return null;
+            // Parse payment method enum (optional)
+            PaymentEnum paymentMethod;
+            try {
+                paymentMethod = PaymentEnum.valueOf(dto.paymentMethod().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ValidatedLine.invalid(lineNumber, customerId, createError(lineNumber, "Invalid payment method",
+                        "Unknown payment method: " + dto.paymentMethod()));
+            }
+
+            // Create order entity
+            Order order = Order.builder()
+                    .externalId(externalId)
+                    .amount(dto.amount())
+                    .status(status)
+                    .paymentMethod(paymentMethod)
+                    .build();
+            return new ValidatedLine(lineNumber, customerId, order, null);
+        } catch (Exception e) {
+            return ValidatedLine.invalid(lineNumber, customerId, parseError(lineNumber, e));
         }
+    }
 
-        // Create order entity
-        return Order.builder()
-                .customer(customer)
-                .amount(dto.amount())
-                .status(status)
-                .paymentMethod(paymentMethod)
-                .build();
+    private OrderImportResultDto.ImportError parseError(int lineNumber, Exception error) {
+        // Not a warning: a malformed file has one per record, and they are all in the result or its error report
+        log.debug("Error parsing order at line {}: {}", lineNumber, error.getMessage());
+        return createError(lineNumber, "Parse error", error.getMessage());
     }
 
     private OrderImportResultDto.ImportError createError(int lineNumber, String reason, String details) {
@@ -235,5 +567,187 @@ public class OrderImportService {
                 .build();
     }
 
+    private ImportRun newRun(int totalRecords, int successfulImports, OrderImportProgress progress) {
+        return new ImportRun(customerRepository, new OrderImportErrors(maxInlineErrors, errorReportService),
+                totalRecords, successfulImports, progress);
+    }
+
+    /**
+     * State of one import request. Counts start from the checkpoint when resuming.
+     * Closing it completes the error report, if there is one.
+     */
+    private static final class ImportRun implements Closeable {
+        private final CustomerCache customers;
+        private final OrderImportErrors errors;
+        private final OrderImportProgress progress;
+        // Errors added since the last publish, kept only when there is a progress
+        private final List<OrderImportResultDto.ImportError> unpublishedErrors = new ArrayList<>();
+        private int totalRecords;
+        private int successfulImports;
+
+        private ImportRun(
+                CustomerRepository customerRepository,
+                OrderImportErrors errors,
+                int totalRecords,
+                int successfulImports,
+                OrderImportProgress progress
+        ) {
+            this.customers = new CustomerCache(customerRepository);
+            this.errors = errors;
+            this.totalRecords = totalRecords;
+            this.successfulImports = successfulImports;
+            this.progress = progress;
+        }
+
+        void addError(OrderImportResultDto.ImportError error) {
+            errors.add(error);
+            if (progress != null) {
+                unpublishedErrors.add(error);
+            }
+        }
+
+        /**
+         * Publishes the counts and the errors added since the last call to the progress, if any.
+         */
+        void publish() {
+            if (progress != null) {
+                progress.update(totalRecords, successfulImports, unpublishedErrors);
+                progress.updateErrorSummary(errors.getCountsByReason(), errors.getReportId());
+                unpublishedErrors.clear();
+                errors.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            errors.close();
+        }
+
+        OrderImportResultDto toResult(UUID checkpointId) {
+            int failedImports = totalRecords - successfulImports;
+            log.info("Import completed: {} total, {} successful, {} failed, {} customer queries for {} customers",
+                    totalRecords, successfulImports, failedImports, customers.getQueries(), customers.size());
+
+            return OrderImportResultDto.builder()
+                    .totalRecords(totalRecords)
+                    .successfulImports(successfulImports)
+                    .failedImports(failedImports)
+                    .errors(errors.getInline())
+                    .errorsByReason(errors.getCountsByReason())
+                    .errorReportId(errors.getReportId())
+                    .checkpointId(checkpointId)
+                    .build();
+        }
+    }
+
+    private record UploadedFileType(OrderImportFormatEnum format, ReportCompressionEnum compression) {
+    }
+
+    /**
+     * Fails reads beyond the maximum file size, so a small compressed upload can't expand without bound.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long remaining;
+
+        private SizeLimitedInputStream(InputStream inputStream, long maxSize) {
+            super(inputStream);
+            this.maxSize = maxSize;
+            this.remaining = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                count(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long bytes) {
+            remaining -= bytes;
+            if (remaining < 0) {
+                throw new IllegalArgumentException("Decompressed file size exceeds maximum allowed size of %dMB"
+                        .formatted(maxSize / (1024 * 1024)));
+            }
+        }
+    }
+
+    /**
+     * A record of the file after validation: the order, or the error that makes it invalid.
+     */
+    private record ValidatedLine(int lineNumber, UUID customerId, Order order, OrderImportResultDto.ImportError error) {
+        static ValidatedLine invalid(int lineNumber, UUID customerId, OrderImportResultDto.ImportError error) {
+            return new ValidatedLine(lineNumber, customerId, null, error);
+        }
+    }
+
+    /**
+     * Customers referenced by one import. Found and missing customers are both remembered,
+     * so every distinct customer ID of a file is queried once, in bulk with the rest of its batch.
+     */
+    private static final class CustomerCache {
+        private final CustomerRepository customerRepository;
+        // A null value marks a customer that doesn't exist
+        private final Map<UUID, Customer> customers = new HashMap<>();
+        private int queries;
+
+        private CustomerCache(CustomerRepository customerRepository) {
+            this.customerRepository = customerRepository;
+        }
+
+        /**
+         * Loads the customers not looked up yet with a single query.
+         */
+        void prefetch(Collection<UUID> ids) {
+            List<UUID> unknownIds = ids.stream()
+                    .distinct()
+                    .filter(id -> !customers.containsKey(id))
+                    .toList();
+            if (unknownIds.isEmpty()) {
+                return;
+            }
+
+            unknownIds.forEach(id -> customers.put(id, null));
+            customerRepository.findAllById(unknownIds).forEach(customer -> customers.put(customer.getId(), customer));
+            queries++;
+        }
+
+        /**
+         * @return the customer, or {@code null} if it doesn't exist
+         */
+        Customer get(UUID id) {
+            if (!customers.containsKey(id)) {
+                prefetch(List.of(id));
+            }
+            return customers.get(id);
+        }
+
+        int getQueries() {
+            return queries;
+        }
+
+        int size() {
+            return customers.size();
+        }
+    }
+
 }
 
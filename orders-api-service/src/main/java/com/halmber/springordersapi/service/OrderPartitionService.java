@@ -0,0 +1,102 @@
+package com.halmber.springordersapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Creates the monthly partitions of {@code orders} ahead of time, on startup and then daily.
+ *
+ * <p>{@code orders} is partitioned by the UTC month of {@code created_at}. Orders of a month without a partition
+ * end up in {@code orders_default}, which every query has to scan and which has to be detached to move them once
+ * that month's partition is created, so the current month and the next {@code months-ahead} ones are kept in place. Partitions are created
+ * by the {@code create_orders_partitions} database function, once even with several instances running.
+ *
+ * <p>On other databases (H2 in tests) {@link #isSupported()} returns {@code false}, the table isn't partitioned.
+ */
+@Slf4j
+@Service
+public class OrderPartitionService {
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private volatile Boolean postgres;
+
+    public OrderPartitionService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${orders.partitions.months-ahead:3}") int monthsAhead
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Checks whether the datasource is PostgreSQL, where {@code orders} is partitioned.
+     */
+    public boolean isSupported() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+        }
+
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${orders.partitions.cron:0 0 3 * * *}", zone = "UTC")
+    public void createPartitions() {
+        createPartitions(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Creates the missing partitions from the given month through {@code months-ahead} months after it. Orders of
+     * these months in {@code orders_default} are moved into their partition. Failed months are logged only, the
+     * next run tries them again.
+     *
+     * @return number of partitions created
+     */
+    int createPartitions(YearMonth currentMonth) {
+        if (!isSupported()) {
+            return 0;
+        }
+
+        LocalDate firstMonth = currentMonth.atDay(1);
+        LocalDate lastMonth = currentMonth.plusMonths(monthsAhead).atDay(1);
+        List<PartitionResult> results;
+        try {
+            results = jdbcTemplate.query(
+                    "SELECT partition_name, error FROM create_orders_partitions(?, ?)",
+                    (rs, rowNum) -> new PartitionResult(rs.getString("partition_name"), rs.getString("error")),
+                    firstMonth, lastMonth);
+        } catch (DataAccessException e) {
+            log.error("Could not create order partitions from {} to {}: {}",
+                    currentMonth, currentMonth.plusMonths(monthsAhead), e.getMessage());
+            return 0;
+        }
+
+        int created = 0;
+        for (PartitionResult result : results) {
+            if (result.error() == null) {
+                log.info("Created order partition {}", result.partition());
+                created++;
+            } else {
+                log.error("Could not create order partition {}: {}", result.partition(), result.error());
+            }
+        }
+        return created;
+    }
+
+    record PartitionResult(String partition, String error) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.halmber.springordersapi.service;
 
+import com.halmber.springordersapi.controller.exception.InvalidRequestParameterException;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderCursor;
 import com.halmber.springordersapi.model.OrderFilter;
 import com.halmber.springordersapi.model.dto.request.order.OrderCreateDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderEditDto;
@@ -7,19 +10,23 @@ import com.halmber.springordersapi.model.dto.request.order.OrderFilterDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderListResponseDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderResponseDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderShortListResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.OrderShortResponseDto;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
 import com.halmber.springordersapi.model.mapper.OrderMapper;
 import com.halmber.springordersapi.repository.BaseRepository;
 import com.halmber.springordersapi.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Service for managing order entities.
@@ -29,6 +36,8 @@ import java.util.UUID;
  * <p>Support:
  * <ul>
  *   <li>Paginated order listing with sorting support</li>
+ *   <li>Keyset (cursor) pagination without count queries for deep paging</li>
+ *   <li>Short list format selected directly into DTOs, without loading entities</li>
  *   <li>Advanced filtering by customer, status, and payment method</li>
  *   <li>Customer validation before order creation</li>
  *   <li>Support for both full and short response formats</li>
@@ -57,6 +66,30 @@ public class OrderService extends BaseService<Order, UUID> {
                 .build();
     }
 
+    /**
+     * Lists orders using keyset pagination ordered by {@code createdAt DESC, id DESC}.
+     * No count query is executed, so {@code totalPages} is always {@code -1}.
+     *
+     * @param after cursor token from a previous response, blank to start from the newest order
+     * @param size  page size
+     */
+    @Transactional(readOnly = true)
+    public OrderListResponseDto listOrdersByCursor(String after, int size) {
+        OrderCursor cursor = parseCursor(after);
+        List<Order> orders = repository.findByFiltersAfter(
+                OrderCriteria.builder().build(),
+                cursor != null ? cursor.createdAt() : null,
+                cursor != null ? cursor.id() : null,
+                Limit.of(size + 1)
+        );
+
+        return OrderListResponseDto.builder()
+                .orders(mapper.toList(orders.subList(0, Math.min(size, orders.size()))))
+                .totalPages(-1)
+                .nextCursor(nextCursor(orders, size, order -> new OrderCursor(order.getCreatedAt(), order.getId())))
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public OrderResponseDto getById(UUID id) {
         return mapper.toResponse(findByIdOrThrow(id));
@@ -120,12 +153,24 @@ public class OrderService extends BaseService<Order, UUID> {
         return mapper.toResponse(repository.save(entity));
     }
 
+    /**
+     * Deletes the order loaded by id: unlike {@code deleteById}, one lookup by id without the partition key instead
+     * of three, the delete itself reads the partition of the order only.
+     */
+    @Override
+    @Transactional
+    public void delete(UUID id) {
+        repository.delete(findByIdOrThrow(id));
+    }
+
+    /**
+     * Returns filtered orders in short format.
+     * Uses keyset pagination when {@code after} is present in the filter (see {@link #listOrdersByCursor}),
+     * otherwise regular offset pagination.
+     */
     @Transactional(readOnly = true)
     public OrderShortListResponseDto getFilteredPaginatedList(OrderFilterDto filter) {
-        Pageable pageable = PageRequest.of(
-                filter.page() != null ? filter.page() : 0,
-                filter.size() != null ? filter.size() : 5
-        );
+        int size = filter.size() != null ? filter.size() : 5;
 
         UUID uuid = parseAndValidateUUID(filter.customerId());
         if (uuid != null) {
@@ -134,16 +179,52 @@ public class OrderService extends BaseService<Order, UUID> {
 
         OrderFilter entity = mapper.toOrderFilter(filter);
 
-        Page<Order> page = repository.findByFilters(
-                uuid,
-                entity.status(),
-                entity.paymentMethod(),
-                pageable
-        );
+        if (filter.after() != null) {
+            OrderCursor cursor = parseCursor(filter.after());
+            List<OrderShortResponseDto> orders = repository.findShortByFiltersAfter(
+                    entity.criteria(),
+                    cursor != null ? cursor.createdAt() : null,
+                    cursor != null ? cursor.id() : null,
+                    Limit.of(size + 1)
+            );
+
+            return OrderShortListResponseDto.builder()
+                    .orders(orders.subList(0, Math.min(size, orders.size())))
+                    .totalPages(-1)
+                    .nextCursor(nextCursor(orders, size, order -> new OrderCursor(order.createdAt(), order.id())))
+                    .build();
+        }
+
+        Pageable pageable = PageRequest.of(filter.page() != null ? filter.page() : 0, size);
+
+        Page<OrderShortResponseDto> page = repository.findShortByFilters(entity.criteria(), pageable);
 
         return OrderShortListResponseDto.builder()
-                .orders(mapper.toShortDtoList(page.getContent()))
+                .orders(page.getContent())
                 .totalPages(page.getTotalPages())
                 .build();
     }
+
+    /**
+     * Keyset queries fetch one extra row after the requested page to find out whether a next page exists.
+     */
+    private <T> String nextCursor(List<T> orders, int size, Function<T, OrderCursor> toCursor) {
+        if (orders.size() <= size) {
+            return null;
+        }
+
+        return toCursor.apply(orders.get(size - 1)).encode();
+    }
+
+    private OrderCursor parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+
+        try {
+            return OrderCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("Invalid cursor: %s".formatted(after));
+        }
+    }
 }
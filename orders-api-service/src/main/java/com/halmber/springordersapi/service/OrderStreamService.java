@@ -0,0 +1,79 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.dto.response.order.OrderShortResponseDto;
+import com.halmber.springordersapi.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for streaming all orders matching the filters as newline-delimited JSON (NDJSON),
+ * one {@link OrderShortResponseDto} per line, newest first.
+ *
+ * <p>Rows are read with a database cursor and serialized one by one with a {@link JsonGenerator},
+ * so memory use is constant however many orders match. The generator buffers output and is flushed
+ * every {@code flush-rows} rows. Writes to the response block while the client isn't reading,
+ * which in turn stops reading from the cursor, so a slow client is never buffered for.
+ */
+@Slf4j
+@Service
+public class OrderStreamService {
+    private final OrderRepository orderRepository;
+    private final ObjectWriter writer;
+    private final int flushRows;
+
+    public OrderStreamService(
+            OrderRepository orderRepository,
+            ObjectMapper objectMapper,
+            @Value("${orders.stream.flush-rows:500}") int flushRows
+    ) {
+        this.orderRepository = orderRepository;
+        // Lines are terminated explicitly instead of Jackson's space between root values,
+        // flushing is done in batches, and the response stream is closed by the container
+        this.writer = objectMapper.writerFor(OrderShortResponseDto.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Writes all orders matching the filters as NDJSON. The output stream is flushed, not closed.
+     *
+     * @return number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long writeOrders(OrderCriteria criteria, OutputStream outputStream) throws IOException {
+        long rows = 0;
+
+        try (Stream<OrderShortResponseDto> ordersStream =
+                     orderRepository.streamShortByFilters(criteria);
+             JsonGenerator generator = writer.createGenerator(outputStream)) {
+
+            Iterator<OrderShortResponseDto> orders = ordersStream.iterator();
+            while (orders.hasNext()) {
+                writer.writeValue(generator, orders.next());
+                generator.writeRaw('\n');
+
+                if (++rows % flushRows == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        outputStream.flush();
+        log.debug("Streamed {} orders", rows);
+        return rows;
+    }
+}
@@ -0,0 +1,318 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel variant of {@link CsvCopyReportService} for large CSV reports.
+ *
+ * <p>The filtered orders are split into {@code partitions} consecutive {@code created_at} ranges, and each range
+ * is exported with its own COPY on its own connection, so several PostgreSQL backends and client threads work
+ * at once. All connections read the same snapshot: the coordinator transaction exports it with
+ * {@code pg_export_snapshot()} and the workers import it with {@code SET TRANSACTION SNAPSHOT}, so the report
+ * is as consistent as a single-query one. Within a {@code REPEATABLE READ} transaction the coordinator is that
+ * transaction's connection, so the report reads the caller's snapshot.
+ *
+ * <p>The newest range is streamed straight to the output by the coordinator, older ranges are buffered in
+ * temporary files and appended in order afterward, which keeps the {@code created_at DESC} order of the report.
+ * Reports below {@code min-rows} are exported with a single COPY.
+ *
+ * <p>Each report uses up to {@code partitions - 1} extra pool connections, on top of the coordinator. When the pool
+ * can't lend them at the start of the export (concurrent reports, busy requests), the report is exported with a
+ * single COPY instead: the coordinators of concurrent reports would otherwise hold the connections their own
+ * workers wait for, until the pool's connection timeout fails them all.
+ * When the report fails or is cancelled, the COPY statements still running on the partition connections
+ * are cancelled in the database, interrupting the workers alone does not unblock a JDBC read.
+ */
+@Slf4j
+@Service
+public class ParallelCsvExportService {
+    private final DataSource dataSource;
+    private final CsvCopyReportService csvCopyReportService;
+    private final int partitions;
+    private final long minRows;
+    private final ExecutorService executor;
+
+    public ParallelCsvExportService(
+            DataSource dataSource,
+            CsvCopyReportService csvCopyReportService,
+            @Value("${reports.csv.parallel.partitions:1}") int partitions,
+            @Value("${reports.csv.parallel.min-rows:100000}") long minRows,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.dataSource = dataSource;
+        this.csvCopyReportService = csvCopyReportService;
+        this.partitions = partitions;
+        this.minRows = minRows;
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+        this.executor = partitions > 1
+                ? Executors.newFixedThreadPool(partitions - 1, threads.name("report-partition-", 1).factory())
+                : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks whether parallel export is configured (more than one partition)
+     * and possible ({@link CsvCopyReportService#isSupported()}).
+     */
+    public boolean isEnabled() {
+        return partitions > 1 && csvCopyReportService.isSupported();
+    }
+
+    /**
+     * Writes the CSV report with all orders matching the filters to the output stream.
+     * Joins the current transaction when it is a {@code REPEATABLE READ} one, otherwise runs in a transaction
+     * of its own: the exported snapshot has to be the one of every statement of the coordinator.
+     *
+     * @param rowsWritten  incremented for every data row as it is written
+     * @param cancellation cancels the COPY statements of all partitions when the report is cancelled
+     * @return number of data rows written
+     */
+    public long generateReport(
+            OrderCriteria criteria,
+            OutputStream outputStream,
+            AtomicLong rowsWritten,
+            ReportCancellation cancellation
+    ) {
+        if (isInSnapshotTransaction()) {
+            Connection coordinator = DataSourceUtils.getConnection(dataSource);
+            try {
+                return export(coordinator, criteria, outputStream, rowsWritten, cancellation);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Parallel CSV export failed", e);
+            } finally {
+                DataSourceUtils.releaseConnection(coordinator, dataSource);
+            }
+        }
+
+        try (Connection coordinator = dataSource.getConnection()) {
+            beginSnapshotTransaction(coordinator);
+            try {
+                long rows = export(coordinator, criteria, outputStream, rowsWritten, cancellation);
+                coordinator.commit();
+                return rows;
+            } catch (Exception e) {
+                coordinator.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Parallel CSV export failed", e);
+        }
+    }
+
+    private long export(
+            Connection coordinator,
+            OrderCriteria criteria,
+            OutputStream outputStream,
+            AtomicLong rowsWritten,
+            ReportCancellation cancellation
+    ) throws SQLException {
+        List<Instant> bounds = partitionBounds(coordinator, criteria);
+        int partitionCount = bounds.size() - 1;
+
+        if (partitionCount > 1 && !hasFreeConnections(partitionCount - 1)) {
+            log.info("Not enough free pool connections for {} partitions, exporting CSV report with a single COPY",
+                    partitionCount);
+            partitionCount = 1;
+        }
+
+        if (partitionCount <= 1) {
+            String sql = csvCopyReportService.buildCopySql(criteria);
+            return csvCopyReportService.copyOut(coordinator, sql, outputStream, rowsWritten, true, cancellation);
+        }
+
+        String snapshotId = exportSnapshot(coordinator);
+        log.info("Exporting CSV report in {} partitions, snapshot {}", partitionCount, snapshotId);
+
+        // Cancelled with the report, and in any case once the coordinator is done, so no worker outlives it
+        ReportCancellation partitionsCancellation = new ReportCancellation();
+        ReportCancellation.Registration link = cancellation.onCancel(partitionsCancellation::cancel);
+
+        // Partition 0 holds the newest orders: bounds are in descending order
+        List<Future<PartitionFile>> olderPartitions = new ArrayList<>();
+        for (int i = 1; i < partitionCount; i++) {
+            String sql = partitionSql(bounds, i, criteria);
+            olderPartitions.add(executor.submit(() -> exportToTempFile(snapshotId, sql, rowsWritten, partitionsCancellation)));
+        }
+
+        try {
+            long rows = csvCopyReportService.copyOut(coordinator, partitionSql(bounds, 0, criteria),
+                    outputStream, rowsWritten, true, cancellation);
+
+            for (Future<PartitionFile> partition : olderPartitions) {
+                PartitionFile partitionFile = partition.get();
+                try {
+                    Files.copy(partitionFile.file(), outputStream);
+                    rows += partitionFile.rows();
+                } finally {
+                    Files.deleteIfExists(partitionFile.file());
+                }
+            }
+
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel CSV export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel CSV export partition failed", e.getCause());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            link.close();
+            partitionsCancellation.cancel();
+            olderPartitions.forEach(partition -> partition.cancel(true));
+            olderPartitions.stream()
+                    .filter(partition -> partition.state() == Future.State.SUCCESS)
+                    .forEach(partition -> deleteQuietly(partition.resultNow().file()));
+        }
+    }
+
+    /**
+     * Splits {@code [min(created_at), max(created_at)]} of the filtered orders into equal time ranges.
+     *
+     * @return descending bounds, {@code null} first and last meaning unbounded;
+     * a single range when the report is small
+     */
+    private List<Instant> partitionBounds(Connection connection, OrderCriteria criteria) throws SQLException {
+        List<String> conditions = csvCopyReportService.filterConditions(criteria);
+        String sql = "SELECT count(*), min(o.created_at), max(o.created_at) FROM orders o" +
+                (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+
+        List<Instant> bounds = new ArrayList<>();
+        bounds.add(null);
+
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            long count = resultSet.getLong(1);
+            Timestamp min = resultSet.getTimestamp(2);
+            Timestamp max = resultSet.getTimestamp(3);
+
+            if (count >= minRows && min != null && max.after(min)) {
+                Instant from = min.toInstant();
+                Duration step = Duration.between(from, max.toInstant()).dividedBy(partitions);
+                for (int i = partitions - 1; i > 0; i--) {
+                    bounds.add(from.plus(step.multipliedBy(i)));
+                }
+            }
+        }
+
+        bounds.add(null);
+        return bounds;
+    }
+
+    /**
+     * COPY for partition {@code index} (0 is the newest): {@code created_at} in {@code [bounds[index + 1], bounds[index])}.
+     */
+    private String partitionSql(List<Instant> bounds, int index, OrderCriteria criteria) {
+        return csvCopyReportService.buildCopySql(
+                criteria, bounds.get(index + 1), bounds.get(index), index == 0);
+    }
+
+    private PartitionFile exportToTempFile(
+            String snapshotId,
+            String sql,
+            AtomicLong rowsWritten,
+            ReportCancellation cancellation
+    ) throws SQLException, IOException {
+        Path file = Files.createTempFile("orders-report-partition-", ".csv");
+
+        try (Connection connection = dataSource.getConnection()) {
+            beginSnapshotTransaction(connection);
+            try (Statement statement = connection.createStatement()) {
+                // Snapshot ids are generated by PostgreSQL, e.g. 00000003-0000001B-1
+                statement.execute("SET TRANSACTION SNAPSHOT '%s'".formatted(snapshotId.replace("'", "")));
+            }
+
+            long rows;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+                rows = csvCopyReportService.copyOut(connection, sql, outputStream, rowsWritten, false, cancellation);
+            }
+            connection.commit();
+
+            return new PartitionFile(file, rows);
+        } catch (SQLException | IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the pool has {@code connections} connections to lend right now. Only a hint when other threads
+     * take connections meanwhile, a worker then waits for one as long as any other pool user.
+     */
+    private boolean hasFreeConnections(int connections) throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return true;
+        }
+
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null || hikari.getMaximumPoolSize() - pool.getActiveConnections() >= connections;
+    }
+
+    private boolean isInSnapshotTransaction() {
+        Integer isolation = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && isolation != null && isolation >= Connection.TRANSACTION_REPEATABLE_READ;
+    }
+
+    private void beginSnapshotTransaction(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        connection.setReadOnly(true);
+    }
+
+    private String exportSnapshot(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report partition file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private record PartitionFile(Path file, long rows) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+
+/**
+ * Maps {@link Order} rows to the {@link ParquetReportService} schema, the same columns as the CSV and XLSX reports.
+ *
+ * <p>UUIDs are written as strings, the Parquet UUID type is not readable by every analytics engine.
+ * Timestamps are UTC microseconds, so they don't depend on the server time zone.
+ */
+final class ParquetOrderWriteSupport extends WriteSupport<Order> {
+    static final MessageType SCHEMA = Types.buildMessage()
+            .required(BINARY).as(LogicalTypeAnnotation.stringType()).named("order_id")
+            .required(BINARY).as(LogicalTypeAnnotation.stringType()).named("customer_id")
+            .required(BINARY).as(LogicalTypeAnnotation.stringType()).named("customer_name")
+            .required(BINARY).as(LogicalTypeAnnotation.stringType()).named("email")
+            .required(DOUBLE).named("amount")
+            .required(BINARY).as(LogicalTypeAnnotation.enumType()).named("status")
+            .optional(BINARY).as(LogicalTypeAnnotation.enumType()).named("payment_method")
+            .required(INT64).as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS))
+            .named("created_at")
+            .named("order");
+
+    private static final Binary[] STATUS_VALUES = Arrays.stream(StatusEnum.values())
+            .map(status -> Binary.fromConstantByteArray(status.name().getBytes(StandardCharsets.UTF_8)))
+            .toArray(Binary[]::new);
+    private static final Binary[] PAYMENT_VALUES = Arrays.stream(PaymentEnum.values())
+            .map(payment -> Binary.fromConstantByteArray(payment.name().getBytes(StandardCharsets.UTF_8)))
+            .toArray(Binary[]::new);
+
+    private RecordConsumer recordConsumer;
+
+    @Override
+    public WriteContext init(ParquetConfiguration configuration) {
+        return new WriteContext(SCHEMA, Map.of());
+    }
+
+    /**
+     * Abstract in Parquet, not called: {@link ParquetReportService} builds the writer with a
+     * {@link ParquetConfiguration}.
+     */
+    @Override
+    @Deprecated
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(SCHEMA, Map.of());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    @Override
+    public void write(Order order) {
+        Customer customer = order.getCustomer();
+
+        recordConsumer.startMessage();
+        writeBinary(0, "order_id", Binary.fromString(order.getId().toString()));
+        writeBinary(1, "customer_id", Binary.fromString(customer.getId().toString()));
+        writeBinary(2, "customer_name", Binary.fromString(customer.getFirstName() + " " + customer.getLastName()));
+        writeBinary(3, "email", Binary.fromString(customer.getEmail()));
+
+        recordConsumer.startField("amount", 4);
+        recordConsumer.addDouble(order.getAmount());
+        recordConsumer.endField("amount", 4);
+
+        writeBinary(5, "status", STATUS_VALUES[order.getStatus().ordinal()]);
+        if (order.getPaymentMethod() != null) {
+            writeBinary(6, "payment_method", PAYMENT_VALUES[order.getPaymentMethod().ordinal()]);
+        }
+
+        recordConsumer.startField("created_at", 7);
+        recordConsumer.addLong(toEpochMicros(order.getCreatedAt()));
+        recordConsumer.endField("created_at", 7);
+        recordConsumer.endMessage();
+    }
+
+    private void writeBinary(int index, String field, Binary value) {
+        recordConsumer.startField(field, index);
+        recordConsumer.addBinary(value);
+        recordConsumer.endField(field, index);
+    }
+
+    private static long toEpochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+}
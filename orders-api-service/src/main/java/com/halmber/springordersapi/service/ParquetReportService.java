@@ -0,0 +1,168 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for generating Apache Parquet reports from order data, for loading into analytics engines.
+ *
+ * <p>Rows are buffered column by column until a row group reaches {@code row-group-size}, then the row group
+ * is written out, so memory use is bounded by the row group size no matter how large the report is.
+ * Pages are zstd-compressed. Low-cardinality columns (status, payment method, customer columns) are
+ * dictionary-encoded; order ids, amounts and timestamps are not.
+ *
+ * <p>Columns: {@code order_id}, {@code customer_id}, {@code customer_name}, {@code email},
+ * {@code amount} (double), {@code status} and {@code payment_method} (enum),
+ * {@code created_at} (UTC timestamp, microseconds). See {@link ParquetOrderWriteSupport}.
+ */
+@Slf4j
+@Service
+public class ParquetReportService {
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final int compressionLevel;
+
+    public ParquetReportService(
+            @Value("${reports.parquet.row-group-size:32MB}") DataSize rowGroupSize,
+            @Value("${reports.parquet.page-size:1MB}") DataSize pageSize,
+            @Value("${reports.parquet.compression-level:3}") int compressionLevel
+    ) {
+        this.rowGroupSize = rowGroupSize.toBytes();
+        this.pageSize = (int) pageSize.toBytes();
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Writes all orders of the stream as a Parquet file. The output stream is flushed, not closed.
+     */
+    public void generateReport(Stream<Order> ordersStream, OutputStream outputStream) throws IOException {
+        try (ParquetWriter<Order> writer = new Builder(new StreamOutputFile(outputStream))
+                .withConf(new PlainParquetConfiguration())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCodecFactory(new ZstdParquetCodecFactory(compressionLevel))
+                .withCompressionCodec(CompressionCodecName.ZSTD)
+                .withRowGroupSize(rowGroupSize)
+                .withPageSize(pageSize)
+                .withDictionaryEncoding(true)
+                .withDictionaryEncoding("order_id", false)
+                .withDictionaryEncoding("amount", false)
+                .withDictionaryEncoding("created_at", false)
+                .build()) {
+
+            Iterator<Order> orders = ordersStream.iterator();
+            while (orders.hasNext()) {
+                writer.write(orders.next());
+            }
+        }
+
+        outputStream.flush();
+    }
+
+    private static class Builder extends ParquetWriter.Builder<Order, Builder> {
+        Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Order> getWriteSupport(ParquetConfiguration configuration) {
+            return new ParquetOrderWriteSupport();
+        }
+
+        /**
+         * Abstract in Parquet, not called: the writer is built with a {@link ParquetConfiguration}.
+         */
+        @Override
+        @Deprecated
+        protected WriteSupport<Order> getWriteSupport(Configuration configuration) {
+            return new ParquetOrderWriteSupport();
+        }
+    }
+
+    /**
+     * Parquet output to a plain stream: the format is written strictly sequentially, only the position is needed.
+     * Closing flushes, but does not close, the stream.
+     */
+    private static class StreamOutputFile implements OutputFile {
+        private final OutputStream outputStream;
+
+        StreamOutputFile(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return createOrOverwrite(blockSizeHint);
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    outputStream.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    outputStream.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    outputStream.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    outputStream.flush();
+                }
+            };
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+
+        @Override
+        public String getPath() {
+            return "report";
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.OrderReportFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed cache of rendered report files with size-bounded LRU eviction.
+ *
+ * <p>Files are keyed by the report filter, the file type and the {@link OrderDataVersion} of the filtered
+ * orders, so any change of the underlying data produces a new key and stale files simply age out.
+ * A cache hit is served by copying the file, without querying the orders at all.
+ *
+ * <p>The index is kept in memory and rebuilt from the directory on startup (by last access time),
+ * so cached files survive restarts.
+ */
+@Slf4j
+@Service
+public class ReportCacheService {
+    private static final String FILE_SUFFIX = ".report";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String KEY_VERSION = "v2";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     * File sizes by key, in access order (least recently used first). Guarded by itself.
+     */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    public ReportCacheService(
+            @Value("${reports.cache.enabled:true}") boolean enabled,
+            @Value("${reports.cache.directory:${java.io.tmpdir}/orders-report-cache}") Path directory,
+            @Value("${reports.cache.max-size:1GB}") DataSize maxSize
+    ) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    /**
+     * Loads files cached by a previous run and removes unfinished ones.
+     */
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.toList();
+        }
+
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(TEMP_SUFFIX))
+                .forEach(this::deleteQuietly);
+
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                .sorted(Comparator.comparing(this::lastModifiedTime))
+                .forEach(file -> {
+                    String name = file.getFileName().toString();
+                    register(name.substring(0, name.length() - FILE_SUFFIX.length()), sizeOf(file));
+                });
+
+        log.info("Report cache loaded: {} files, {} bytes", index.size(), totalSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Builds the cache key of a report. The JVM time zone is a part of it because
+     * report dates are formatted in that zone.
+     */
+    public String key(OrderReportFilter filter, OrderDataVersion version) {
+        String raw = String.join("|",
+                KEY_VERSION,
+                String.valueOf(filter.criteria().customerId()),
+                String.valueOf(filter.criteria().status()),
+                String.valueOf(filter.criteria().paymentMethod()),
+                String.valueOf(filter.criteria().createdFrom()),
+                String.valueOf(filter.criteria().createdTo()),
+                String.valueOf(filter.criteria().amountMin()),
+                String.valueOf(filter.criteria().amountMax()),
+                String.valueOf(filter.fileType()),
+                String.valueOf(version.count()),
+                String.valueOf(version.lastOrderUpdate()),
+                String.valueOf(version.lastCustomerUpdate()),
+                ZoneId.systemDefault().getId()
+        );
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Copies the cached report to the output stream.
+     *
+     * @return {@code false} if the report is not cached
+     */
+    public boolean copyTo(String key, OutputStream outputStream) {
+        try (InputStream inputStream = open(key)) {
+            if (inputStream == null) {
+                return false;
+            }
+            inputStream.transferTo(outputStream);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the cached report. The open file stays readable when it is evicted afterward,
+     * so it can be read later, e.g. once the caller's transaction is over.
+     *
+     * @return {@code null} if the report is not cached
+     */
+    public InputStream open(String key) {
+        synchronized (index) {
+            if (index.get(key) == null) {
+                return null;
+            }
+        }
+
+        Path file = fileOf(key);
+        try {
+            InputStream inputStream = Files.newInputStream(file);
+            touch(file);
+            return inputStream;
+        } catch (NoSuchFileException e) {
+            // Evicted after the lookup
+            remove(key);
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts caching a report that is about to be rendered.
+     * Failures to write the cache file never fail the report itself.
+     */
+    public Entry newEntry(String key) {
+        return new Entry(key);
+    }
+
+    /**
+     * Report file being written into the cache alongside the actual output.
+     */
+    public class Entry {
+        private final String key;
+        private Path tempFile;
+        private OutputStream fileStream;
+
+        private Entry(String key) {
+            this.key = key;
+            try {
+                this.tempFile = Files.createTempFile(directory, key, TEMP_SUFFIX);
+                this.fileStream = Files.newOutputStream(tempFile);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Wraps the output stream so that everything written to it is also written to the cache file.
+         * Closing the returned stream flushes, but does not close, the target stream.
+         */
+        public OutputStream tee(OutputStream target) {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    if (fileStream != null) {
+                        try {
+                            fileStream.write(b);
+                        } catch (IOException e) {
+                            fail(e);
+                        }
+                    }
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    if (fileStream != null) {
+                        try {
+                            fileStream.write(b, off, len);
+                        } catch (IOException e) {
+                            fail(e);
+                        }
+                    }
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    target.flush();
+                }
+            };
+        }
+
+        /**
+         * Publishes the written file in the cache, evicting the least recently used files over the size limit.
+         */
+        public void commit() {
+            if (fileStream == null) {
+                discard();
+                return;
+            }
+
+            try {
+                fileStream.close();
+                long size = Files.size(tempFile);
+                if (size > maxSize) {
+                    log.debug("Report {} is larger than the whole cache, not caching", key);
+                    discard();
+                    return;
+                }
+
+                Files.move(tempFile, fileOf(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                register(key, size);
+            } catch (IOException e) {
+                fail(e);
+                discard();
+            }
+        }
+
+        /**
+         * Drops the partially written file, e.g. when rendering failed.
+         */
+        public void discard() {
+            if (fileStream != null) {
+                try {
+                    fileStream.close();
+                } catch (IOException ignored) {
+                    // The file is deleted anyway
+                }
+                fileStream = null;
+            }
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+
+        private void fail(IOException e) {
+            log.warn("Could not write report {} to cache: {}", key, e.getMessage());
+            discard();
+        }
+    }
+
+    private void register(String key, long size) {
+        synchronized (index) {
+            Long previous = index.put(key, size);
+            totalSize += size - (previous != null ? previous : 0);
+
+            Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+            while (totalSize > maxSize && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+
+                totalSize -= entry.getValue();
+                eldest.remove();
+                // Readers that have already opened the file keep reading it
+                deleteQuietly(fileOf(entry.getKey()));
+                log.debug("Report {} evicted from cache", entry.getKey());
+            }
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (index) {
+            Long size = index.remove(key);
+            if (size != null) {
+                totalSize -= size;
+            }
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + FILE_SUFFIX);
+    }
+
+    /**
+     * Keeps the access order across restarts, see {@link #init()}.
+     */
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not update access time of {}: {}", file, e.getMessage());
+        }
+    }
+
+    private FileTime lastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached report {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.service.exeption.ReportCancelledException;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cooperative cancellation of a single report.
+ *
+ * <p>Report engines check {@link #throwIfCancelled()} for every row and register the connections they run
+ * queries on with {@link #cancelQueriesOn(Connection)}. {@link #cancel()} can be called from any thread: it makes
+ * the row loops stop at the next row and cancels the statements currently executing on the registered
+ * PostgreSQL connections (what {@code Statement.cancel()} does), so a backend blocked in a query or a COPY
+ * is freed right away instead of after the next row.
+ *
+ * <p>{@link #guard(OutputStream)} ties cancellation to the client: the first failed write to the response,
+ * e.g. because the client disconnected, cancels the report.
+ */
+@Slf4j
+public final class ReportCancellation {
+    private final Set<Runnable> actions = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels the report and runs the registered actions. Only the first call has an effect.
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+        }
+
+        actions.forEach(Runnable::run);
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new ReportCancelledException("Report cancelled");
+        }
+    }
+
+    /**
+     * Runs the action on {@link #cancel()} until the returned registration is closed.
+     * Runs it right away when the report is cancelled already.
+     */
+    public Registration onCancel(Runnable action) {
+        synchronized (this) {
+            if (!cancelled) {
+                actions.add(action);
+                return () -> actions.remove(action);
+            }
+        }
+
+        action.run();
+        return () -> {
+        };
+    }
+
+    /**
+     * Cancels whatever statement runs on the connection when the report is cancelled from another thread,
+     * until the registration is closed. The calling thread is not blocked in the statement when it cancels
+     * the report itself and ends the statement on its own, a cancel request would only race with that.
+     * Only PostgreSQL connections can be cancelled this way, others are left to the row checks.
+     */
+    public Registration cancelQueriesOn(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+            return () -> {
+            };
+        }
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        Thread owner = Thread.currentThread();
+        return onCancel(() -> {
+            if (Thread.currentThread() == owner) {
+                return;
+            }
+
+            try {
+                pgConnection.cancelQuery();
+                log.debug("Cancelled report query on backend {}", pgConnection.getBackendPID());
+            } catch (SQLException e) {
+                log.warn("Could not cancel report query on backend {}: {}", pgConnection.getBackendPID(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Wraps the stream the report is sent to: a failed write cancels the report, and once it is
+     * cancelled every write fails right away, without touching the stream.
+     */
+    public OutputStream guard(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(int b) throws IOException {
+                throwIfCancelled();
+                try {
+                    out.write(b);
+                } catch (IOException e) {
+                    cancel();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throwIfCancelled();
+                try {
+                    out.write(b, off, len);
+                } catch (IOException e) {
+                    cancel();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                throwIfCancelled();
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    cancel();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes the registered action, see {@link #onCancel(Runnable)}.
+     */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
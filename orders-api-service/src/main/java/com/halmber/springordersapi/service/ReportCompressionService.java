@@ -0,0 +1,133 @@
+package com.halmber.springordersapi.service;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming compression of report files.
+ *
+ * <p>Reports are written in many small chunks (a COPY line or a flushed row buffer at a time), so the compressor
+ * is fronted by a buffer of {@code buffer-size}: the native deflate/zstd code is then called once per buffer
+ * instead of once per row. Compression levels default to a throughput/ratio balance suited for on-the-fly use.
+ *
+ * <p>Also decompresses uploaded order files as they are read.
+ */
+@Slf4j
+@Service
+public class ReportCompressionService {
+    /**
+     * Preferred order when the client accepts several encodings with the same quality.
+     */
+    private static final List<ReportCompressionEnum> PREFERENCE = List.of(ReportCompressionEnum.ZSTD, ReportCompressionEnum.GZIP);
+
+    private final int gzipLevel;
+    private final int zstdLevel;
+    private final int bufferSize;
+
+    public ReportCompressionService(
+            @Value("${reports.compression.gzip-level:4}") int gzipLevel,
+            @Value("${reports.compression.zstd-level:3}") int zstdLevel,
+            @Value("${reports.compression.buffer-size:64KB}") DataSize bufferSize
+    ) {
+        this.gzipLevel = gzipLevel;
+        this.zstdLevel = zstdLevel;
+        this.bufferSize = (int) bufferSize.toBytes();
+    }
+
+    /**
+     * Picks the best compression accepted by the client.
+     *
+     * @param acceptEncoding value of the {@code Accept-Encoding} header, may be {@code null}
+     * @return {@link ReportCompressionEnum#NONE} if the client accepts neither zstd nor gzip
+     */
+    public ReportCompressionEnum negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return ReportCompressionEnum.NONE;
+        }
+
+        Map<String, Double> qualities = new HashMap<>();
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    quality = parseQuality(parameter.substring(2));
+                }
+            }
+            qualities.put(parameters[0].trim().toLowerCase(Locale.ROOT), quality);
+        }
+
+        ReportCompressionEnum best = ReportCompressionEnum.NONE;
+        double bestQuality = 0;
+        for (ReportCompressionEnum compression : PREFERENCE) {
+            double quality = qualities.getOrDefault(compression.getEncoding(), qualities.getOrDefault("*", 0.0));
+            if (quality > bestQuality) {
+                best = compression;
+                bestQuality = quality;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Wraps the output stream in a streaming compressor.
+     * Closing the returned stream finishes the compressed data and closes the target stream.
+     */
+    public OutputStream compress(OutputStream outputStream, ReportCompressionEnum compression) throws IOException {
+        return switch (compression) {
+            case NONE -> outputStream;
+            case GZIP -> new BufferedOutputStream(new LeveledGzipOutputStream(outputStream, bufferSize, gzipLevel), bufferSize);
+            case ZSTD -> new BufferedOutputStream(new ZstdOutputStreamNoFinalizer(outputStream, zstdLevel), bufferSize);
+        };
+    }
+
+    /**
+     * Wraps the input stream in a streaming decompressor, buffered with {@code buffer-size}.
+     * Closing the returned stream closes the source stream.
+     */
+    public InputStream decompress(InputStream inputStream, ReportCompressionEnum compression) throws IOException {
+        return switch (compression) {
+            case NONE -> inputStream;
+            case GZIP -> new GZIPInputStream(inputStream, bufferSize);
+            case ZSTD -> new BufferedInputStream(new ZstdInputStreamNoFinalizer(inputStream), bufferSize);
+        };
+    }
+
+    private double parseQuality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Invalid Accept-Encoding quality '{}'", value);
+            return 0;
+        }
+    }
+
+    /**
+     * {@link GZIPOutputStream} only exposes the deflate level to subclasses.
+     */
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream outputStream, int size, int level) throws IOException {
+            super(outputStream, size);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderReportFilter;
+import com.halmber.springordersapi.model.ReportJob;
+import com.halmber.springordersapi.model.dto.response.order.ReportJobResponseDto;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.model.enums.ReportJobStatusEnum;
+import com.halmber.springordersapi.service.exeption.ReportNotReadyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Renders reports asynchronously to local disk, so that slow downloads do not hold
+ * a request thread, a database connection and a transaction.
+ *
+ * <p>Jobs run on a bounded worker pool; when both the pool and its queue are full new jobs are rejected.
+ * The connection is held only while {@link ReportService} renders the file, and the finished file is
+ * served from disk afterward. Finished jobs and their files are removed once older than the configured TTL.
+ *
+ * <p>Jobs are kept in memory: they are local to the instance and do not survive a restart.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+    private static final Pattern JOB_FILE_NAME = Pattern.compile("^[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\..+$");
+
+    private final ReportService reportService;
+    private final ReportCompressionService reportCompressionService;
+    private final Path directory;
+    private final Duration ttl;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(
+            ReportService reportService,
+            ReportCompressionService reportCompressionService,
+            @Value("${reports.jobs.directory:${java.io.tmpdir}/orders-reports}") Path directory,
+            @Value("${reports.jobs.ttl:PT1H}") Duration ttl,
+            @Value("${reports.jobs.pool-size:2}") int poolSize,
+            @Value("${reports.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.reportService = reportService;
+        this.reportCompressionService = reportCompressionService;
+        this.directory = directory;
+        this.ttl = ttl;
+
+        // Not a bean: an Executor bean would replace Spring Boot's default application task executor
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        // The pool size still bounds concurrent jobs, virtual workers just don't hold a platform thread while blocked
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+    }
+
+    /**
+     * Creates the report directory and removes report files left by a previous run (the jobs themselves are gone).
+     */
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> JOB_FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .forEach(this::deleteQuietly);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues a report for rendering.
+     *
+     * @throws TaskRejectedException if the worker pool and its queue are full
+     */
+    public ReportJobResponseDto submit(OrderReportFilter filter) {
+        purgeExpired();
+
+        ReportJob job = new ReportJob(filter);
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> render(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new TaskRejectedException("Too many report jobs in progress, try again later", e);
+        }
+
+        log.info("Report job {} submitted: fileType={}, compression={}, filters: {}",
+                job.getId(), filter.fileType(), job.getCompression(), filter.criteria());
+
+        return toDto(job);
+    }
+
+    /**
+     * @throws IllegalStateException if the job doesn't exist or has expired
+     */
+    public ReportJobResponseDto getJob(UUID id) {
+        return toDto(findJobOrThrow(id));
+    }
+
+    /**
+     * Returns a job whose file is ready to be downloaded.
+     *
+     * @throws IllegalStateException  if the job doesn't exist or has expired
+     * @throws ReportNotReadyException if the job is still running or has failed
+     */
+    public ReportJob getCompletedJob(UUID id) {
+        ReportJob job = findJobOrThrow(id);
+
+        if (job.getStatus() != ReportJobStatusEnum.COMPLETED) {
+            throw new ReportNotReadyException("Report job '%s' is %s".formatted(id, job.getStatus()));
+        }
+
+        return job;
+    }
+
+    /**
+     * Removes finished jobs older than the TTL together with their files.
+     */
+    void purgeExpired() {
+        Instant expiredBefore = Instant.now().minus(ttl);
+
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(expiredBefore)) {
+                return false;
+            }
+
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            log.info("Report job {} expired", job.getId());
+            return true;
+        });
+    }
+
+    private void render(ReportJob job) {
+        OrderReportFilter filter = job.getFilter();
+        ReportCompressionEnum compression = job.getCompression();
+        Path file = directory.resolve(job.getId() + filter.fileType().getExtension() + compression.getExtension());
+        Path partFile = directory.resolve(file.getFileName() + ".part");
+
+        job.start();
+        try {
+            try (OutputStream outputStream = reportCompressionService.compress(
+                    new BufferedOutputStream(Files.newOutputStream(partFile)), compression)) {
+                reportService.generateReport(
+                        filter.criteria(),
+                        filter.fileType(),
+                        outputStream,
+                        job.getRowsWritten()
+                );
+            }
+
+            Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(file, Files.size(file));
+            log.info("Report job {} completed: {} rows, {} bytes", job.getId(), job.getRowsWritten().get(), job.getFileSize());
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.getId(), e);
+            deleteQuietly(partFile);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private ReportJob findJobOrThrow(UUID id) {
+        ReportJob job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalStateException("Report job with id '%s' not found".formatted(id));
+        }
+
+        return job;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ReportJobResponseDto toDto(ReportJob job) {
+        return ReportJobResponseDto.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .fileType(job.getFilter().fileType())
+                .rowsWritten(job.getRowsWritten().get())
+                .fileSize(job.getStatus() == ReportJobStatusEnum.COMPLETED ? job.getFileSize() : null)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
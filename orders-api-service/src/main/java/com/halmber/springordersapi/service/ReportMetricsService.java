@@ -0,0 +1,42 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Report metrics, exposed by the actuator under {@code /actuator/metrics}.
+ *
+ * <ul>
+ *   <li>{@code reports.abandoned}: reports cancelled because the client went away, by {@code format}</li>
+ *   <li>{@code reports.abandoned.rows}: rows written before such a report was cancelled, by {@code format}</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportMetricsService {
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Records a report that was abandoned by the client after {@code rowsWritten} rows.
+     */
+    public void recordAbandoned(ReportFileTypeEnum fileType, long rowsWritten) {
+        String format = fileType.name().toLowerCase();
+
+        Counter.builder("reports.abandoned")
+                .description("Reports cancelled because the client disconnected")
+                .tag("format", format)
+                .register(meterRegistry)
+                .increment();
+
+        DistributionSummary.builder("reports.abandoned.rows")
+                .description("Rows written before a report was abandoned")
+                .baseUnit("rows")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(rowsWritten);
+    }
+}
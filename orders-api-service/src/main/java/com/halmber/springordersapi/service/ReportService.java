@@ -1,24 +1,28 @@
 package com.halmber.springordersapi.service;
 
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.OrderReportFilter;
 import com.halmber.springordersapi.model.entity.Order;
-import com.halmber.springordersapi.model.enums.PaymentEnum;
 import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
-import com.halmber.springordersapi.model.enums.StatusEnum;
 import com.halmber.springordersapi.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.util.UUID;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 /**
  * Service for generating order reports in various file formats.
- * Delegates actual report generation to format-specific services (CSV, XLSX).
+ * Delegates actual report generation to format-specific services (CSV, XLSX, Parquet).
  * Uses streaming queries to efficiently handle large datasets without loading
  * all data into memory at once.
  *
@@ -26,47 +30,177 @@ import java.util.stream.Stream;
  * <ul>
  *   <li>CSV - text-based comma-separated values</li>
  *   <li>XLSX - Excel spreadsheet format</li>
+ *   <li>PARQUET - columnar format for analytics engines</li>
  * </ul>
  *
  * <p>Support:
  * <ul>
  *   <li>Memory-efficient streaming queries with Hibernate</li>
- *   <li>Filter support for customer, status, and payment method</li>
+ *   <li>PostgreSQL COPY fast path for CSV reports, optionally split into parallel partitions</li>
+ *   <li>Disk cache of rendered reports keyed by filter and data version</li>
+ *   <li>Cooperative cancellation, e.g. when the client disconnects, see {@link ReportCancellation}</li>
+ *   <li>Filter support for customer, status, payment method, creation time and amount ranges</li>
  *   <li>Direct output stream writing for optimal performance</li>
  *   <li>Transaction management for consistent data access</li>
  * </ul>
+ *
+ * <p>Reports are rendered in a read-only {@code REPEATABLE READ} transaction of their own: the data version of the
+ * cache key is read in the same snapshot as the orders, so a report is never cached under a version it doesn't
+ * reflect. Cache hits are copied after that transaction, without holding a pooled connection during the download.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ReportService {
     private final OrderRepository orderRepository;
     private final CsvReportService csvReportService;
+    private final CsvCopyReportService csvCopyReportService;
+    private final ParallelCsvExportService parallelCsvExportService;
     private final XlsxReportService xlsxReportService;
+    private final ParquetReportService parquetReportService;
+    private final ReportCacheService reportCacheService;
+    private final TransactionTemplate snapshotTransaction;
+
+    public ReportService(
+            OrderRepository orderRepository,
+            CsvReportService csvReportService,
+            CsvCopyReportService csvCopyReportService,
+            ParallelCsvExportService parallelCsvExportService,
+            XlsxReportService xlsxReportService,
+            ParquetReportService parquetReportService,
+            ReportCacheService reportCacheService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.orderRepository = orderRepository;
+        this.csvReportService = csvReportService;
+        this.csvCopyReportService = csvCopyReportService;
+        this.parallelCsvExportService = parallelCsvExportService;
+        this.xlsxReportService = xlsxReportService;
+        this.parquetReportService = parquetReportService;
+        this.reportCacheService = reportCacheService;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
 
     /**
      * Generates a report file and writes it to the provided OutputStream.
      * Uses streaming to avoid loading all data into memory.
-     * Must be called within a transactional context for stream query to work.
+     * Runs in its own transaction, see the class description.
+     * CSV reports on PostgreSQL are produced by the database itself via {@link CsvCopyReportService}.
+     * Reports whose data hasn't changed since they were last rendered are served from {@link ReportCacheService}.
      */
-    @Transactional(readOnly = true)
     public void generateReport(
-            UUID customerId,
-            StatusEnum status,
-            PaymentEnum paymentMethod,
+            OrderCriteria criteria,
             ReportFileTypeEnum fileType,
             OutputStream outputStream
     ) {
-        log.info("Generating {} report with filters: customerId={}, status={}, paymentMethod={}",
-                fileType, customerId, status, paymentMethod);
+        generateReport(criteria, fileType, outputStream, new AtomicLong());
+    }
+
+    /**
+     * Same as {@link #generateReport(OrderCriteria, ReportFileTypeEnum, OutputStream)},
+     * reporting progress through {@code rowsWritten}, which is incremented for every order row.
+     */
+    public void generateReport(
+            OrderCriteria criteria,
+            ReportFileTypeEnum fileType,
+            OutputStream outputStream,
+            AtomicLong rowsWritten
+    ) {
+        generateReport(criteria, fileType, outputStream, rowsWritten, new ReportCancellation());
+    }
+
+    /**
+     * Same as {@link #generateReport(OrderCriteria, ReportFileTypeEnum, OutputStream, AtomicLong)},
+     * stopping as soon as {@code cancellation} is cancelled: row streams end at the next row and running
+     * COPY statements are cancelled in the database. Fails with a {@code ReportCancelledException} or the
+     * exception of the write that cancelled the report.
+     */
+    public void generateReport(
+            OrderCriteria criteria,
+            ReportFileTypeEnum fileType,
+            OutputStream outputStream,
+            AtomicLong rowsWritten,
+            ReportCancellation cancellation
+    ) {
+        log.info("Generating {} report with filters: {}", fileType, criteria);
+
+        if (!reportCacheService.isEnabled()) {
+            snapshotTransaction.executeWithoutResult(status ->
+                    render(criteria, fileType, outputStream, rowsWritten, cancellation));
+            return;
+        }
+
+        OrderReportFilter filter = OrderReportFilter.builder()
+                .criteria(criteria)
+                .fileType(fileType)
+                .build();
+
+        CachedReport cachedReport = snapshotTransaction.execute(status -> {
+            // First query of the transaction: the version is the one of the snapshot rendered below
+            OrderDataVersion version = orderRepository.findDataVersion(criteria);
+            String cacheKey = reportCacheService.key(filter, version);
+
+            InputStream cachedFile = reportCacheService.open(cacheKey);
+            if (cachedFile != null) {
+                return new CachedReport(cachedFile, version.count());
+            }
+
+            ReportCacheService.Entry cacheEntry = reportCacheService.newEntry(cacheKey);
+            try {
+                render(criteria, fileType, cacheEntry.tee(outputStream), rowsWritten, cancellation);
+                cacheEntry.commit();
+            } catch (RuntimeException e) {
+                cacheEntry.discard();
+                throw e;
+            }
+            return null;
+        });
+
+        if (cachedReport != null) {
+            try (InputStream cachedFile = cachedReport.file()) {
+                cachedFile.transferTo(outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rowsWritten.set(cachedReport.rows());
+            log.info("{} report served from cache: {} rows", fileType, cachedReport.rows());
+        }
+    }
+
+    private void render(
+            OrderCriteria criteria,
+            ReportFileTypeEnum fileType,
+            OutputStream outputStream,
+            AtomicLong rowsWritten,
+            ReportCancellation cancellation
+    ) {
+        if (fileType == ReportFileTypeEnum.CSV && parallelCsvExportService.isEnabled()) {
+            long rows = parallelCsvExportService.generateReport(
+                    criteria, outputStream, rowsWritten, cancellation);
+            log.info("CSV report generated with parallel COPY: {} rows", rows);
+            return;
+        }
+
+        if (fileType == ReportFileTypeEnum.CSV && csvCopyReportService.isSupported()) {
+            long rows = csvCopyReportService.generateReport(
+                    criteria, outputStream, rowsWritten, cancellation);
+            log.info("CSV report generated with COPY: {} rows", rows);
+            return;
+        }
 
         try {
-            try (Stream<Order> ordersStream = orderRepository.streamByFilters(
-                    customerId, status, paymentMethod)) {
+            try (Stream<Order> ordersStream = orderRepository.streamByFilters(criteria)) {
+
+                Stream<Order> countedStream = ordersStream.peek(order -> {
+                    cancellation.throwIfCancelled();
+                    rowsWritten.incrementAndGet();
+                });
 
                 switch (fileType) {
-                    case CSV -> generateCsvReport(ordersStream, outputStream);
-                    case XLSX -> generateXlsxReport(ordersStream, outputStream);
+                    case CSV -> generateCsvReport(countedStream, outputStream);
+                    case XLSX -> generateXlsxReport(countedStream, outputStream);
+                    case PARQUET -> parquetReportService.generateReport(countedStream, outputStream);
                     default -> throw new IllegalArgumentException("Unsupported file type: " + fileType);
                 }
             }
@@ -85,5 +219,10 @@ public class ReportService {
     private void generateXlsxReport(Stream<Order> ordersStream, OutputStream outputStream) throws IOException {
         xlsxReportService.generateReport(ordersStream, outputStream);
     }
-}
 
+    /**
+     * Cached report file opened within the snapshot transaction, read after it.
+     */
+    private record CachedReport(InputStream file, long rows) {
+    }
+}
@@ -0,0 +1,292 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes order rows as an XLSX (Office Open XML) workbook straight into a ZIP stream, in the {@link XlsxReportService} format.
+ *
+ * <p>Sheet XML is generated as rows come in and deflated on the fly: nothing is kept in memory or spilled to disk.
+ * Strings are written inline ({@code t="inlineStr"}), so there is no shared string table, amounts are number cells
+ * and creation times are date cells (Excel serial numbers in the report time zone, formatted {@code yyyy-mm-dd hh:mm:ss}).
+ *
+ * <p>A sheet holds at most {@code maxRowsPerSheet} rows including the header. Further rows go to a new sheet with its
+ * own header: "Orders", "Orders (2)", "Orders (3)", ... The workbook part, which lists the sheets, and the content types
+ * are written last, once the number of sheets is known.
+ *
+ * <p>Not thread-safe: create one instance per report. Closing releases the compressor, but doesn't close the output stream.
+ */
+final class XlsxOrderWriter implements Closeable {
+    static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    static final String SHEET_NAME = "Orders";
+
+    private static final String[] HEADERS = {
+            "Order ID", "Customer ID", "Customer Name", "Email",
+            "Amount", "Status", "Payment Method", "Created At"
+    };
+    private static final char[] COLUMNS = "ABCDEFGH".toCharArray();
+
+    // Cell style indexes in styles.xml
+    private static final int HEADER_STYLE = 1;
+    private static final int DATA_STYLE = 2;
+    private static final int DATE_STYLE = 3;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    // Excel serial number of 1970-01-01
+    private static final int EXCEL_EPOCH_DAYS = 25_569;
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIP_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_RELATIONSHIP_NAMESPACE = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String CONTENT_TYPE_PREFIX = "application/vnd.openxmlformats-officedocument.spreadsheetml.";
+
+    private static final String STYLES = XML_DECLARATION
+            + "<styleSheet xmlns=\"" + MAIN_NAMESPACE + "\">"
+            + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/></numFmts>"
+            + "<fonts count=\"2\">"
+            + "<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>"
+            + "</fonts>"
+            + "<fills count=\"3\">"
+            + "<fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill>"
+            + "<fill><patternFill patternType=\"solid\"><fgColor indexed=\"22\"/><bgColor indexed=\"64\"/></patternFill></fill>"
+            + "</fills>"
+            + "<borders count=\"2\">"
+            + "<border><left/><right/><top/><bottom/><diagonal/></border>"
+            + "<border><left style=\"thin\"><color indexed=\"64\"/></left><right style=\"thin\"><color indexed=\"64\"/></right>"
+            + "<top style=\"thin\"><color indexed=\"64\"/></top><bottom style=\"thin\"><color indexed=\"64\"/></bottom><diagonal/></border>"
+            + "</borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"4\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"2\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\""
+            + " applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\"/></xf>"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyBorder=\"1\"/>"
+            + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyNumberFormat=\"1\" applyBorder=\"1\"/>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final ZoneRules zoneRules;
+    private final int maxRowsPerSheet;
+
+    private int sheets;
+    private int sheetRow;
+
+    /**
+     * @param outputStream     receives the workbook, it is not closed
+     * @param compressionLevel deflate level of the ZIP entries, see {@link java.util.zip.Deflater}
+     */
+    XlsxOrderWriter(OutputStream outputStream, ZoneId zone, int maxRowsPerSheet, int compressionLevel) throws IOException {
+        if (maxRowsPerSheet < 2 || maxRowsPerSheet > MAX_ROWS_PER_SHEET) {
+            throw new IllegalArgumentException("Rows per sheet must be between 2 and " + MAX_ROWS_PER_SHEET);
+        }
+
+        this.zip = new ZipOutputStream(StreamUtils.nonClosing(outputStream), StandardCharsets.UTF_8);
+        this.zip.setLevel(compressionLevel);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        this.zoneRules = zone.getRules();
+        this.maxRowsPerSheet = maxRowsPerSheet;
+
+        putEntry("xl/styles.xml");
+        writer.write(STYLES);
+        startSheet();
+    }
+
+    void writeOrderRow(Order order) throws IOException {
+        if (sheetRow == maxRowsPerSheet) {
+            endSheet();
+            startSheet();
+        }
+
+        int row = ++sheetRow;
+        Customer customer = order.getCustomer();
+
+        startRow(row);
+        writeString(0, row, order.getId().toString());
+        writeString(1, row, customer.getId().toString());
+        writeString(2, row, customer.getFullName());
+        writeString(3, row, customer.getEmail());
+        writeNumber(4, row, DATA_STYLE, Double.toString(order.getAmount()));
+        writeString(5, row, order.getStatus().name());
+        writeString(6, row, order.getPaymentMethod() != null ? order.getPaymentMethod().name() : "");
+        writeNumber(7, row, DATE_STYLE, Double.toString(toExcelDate(order.getCreatedAt())));
+        writer.write("</row>");
+    }
+
+    /**
+     * Completes the last sheet and writes the parts that reference the sheets. The output stream is flushed, not closed.
+     */
+    void finish() throws IOException {
+        endSheet();
+
+        putEntry("xl/workbook.xml");
+        writer.write(XML_DECLARATION);
+        writer.write("<workbook xmlns=\"" + MAIN_NAMESPACE + "\" xmlns:r=\"" + RELATIONSHIP_NAMESPACE + "\"><sheets>");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            writer.write("<sheet name=\"" + sheetName(sheet) + "\" sheetId=\"" + sheet + "\" r:id=\"rId" + sheet + "\"/>");
+        }
+        writer.write("</sheets></workbook>");
+
+        putEntry("xl/_rels/workbook.xml.rels");
+        writer.write(XML_DECLARATION);
+        writer.write("<Relationships xmlns=\"" + PACKAGE_RELATIONSHIP_NAMESPACE + "\">");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            writer.write("<Relationship Id=\"rId" + sheet + "\" Type=\"" + RELATIONSHIP_NAMESPACE
+                    + "/worksheet\" Target=\"worksheets/sheet" + sheet + ".xml\"/>");
+        }
+        writer.write("<Relationship Id=\"rId" + (sheets + 1) + "\" Type=\"" + RELATIONSHIP_NAMESPACE
+                + "/styles\" Target=\"styles.xml\"/>");
+        writer.write("</Relationships>");
+
+        putEntry("_rels/.rels");
+        writer.write(XML_DECLARATION);
+        writer.write("<Relationships xmlns=\"" + PACKAGE_RELATIONSHIP_NAMESPACE + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP_NAMESPACE
+                + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+
+        putEntry("[Content_Types].xml");
+        writer.write(XML_DECLARATION);
+        writer.write("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"" + CONTENT_TYPE_PREFIX + "sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\"" + CONTENT_TYPE_PREFIX + "styles+xml\"/>");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            writer.write("<Override PartName=\"/xl/worksheets/sheet" + sheet + ".xml\" ContentType=\""
+                    + CONTENT_TYPE_PREFIX + "worksheet+xml\"/>");
+        }
+        writer.write("</Types>");
+
+        writer.flush();
+        zip.finish();
+        zip.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    int getSheetCount() {
+        return sheets;
+    }
+
+    static String sheetName(int sheet) {
+        return sheet == 1 ? SHEET_NAME : SHEET_NAME + " (" + sheet + ")";
+    }
+
+    private void startSheet() throws IOException {
+        sheets++;
+        sheetRow = 1;
+
+        putEntry("xl/worksheets/sheet" + sheets + ".xml");
+        writer.write(XML_DECLARATION);
+        writer.write("<worksheet xmlns=\"" + MAIN_NAMESPACE + "\"><sheetData>");
+
+        startRow(1);
+        for (int column = 0; column < HEADERS.length; column++) {
+            startCell(column, 1, HEADER_STYLE);
+            writer.write(" t=\"inlineStr\"><is><t>");
+            writer.write(HEADERS[column]);
+            writer.write("</t></is></c>");
+        }
+        writer.write("</row>");
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+    }
+
+    private void putEntry(String name) throws IOException {
+        writer.flush();
+        zip.putNextEntry(new ZipEntry(name));
+    }
+
+    private void startRow(int row) throws IOException {
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(row));
+        writer.write("\">");
+    }
+
+    private void startCell(int column, int row, int style) throws IOException {
+        writer.write("<c r=\"");
+        writer.write(COLUMNS[column]);
+        writer.write(Integer.toString(row));
+        writer.write("\" s=\"");
+        writer.write('0' + style);
+        writer.write('"');
+    }
+
+    private void writeString(int column, int row, String value) throws IOException {
+        startCell(column, row, DATA_STYLE);
+        writer.write(" t=\"inlineStr\"><is><t");
+        if (!value.isEmpty() && (Character.isWhitespace(value.charAt(0))
+                || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+            writer.write(" xml:space=\"preserve\"");
+        }
+        writer.write('>');
+        writeEscaped(value);
+        writer.write("</t></is></c>");
+    }
+
+    private void writeNumber(int column, int row, int style, String value) throws IOException {
+        startCell(column, row, style);
+        writer.write("><v>");
+        writer.write(value);
+        writer.write("</v></c>");
+    }
+
+    /**
+     * Escapes XML markup characters and drops characters XML 1.0 doesn't allow.
+     */
+    private void writeEscaped(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '&') {
+                replacement = "&amp;";
+            } else if (c < 0x20 && c != '\t' && c != '\n' && c != '\r' || c == 0xFFFE || c == 0xFFFF) {
+                replacement = "";
+            } else {
+                continue;
+            }
+
+            writer.write(value, start, i - start);
+            writer.write(replacement);
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+    }
+
+    /**
+     * Excel serial date: days since 1899-12-30 in local time, truncated to whole seconds like the CSV report.
+     */
+    private double toExcelDate(Instant instant) {
+        long localSeconds = instant.getEpochSecond() + zoneRules.getOffset(instant).getTotalSeconds();
+        return (double) localSeconds / SECONDS_PER_DAY + EXCEL_EPOCH_DAYS;
+    }
+}
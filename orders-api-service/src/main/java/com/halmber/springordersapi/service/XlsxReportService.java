@@ -2,19 +2,19 @@ package com.halmber.springordersapi.service;
 
 import com.halmber.springordersapi.model.entity.Order;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 /**
  * Service for generating XLSX (Excel) reports from order data.
- * Uses Apache POI's SXSSFWorkbook for memory-efficient streaming write operations.
+ * Rows are written by {@link XlsxOrderWriter} straight into the compressed workbook as they are read,
+ * so memory use is constant and nothing is buffered on disk.
  *
  * <p>Report columns:
  * <ol>
@@ -22,108 +22,45 @@ import java.util.stream.Stream;
  *   <li>Customer ID</li>
  *   <li>Customer Name</li>
  *   <li>Email</li>
- *   <li>Amount</li>
+ *   <li>Amount (number)</li>
  *   <li>Status</li>
  *   <li>Payment Method</li>
- *   <li>Created At</li>
+ *   <li>Created At (date)</li>
  * </ol>
+ *
+ * <p>A sheet holds at most {@code max-rows-per-sheet} rows, the Excel limit by default.
+ * Larger reports continue on sheets "Orders (2)", "Orders (3)" and so on.
  */
 @Slf4j
 @Service
 public class XlsxReportService {
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
-
-    private static final String[] HEADERS = {
-            "Order ID", "Customer ID", "Customer Name", "Email",
-            "Amount", "Status", "Payment Method", "Created At"
-    };
+    private final int maxRowsPerSheet;
+    private final int compressionLevel;
+
+    public XlsxReportService(
+            @Value("${reports.xlsx.max-rows-per-sheet:" + XlsxOrderWriter.MAX_ROWS_PER_SHEET + "}") int maxRowsPerSheet,
+            @Value("${reports.xlsx.compression-level:1}") int compressionLevel
+    ) {
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        this.compressionLevel = compressionLevel;
+    }
 
     /**
-     * Generates XLSX report using SXSSFWorkbook for memory-efficient streaming.
-     * Only keeps 100 rows in memory at a time.
+     * Writes all orders of the stream as an XLSX workbook. The output stream is flushed, not closed.
      */
     public void generateReport(Stream<Order> ordersStream, OutputStream outputStream) throws IOException {
-        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
-            Sheet sheet = workbook.createSheet("Orders");
-
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-
-            createHeaderRow(sheet, headerStyle);
-
-            final int[] rowNum = {1};
-            ordersStream.forEach(order -> {
-                Row row = sheet.createRow(rowNum[0]++);
-                fillOrderRow(row, order, dataStyle);
-            });
-
-            workbook.write(outputStream);
-            outputStream.flush();
-
-            workbook.dispose();
+        try (XlsxOrderWriter writer = new XlsxOrderWriter(
+                outputStream, ZoneId.systemDefault(), maxRowsPerSheet, compressionLevel)) {
+
+            Iterator<Order> orders = ordersStream.iterator();
+            while (orders.hasNext()) {
+                writer.writeOrderRow(orders.next());
+            }
+            writer.finish();
+
+            if (writer.getSheetCount() > 1) {
+                log.info("XLSX report split into {} sheets", writer.getSheetCount());
+            }
         }
     }
-
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 11);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        return style;
-    }
-
-    private CellStyle createDataStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        return style;
-    }
-
-    private void createHeaderRow(Sheet sheet, CellStyle headerStyle) {
-        Row headerRow = sheet.createRow(0);
-        for (int i = 0; i < HEADERS.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(HEADERS[i]);
-            cell.setCellStyle(headerStyle);
-        }
-    }
-
-    private void fillOrderRow(Row row, Order order, CellStyle dataStyle) {
-        int colNum = 0;
-
-        createCell(row, colNum++, order.getId().toString(), dataStyle);
-        createCell(row, colNum++, order.getCustomer().getId().toString(), dataStyle);
-        createCell(row, colNum++, order.getCustomer().getFullName(), dataStyle);
-        createCell(row, colNum++, order.getCustomer().getEmail(), dataStyle);
-        createCell(row, colNum++, order.getAmount(), dataStyle);
-        createCell(row, colNum++, order.getStatus().name(), dataStyle);
-        createCell(row, colNum++,
-                order.getPaymentMethod() != null ? order.getPaymentMethod().name() : "",
-                dataStyle);
-        createCell(row, colNum++, DATE_FORMATTER.format(order.getCreatedAt()), dataStyle);
-    }
-
-    private void createCell(Row row, int column, String value, CellStyle style) {
-        Cell cell = row.createCell(column);
-        cell.setCellValue(value);
-        cell.setCellStyle(style);
-    }
-
-    private void createCell(Row row, int column, double value, CellStyle style) {
-        Cell cell = row.createCell(column);
-        cell.setCellValue(value);
-        cell.setCellStyle(style);
-    }
 }
-
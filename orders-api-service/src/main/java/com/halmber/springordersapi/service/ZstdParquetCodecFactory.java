@@ -0,0 +1,93 @@
+package com.halmber.springordersapi.service;
+
+import com.github.luben.zstd.Zstd;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Parquet page compression with zstd-jni directly.
+ *
+ * <p>Parquet's default codec factory goes through Hadoop's codec classes, which pull in Hadoop's whole
+ * configuration stack at runtime. Only {@link CompressionCodecName#ZSTD} and uncompressed pages are supported.
+ */
+final class ZstdParquetCodecFactory implements CompressionCodecFactory {
+    private final int level;
+
+    ZstdParquetCodecFactory(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public BytesInputCompressor getCompressor(CompressionCodecName codecName) {
+        checkSupported(codecName);
+
+        return new BytesInputCompressor() {
+            @Override
+            public BytesInput compress(BytesInput bytes) throws IOException {
+                if (codecName == CompressionCodecName.UNCOMPRESSED) {
+                    return bytes;
+                }
+                return BytesInput.from(Zstd.compress(toArray(bytes), level));
+            }
+
+            @Override
+            public CompressionCodecName getCodecName() {
+                return codecName;
+            }
+
+            @Override
+            public void release() {
+            }
+        };
+    }
+
+    @Override
+    public BytesInputDecompressor getDecompressor(CompressionCodecName codecName) {
+        checkSupported(codecName);
+
+        return new BytesInputDecompressor() {
+            @Override
+            public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+                if (codecName == CompressionCodecName.UNCOMPRESSED) {
+                    return bytes;
+                }
+                return BytesInput.from(Zstd.decompress(toArray(bytes), uncompressedSize));
+            }
+
+            @Override
+            public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+                    throws IOException {
+                byte[] compressed = new byte[compressedSize];
+                input.get(compressed);
+                output.put(codecName == CompressionCodecName.UNCOMPRESSED
+                        ? compressed
+                        : Zstd.decompress(compressed, uncompressedSize));
+            }
+
+            @Override
+            public void release() {
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+    }
+
+    private static byte[] toArray(BytesInput bytes) throws IOException {
+        try (InputStream inputStream = bytes.toInputStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static void checkSupported(CompressionCodecName codecName) {
+        if (codecName != CompressionCodecName.ZSTD && codecName != CompressionCodecName.UNCOMPRESSED) {
+            throw new IllegalArgumentException("Unsupported Parquet codec: " + codecName);
+        }
+    }
+}
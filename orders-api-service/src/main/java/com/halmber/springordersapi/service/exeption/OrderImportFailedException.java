@@ -0,0 +1,23 @@
+package com.halmber.springordersapi.service.exeption;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A chunked order import failed. The chunks committed before the failure are kept,
+ * the import can be resumed from {@link #getCheckpointId()}. The message is meant for the client
+ * and leaves out the cause, which may carry SQL or server details.
+ */
+@Getter
+public class OrderImportFailedException extends RuntimeException {
+    private final UUID checkpointId;
+    private final int committedRecords;
+
+    public OrderImportFailedException(UUID checkpointId, int committedRecords, Throwable cause) {
+        super("Import failed after %d committed records, upload the same file with resumeFrom=%s to continue"
+                .formatted(committedRecords, checkpointId), cause);
+        this.checkpointId = checkpointId;
+        this.committedRecords = committedRecords;
+    }
+}
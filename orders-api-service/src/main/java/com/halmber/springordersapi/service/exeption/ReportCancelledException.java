@@ -0,0 +1,8 @@
+package com.halmber.springordersapi.service.exeption;
+
+public class ReportCancelledException extends RuntimeException {
+
+    public ReportCancelledException(String message) {
+        super(message);
+    }
+}
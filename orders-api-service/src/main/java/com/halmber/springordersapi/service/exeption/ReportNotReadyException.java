@@ -0,0 +1,8 @@
+package com.halmber.springordersapi.service.exeption;
+
+public class ReportNotReadyException extends RuntimeException {
+
+    public ReportNotReadyException(String message) {
+        super(message);
+    }
+}
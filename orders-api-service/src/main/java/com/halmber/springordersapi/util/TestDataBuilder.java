@@ -1,5 +1,6 @@
 package com.halmber.springordersapi.util;
 
+import com.halmber.springordersapi.model.OrderCriteria;
 import com.halmber.springordersapi.model.OrderFilter;
 import com.halmber.springordersapi.model.dto.request.customer.CustomerCreateDto;
 import com.halmber.springordersapi.model.dto.request.customer.CustomerEditDto;
@@ -87,9 +88,7 @@ public class TestDataBuilder {
 
     public static OrderFilter createOrderFilter(UUID customerId, Integer page, Integer size) {
         return OrderFilter.builder()
-                .customerId(customerId)
-                .status(null)
-                .paymentMethod(null)
+                .criteria(OrderCriteria.builder().customerId(customerId).build())
                 .page(page)
                 .size(size)
                 .build();
@@ -0,0 +1,205 @@
+package com.halmber.springordersapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing platform and virtual thread request handling
+ * ({@code spring.threads.virtual.enabled}) of a running orders-api-service.
+ *
+ * <p>{@code concurrency} virtual-thread clients send requests back to back for {@code duration} after a
+ * {@code warmup}, mixing {@code GET /api/orders/{id}} on ids sampled from the database, filtered
+ * {@code POST /api/orders/_list} pages and, with {@code writes > 0}, {@code POST /api/orders}
+ * (needs a reachable Kafka broker, sending the order email blocks until then). Prints throughput and latency
+ * percentiles.
+ *
+ * <p>Not a test: start the application once per mode with the same {@code spring.datasource.hikari.maximum-pool-size}
+ * and run, e.g.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.halmber.springordersapi.OrderApiLoadGenerator \
+ *     url=http://localhost:8080 concurrency=400 warmup=15 duration=60 writes=0.1
+ * </pre>
+ */
+public class OrderApiLoadGenerator {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String[] STATUSES = {"NEW", "PROCESSING", "DONE", "CANCELED"};
+    private static final String[] PAYMENT_METHODS = {"CARD", "CASH", "PAYPAL", "GOOGLE_PAY", "APPLE_PAY"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String url;
+    private final double writes;
+    private final List<String> orderIds = new ArrayList<>();
+    private final List<String> customerIds = new ArrayList<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    private OrderApiLoadGenerator(String url, double writes) {
+        this.url = url;
+        this.writes = writes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option[1]);
+        }
+
+        OrderApiLoadGenerator generator = new OrderApiLoadGenerator(
+                options.getOrDefault("url", "http://localhost:8080"),
+                Double.parseDouble(options.getOrDefault("writes", "0")));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+
+        generator.sampleIds(Integer.parseInt(options.getOrDefault("ids", "2000")));
+        generator.run(concurrency, warmup);
+        generator.errors.set(0);
+        long[] latencies = generator.run(concurrency, duration);
+
+        Arrays.sort(latencies);
+        System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d%n",
+                concurrency, duration.toSeconds(), latencies.length, generator.errors.get());
+        System.out.printf("throughput=%.1f req/s p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                latencies.length / (double) duration.toSeconds(),
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+    }
+
+    /**
+     * Runs the clients for the given time.
+     *
+     * @return latencies of all completed requests in nanoseconds
+     */
+    private long[] run(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long[][] results = new long[concurrency][];
+        Thread[] clients = new Thread[concurrency];
+
+        for (int i = 0; i < concurrency; i++) {
+            int client = i;
+            clients[i] = Thread.ofVirtual().start(() -> results[client] = runClient(deadline));
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        return Arrays.stream(results).flatMapToLong(Arrays::stream).toArray();
+    }
+
+    private long[] runClient(long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(nextRequest(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double operation = random.nextDouble();
+
+        if (operation < writes) {
+            String body = String.format(Locale.ROOT, """
+                    {"customerId": "%s", "status": "NEW", "paymentMethod": "%s", "amount": %.2f}""",
+                    randomOf(customerIds), PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)],
+                    random.nextDouble(1, 1000));
+            return post("/api/orders", body);
+        }
+        if (operation < writes + (1 - writes) * 0.3) {
+            return post("/api/orders/_list", """
+                    {"status": "%s", "page": %d, "size": 20}""".formatted(
+                    STATUSES[random.nextInt(STATUSES.length)], random.nextInt(10)));
+        }
+        return HttpRequest.newBuilder(URI.create(url + "/api/orders/" + randomOf(orderIds)))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Collects order and customer ids to request from the newest orders.
+     */
+    private void sampleIds(int count) throws IOException, InterruptedException {
+        String cursor = "";
+        while (orderIds.size() < count) {
+            HttpResponse<String> response = client.send(
+                    post("/api/orders/_list", "{\"size\": 100, \"after\": \"%s\"}".formatted(cursor)),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode page = OBJECT_MAPPER.readTree(response.body());
+            for (JsonNode order : page.path("orders")) {
+                orderIds.add(order.path("id").asText());
+                customerIds.add(order.path("customer").path("id").asText());
+            }
+
+            cursor = page.path("nextCursor").asText(null);
+            if (cursor == null || page.path("orders").isEmpty()) {
+                break;
+            }
+        }
+
+        if (orderIds.isEmpty()) {
+            throw new IllegalStateException("No orders to request, seed the database first");
+        }
+    }
+
+    private static String randomOf(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.halmber.springordersapi.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10), 8);
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Should count virtual threads blocking inside synchronized code")
+    void shouldRecordPinnedVirtualThread() throws Exception {
+        monitor.start();
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(100);
+            }
+        }).join();
+
+        Timer pinned = meterRegistry.get("jvm.threads.virtual.pinned").timer();
+        // JFR streams events in chunks about once a second
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinned.count() == 0 && System.nanoTime() < deadline) {
+            sleep(100);
+        }
+
+        assertThat(pinned.count()).isEqualTo(1);
+        assertThat(pinned.max(TimeUnit.MILLISECONDS)).isGreaterThan(50);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -326,6 +327,50 @@ class OrderControllerIntegrationTest extends BaseConfigurationTest {
                 .andExpect(jsonPath("$.orders[0].paymentMethod", is("CARD")));
     }
 
+    @Test
+    @DisplayName("GET /api/orders/_stream - Should stream filtered orders as NDJSON, newest first")
+    void shouldStreamOrdersAsNdjson() throws Exception {
+        Order newerOrder = orderRepository.saveAndFlush(Order.builder()
+                .customer(testCustomer)
+                .amount(150.00)
+                .status(StatusEnum.NEW)
+                .paymentMethod(PaymentEnum.PAYPAL)
+                .build());
+        orderRepository.saveAndFlush(Order.builder()
+                .customer(testCustomer)
+                .amount(300.00)
+                .status(StatusEnum.DONE)
+                .paymentMethod(PaymentEnum.CARD)
+                .build());
+
+        String content = mockMvc.perform(get("/api/orders/_stream")
+                        .param("customerId", testCustomer.getId().toString())
+                        .param("status", "NEW"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(content).endsWith("\n");
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize(2).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo(newerOrder.getId().toString());
+        assertThat(objectMapper.readTree(lines[0]).get("customer").get("fullName").asText()).isEqualTo("John Doe");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asText()).isEqualTo(testOrder.getId().toString());
+        assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("NEW");
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/_stream - Should return 400 for invalid filters")
+    void shouldReturn400WhenStreamFilterInvalid() throws Exception {
+        mockMvc.perform(get("/api/orders/_stream")
+                        .param("status", "UNKNOWN"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/orders/_stream")
+                        .param("customerId", "not-a-uuid"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("POST /api/orders/_report - Should generate CSV report")
     void shouldGenerateCsvReport() throws Exception {
@@ -343,6 +388,55 @@ class OrderControllerIntegrationTest extends BaseConfigurationTest {
                 .andExpect(content().string(containsString("Order ID,Customer ID")));
     }
 
+    @Test
+    @DisplayName("POST /api/orders/_report/jobs - Should render report in background and serve it with Range support")
+    void shouldRenderReportJobAndServeFileWithRanges() throws Exception {
+        OrderReportFilterDto filterDto = OrderReportFilterDto.builder()
+                .fileType("csv")
+                .build();
+
+        String response = mockMvc.perform(post("/api/orders/_report/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(filterDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.fileType", is("CSV")))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("id").asText();
+
+        String status = "PENDING";
+        for (int attempt = 0; attempt < 100 && !status.equals("COMPLETED") && !status.equals("FAILED"); attempt++) {
+            Thread.sleep(50);
+            String job = mockMvc.perform(get("/api/orders/_report/jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(job).get("status").asText();
+        }
+        assertThat(status).isEqualTo("COMPLETED");
+
+        mockMvc.perform(get("/api/orders/_report/jobs/{id}", jobId))
+                .andExpect(jsonPath("$.rowsWritten", is(1)))
+                .andExpect(jsonPath("$.fileSize", greaterThan(0)));
+
+        mockMvc.perform(get("/api/orders/_report/jobs/{id}/file", jobId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Disposition", containsString(".csv")))
+                .andExpect(content().string(startsWith("Order ID,Customer ID")));
+
+        mockMvc.perform(get("/api/orders/_report/jobs/{id}/file", jobId)
+                        .header("Range", "bytes=6-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", startsWith("bytes 6-7/")))
+                .andExpect(content().string("ID"));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/_report/jobs/{id} - Should return 404 for unknown job")
+    void shouldReturnNotFoundForUnknownReportJob() throws Exception {
+        mockMvc.perform(get("/api/orders/_report/jobs/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("POST /api/orders/_report - Should generate XLSX report")
     void shouldGenerateXlsxReport() throws Exception {
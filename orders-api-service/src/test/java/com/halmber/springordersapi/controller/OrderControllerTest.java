@@ -1,7 +1,9 @@
 package com.halmber.springordersapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
 import com.halmber.springordersapi.BaseConfigurationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
 import com.halmber.springordersapi.model.OrderReportFilter;
 import com.halmber.springordersapi.model.dto.request.order.OrderCreateDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderEditDto;
@@ -9,26 +11,50 @@ import com.halmber.springordersapi.model.dto.request.order.OrderFilterDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderReportFilterDto;
 import com.halmber.springordersapi.model.dto.response.order.*;
 import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
 import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
+import com.halmber.springordersapi.model.enums.ReportJobStatusEnum;
 import com.halmber.springordersapi.model.enums.StatusEnum;
 import com.halmber.springordersapi.model.mapper.OrderMapper;
+import com.halmber.springordersapi.service.OrderImportErrorReportService;
+import com.halmber.springordersapi.service.OrderImportJobService;
 import com.halmber.springordersapi.service.OrderImportService;
 import com.halmber.springordersapi.service.OrderService;
+import com.halmber.springordersapi.service.OrderStreamService;
+import com.halmber.springordersapi.service.ReportCompressionService;
+import com.halmber.springordersapi.service.ReportCancellation;
+import com.halmber.springordersapi.service.ReportJobService;
+import com.halmber.springordersapi.service.ReportMetricsService;
 import com.halmber.springordersapi.service.ReportService;
+import com.halmber.springordersapi.service.exeption.OrderImportFailedException;
+import com.halmber.springordersapi.service.exeption.ReportNotReadyException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +64,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OrderController.class)
+@Import(ReportCompressionService.class)
 @DisplayName("OrderController Integration Tests")
 class OrderControllerTest extends BaseConfigurationTest {
 
@@ -59,6 +86,21 @@ class OrderControllerTest extends BaseConfigurationTest {
     @MockitoBean
     private OrderImportService orderImportService;
 
+    @MockitoBean
+    private ReportJobService reportJobService;
+
+    @MockitoBean
+    private OrderStreamService orderStreamService;
+
+    @MockitoBean
+    private ReportMetricsService reportMetricsService;
+
+    @MockitoBean
+    private OrderImportJobService orderImportJobService;
+
+    @MockitoBean
+    private OrderImportErrorReportService orderImportErrorReportService;
+
     @Test
     @DisplayName("GET /api/orders - Should return paginated list of orders")
     void shouldReturnPaginatedListOfOrders() throws Exception {
@@ -406,8 +448,7 @@ class OrderControllerTest extends BaseConfigurationTest {
                 .fileType(ReportFileTypeEnum.CSV.name().toLowerCase())
                 .build();
         OrderReportFilter filter = OrderReportFilter.builder()
-                .customerId(customerId)
-                .status(StatusEnum.NEW)
+                .criteria(OrderCriteria.builder().customerId(customerId).status(StatusEnum.NEW).build())
                 .fileType(ReportFileTypeEnum.CSV)
                 .build();
 
@@ -416,10 +457,10 @@ class OrderControllerTest extends BaseConfigurationTest {
         when(mapper.toOrderReportFilter(any())).thenReturn(filter);
 
         doNothing().when(reportService).generateReport(
-                any(UUID.class),
-                any(StatusEnum.class),
-                any(),
+                any(OrderCriteria.class),
                 any(ReportFileTypeEnum.class),
+                any(),
+                any(),
                 any()
         );
 
@@ -433,14 +474,72 @@ class OrderControllerTest extends BaseConfigurationTest {
                 .andExpect(header().string("Content-Type", containsString("text/csv")));
 
         verify(reportService).generateReport(
-                any(UUID.class),
-                any(StatusEnum.class),
-                any(),
+                any(OrderCriteria.class),
                 eq(ReportFileTypeEnum.CSV),
+                any(),
+                any(),
                 any()
         );
     }
 
+    @Test
+    @DisplayName("POST /api/orders/_report - Should compress CSV report when client accepts it")
+    void shouldCompressCsvReportWithNegotiatedEncoding() throws Exception {
+        OrderReportFilter filter = OrderReportFilter.builder()
+                .fileType(ReportFileTypeEnum.CSV)
+                .build();
+        when(mapper.toOrderReportFilter(any())).thenReturn(filter);
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("header\nrow\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).generateReport(any(), any(), any(), any(), any());
+
+        MvcResult result = mockMvc.perform(post("/api/orders/_report")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8, zstd;q=0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Content-Disposition", containsString(".csv\"")))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("header\nrow\n");
+        }
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/_report - Should download compressed file when compression is requested")
+    void shouldDownloadCompressedReportFile() throws Exception {
+        OrderReportFilter filter = OrderReportFilter.builder()
+                .fileType(ReportFileTypeEnum.CSV)
+                .compression(ReportCompressionEnum.ZSTD)
+                .build();
+        when(mapper.toOrderReportFilter(any())).thenReturn(filter);
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("header\nrow\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).generateReport(any(), any(), any(), any(), any());
+
+        MvcResult result = mockMvc.perform(post("/api/orders/_report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"compression\": \"zstd\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Content-Type", "application/zstd"))
+                .andExpect(header().string("Content-Disposition", containsString(".csv.zst\"")))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (InputStream inputStream = new ZstdInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("header\nrow\n");
+        }
+    }
+
     @Test
     @DisplayName("POST /api/orders/_report - Should generate XLSX report")
     void shouldGenerateXlsxReport() throws Exception {
@@ -452,17 +551,15 @@ class OrderControllerTest extends BaseConfigurationTest {
 
         OrderReportFilter filter = OrderReportFilter.builder()
                 .fileType(ReportFileTypeEnum.XLSX)
-                .customerId(customerId)
-                .status(null)
-                .paymentMethod(null)
+                .criteria(OrderCriteria.builder().customerId(customerId).build())
                 .build();
 
         when(mapper.toOrderReportFilter(any())).thenReturn(filter);
         doNothing().when(reportService).generateReport(
                 any(),
+                any(ReportFileTypeEnum.class),
                 any(),
                 any(),
-                any(ReportFileTypeEnum.class),
                 any()
         );
 
@@ -475,9 +572,9 @@ class OrderControllerTest extends BaseConfigurationTest {
 
         verify(reportService).generateReport(
                 any(),
+                eq(ReportFileTypeEnum.XLSX),
                 any(),
                 any(),
-                eq(ReportFileTypeEnum.XLSX),
                 any()
         );
     }
@@ -493,9 +590,7 @@ class OrderControllerTest extends BaseConfigurationTest {
 
         OrderReportFilter filter = OrderReportFilter.builder()
                 .fileType(ReportFileTypeEnum.CSV)
-                .customerId(customerId)
-                .status(null)
-                .paymentMethod(null)
+                .criteria(OrderCriteria.builder().customerId(customerId).build())
                 .build();
 
         when(mapper.toOrderReportFilter(any())).thenReturn(filter);
@@ -509,6 +604,107 @@ class OrderControllerTest extends BaseConfigurationTest {
                 .hasRootCauseMessage("Report generation failed");
 
         verify(reportService).generateReport(any(), any(), any(), any(), any());
+        verify(reportMetricsService, never()).recordAbandoned(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/_report - Should record report abandoned by the client")
+    void shouldRecordAbandonedReport() throws Exception {
+        OrderReportFilter filter = OrderReportFilter.builder()
+                .fileType(ReportFileTypeEnum.CSV)
+                .build();
+        when(mapper.toOrderReportFilter(any())).thenReturn(filter);
+        doAnswer(invocation -> {
+            AtomicLong rowsWritten = invocation.getArgument(3);
+            ReportCancellation cancellation = invocation.getArgument(4);
+            rowsWritten.set(42);
+            cancellation.cancel();
+            throw new IOException("Broken pipe");
+        }).when(reportService).generateReport(any(), any(), any(), any(), any());
+
+        mockMvc.perform(post("/api/orders/_report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk());
+
+        verify(reportMetricsService).recordAbandoned(ReportFileTypeEnum.CSV, 42);
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/_report/jobs - Should accept report job")
+    void shouldAcceptReportJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        OrderReportFilterDto dto = OrderReportFilterDto.builder()
+                .fileType("xlsx")
+                .build();
+        OrderReportFilter filter = OrderReportFilter.builder()
+                .fileType(ReportFileTypeEnum.XLSX)
+                .build();
+
+        when(mapper.toOrderReportFilter(any())).thenReturn(filter);
+        when(reportJobService.submit(filter)).thenReturn(ReportJobResponseDto.builder()
+                .id(jobId)
+                .status(ReportJobStatusEnum.PENDING)
+                .fileType(ReportFileTypeEnum.XLSX)
+                .build());
+
+        mockMvc.perform(post("/api/orders/_report/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.rowsWritten").value(0));
+
+        verify(reportService, never()).generateReport(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/_report/jobs - Should return 503 when job queue is full")
+    void shouldRejectReportJobWhenQueueIsFull() throws Exception {
+        when(mapper.toOrderReportFilter(any())).thenReturn(OrderReportFilter.builder().build());
+        when(reportJobService.submit(any())).thenThrow(new TaskRejectedException("Too many report jobs in progress"));
+
+        mockMvc.perform(post("/api/orders/_report/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Too many report jobs in progress"));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/_report/jobs/{id} - Should return 404 for unknown job")
+    void shouldReturnNotFoundForUnknownReportJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(reportJobService.getJob(jobId))
+                .thenThrow(new IllegalStateException("Report job with id '%s' not found".formatted(jobId)));
+
+        mockMvc.perform(get("/api/orders/_report/jobs/{id}", jobId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/_report/jobs/{id}/file - Should return 409 while job is running")
+    void shouldReturnConflictForUnfinishedReportJobFile() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(reportJobService.getCompletedJob(jobId))
+                .thenThrow(new ReportNotReadyException("Report job '%s' is RUNNING".formatted(jobId)));
+
+        mockMvc.perform(get("/api/orders/_report/jobs/{id}/file", jobId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", containsString("RUNNING")));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/upload/errors/{id} - Should return 404 for unknown or expired report")
+    void shouldReturnNotFoundForUnknownImportErrorReport() throws Exception {
+        UUID reportId = UUID.randomUUID();
+        when(orderImportErrorReportService.getReport(reportId))
+                .thenThrow(new IllegalStateException("Import error report with id '%s' not found".formatted(reportId)));
+
+        mockMvc.perform(get("/api/orders/upload/errors/{id}", reportId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("not found")));
     }
 
     @Test
@@ -640,4 +836,22 @@ class OrderControllerTest extends BaseConfigurationTest {
 
         verify(orderImportService).importOrders(any());
     }
+
+    @Test
+    @DisplayName("POST /api/orders/upload?chunked=true - Should return the checkpoint of a failed import, not its cause")
+    void shouldHideCauseOfFailedChunkedImport() throws Exception {
+        UUID checkpointId = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("file", "orders.json", "application/json", "[]".getBytes());
+
+        when(orderImportService.importOrdersInChunks(any(MultipartFile.class), eq(null)))
+                .thenThrow(new OrderImportFailedException(checkpointId, 10000,
+                        new IllegalStateException("ERROR: duplicate key value violates unique constraint \"orders_pkey\"")));
+
+        mockMvc.perform(multipart("/api/orders/upload")
+                        .file(file)
+                        .param("chunked", "true"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message", containsString("resumeFrom=" + checkpointId)))
+                .andExpect(jsonPath("$.message", not(containsString("orders_pkey"))));
+    }
 }
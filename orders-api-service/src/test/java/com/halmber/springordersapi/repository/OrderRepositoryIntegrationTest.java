@@ -1,22 +1,30 @@
 package com.halmber.springordersapi.repository;
 
 import com.halmber.springordersapi.BaseConfigurationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.dto.response.order.OrderShortResponseDto;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
 import com.halmber.springordersapi.model.enums.PaymentEnum;
 import com.halmber.springordersapi.model.enums.StatusEnum;
 import com.halmber.springordersapi.util.TestDataBuilder;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -72,9 +80,7 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         entityManager.clear();
 
         Page<Order> result = orderRepository.findByFilters(
-                customer1.getId(),
-                null,
-                null,
+                OrderCriteria.builder().customerId(customer1.getId()).build(),
                 PageRequest.of(0, 10)
         );
 
@@ -97,9 +103,7 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         entityManager.clear();
 
         Page<Order> result = orderRepository.findByFilters(
-                null,
-                StatusEnum.NEW,
-                null,
+                OrderCriteria.builder().status(StatusEnum.NEW).build(),
                 PageRequest.of(0, 10)
         );
 
@@ -127,9 +131,7 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         entityManager.clear();
 
         Page<Order> result = orderRepository.findByFilters(
-                null,
-                null,
-                PaymentEnum.CARD,
+                OrderCriteria.builder().paymentMethod(PaymentEnum.CARD).build(),
                 PageRequest.of(0, 10)
         );
 
@@ -157,9 +159,11 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         entityManager.clear();
 
         Page<Order> result = orderRepository.findByFilters(
-                customer1.getId(),
-                StatusEnum.NEW,
-                PaymentEnum.CARD,
+                OrderCriteria.builder()
+                        .customerId(customer1.getId())
+                        .status(StatusEnum.NEW)
+                        .paymentMethod(PaymentEnum.CARD)
+                        .build(),
                 PageRequest.of(0, 10)
         );
 
@@ -167,6 +171,65 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         assertThat(result.getContent().getFirst().getAmount()).isEqualTo(100.0);
     }
 
+    @Test
+    @DisplayName("Should find orders within an inclusive amount range")
+    void shouldFindOrdersByAmountRange() {
+        for (double amount : new double[]{99.99, 100.0, 500.0, 1000.0, 1000.01}) {
+            entityManager.persist(TestDataBuilder.createOrder(customer1, amount, StatusEnum.NEW));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Order> result = orderRepository.findByFilters(
+                OrderCriteria.builder().amountMin(100.0).amountMax(1000.0).build(),
+                PageRequest.of(0, 10)
+        );
+
+        assertThat(result.getContent()).extracting(Order::getAmount)
+                .containsExactlyInAnyOrder(100.0, 500.0, 1000.0);
+    }
+
+    @Test
+    @DisplayName("Should find orders created within a half-open time range")
+    void shouldFindOrdersByCreatedAtRange() {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-08T00:00:00Z");
+        List<Instant> createdAts = List.of(from.minusMillis(1), from, to.minusMillis(1), to);
+        for (Instant createdAt : createdAts) {
+            Order order = TestDataBuilder.createOrder(customer1, 100.0, StatusEnum.NEW);
+            entityManager.persistAndFlush(order);
+            entityManager.getEntityManager().createNativeQuery("UPDATE orders SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, createdAt)
+                    .setParameter(2, order.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+
+        OrderCriteria criteria = OrderCriteria.builder().createdFrom(from).createdTo(to).build();
+        List<OrderShortResponseDto> result;
+        try (var stream = orderRepository.streamShortByFilters(criteria)) {
+            result = stream.toList();
+        }
+
+        assertThat(result).extracting(OrderShortResponseDto::createdAt)
+                .containsExactly(to.minusMillis(1), from);
+        assertThat(orderRepository.findDataVersion(criteria).count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should find all orders when no filter is set")
+    void shouldFindAllOrdersWhenNoFilterIsSet() {
+        entityManager.persist(TestDataBuilder.createOrder(customer1, 100.0, StatusEnum.NEW));
+        entityManager.persist(TestDataBuilder.createOrder(customer2, 200.0, StatusEnum.DONE));
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Order> result = orderRepository.findByFilters(OrderCriteria.builder().build(), PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Should find all orders by stream filters without pagination")
     void shouldFindAllOrdersByFilters() {
@@ -181,9 +244,7 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         entityManager.clear();
 
         List<Order> result = orderRepository.streamByFilters(
-                null,
-                StatusEnum.NEW,
-                null
+                OrderCriteria.builder().status(StatusEnum.NEW).build()
         ).toList();
 
         assertThat(result).hasSize(2);
@@ -191,6 +252,28 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
                 .allMatch(order -> order.getStatus() == StatusEnum.NEW);
     }
 
+    @Test
+    @DisplayName("Should change data version when filtered orders change")
+    void shouldChangeDataVersionWhenOrdersChange() {
+        Order order1 = entityManager.persist(TestDataBuilder.createOrder(customer1, 100.0, StatusEnum.NEW));
+        entityManager.persist(TestDataBuilder.createOrder(customer1, 200.0, StatusEnum.PROCESSING));
+        entityManager.persist(TestDataBuilder.createOrder(customer2, 300.0, StatusEnum.NEW));
+        entityManager.flush();
+
+        OrderDataVersion version = orderRepository.findDataVersion(OrderCriteria.builder().status(StatusEnum.NEW).build());
+
+        assertThat(version.count()).isEqualTo(2);
+        assertThat(version.lastOrderUpdate()).isNotNull();
+        assertThat(version.lastCustomerUpdate()).isNotNull();
+
+        order1.setAmount(150.0);
+        entityManager.flush();
+
+        assertThat(orderRepository.findDataVersion(OrderCriteria.builder().status(StatusEnum.NEW).build())).isNotEqualTo(version);
+        assertThat(orderRepository.findDataVersion(OrderCriteria.builder().status(StatusEnum.CANCELED).build()))
+                .isEqualTo(new OrderDataVersion(0, null, null));
+    }
+
     @Test
     @DisplayName("Should handle pagination correctly")
     void shouldHandlePaginationCorrectly() {
@@ -202,10 +285,10 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         entityManager.clear();
 
         Page<Order> page1 = orderRepository.findByFilters(
-                customer1.getId(), null, null, PageRequest.of(0, 10)
+                OrderCriteria.builder().customerId(customer1.getId()).build(), PageRequest.of(0, 10)
         );
         Page<Order> page2 = orderRepository.findByFilters(
-                customer1.getId(), null, null, PageRequest.of(1, 10)
+                OrderCriteria.builder().customerId(customer1.getId()).build(), PageRequest.of(1, 10)
         );
 
         assertThat(page1.getContent()).hasSize(10);
@@ -213,5 +296,90 @@ class OrderRepositoryIntegrationTest extends BaseConfigurationTest {
         assertThat(page1.getTotalElements()).isEqualTo(25);
         assertThat(page1.getTotalPages()).isEqualTo(3);
     }
-}
 
+    @Test
+    @DisplayName("Should page through all orders with keyset cursor without duplicates")
+    void shouldPageThroughOrdersWithKeysetCursor() {
+        for (int i = 0; i < 25; i++) {
+            Order order = TestDataBuilder.createOrder(customer1, 100.0 + i, StatusEnum.NEW);
+            entityManager.persist(order);
+        }
+        entityManager.persist(TestDataBuilder.createOrder(customer2, 500.0, StatusEnum.NEW));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Order> collected = new ArrayList<>();
+        Instant afterCreatedAt = null;
+        UUID afterId = null;
+
+        List<Order> page;
+        do {
+            page = orderRepository.findByFiltersAfter(
+                    OrderCriteria.builder().customerId(customer1.getId()).build(), afterCreatedAt, afterId, Limit.of(10)
+            );
+            collected.addAll(page);
+
+            if (!page.isEmpty()) {
+                afterCreatedAt = page.getLast().getCreatedAt();
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == 10);
+
+        assertThat(collected).hasSize(25);
+        assertThat(collected).extracting(Order::getId).doesNotHaveDuplicates();
+        assertThat(collected)
+                .allMatch(order -> order.getCustomer().getId().equals(customer1.getId()));
+        assertThat(collected).extracting(Order::getCreatedAt)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    @DisplayName("Should select short order projection without loading entities")
+    void shouldSelectShortOrderProjection() {
+        Order order = TestDataBuilder.createOrder(customer1, 100.0, StatusEnum.NEW);
+        entityManager.persist(order);
+        entityManager.persist(TestDataBuilder.createOrder(customer2, 200.0, StatusEnum.DONE));
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<OrderShortResponseDto> result = orderRepository.findShortByFilters(
+                OrderCriteria.builder().status(StatusEnum.NEW).build(), PageRequest.of(0, 10)
+        );
+
+        assertThat(result.getContent()).hasSize(1);
+        OrderShortResponseDto dto = result.getContent().getFirst();
+        assertThat(dto.id()).isEqualTo(order.getId());
+        assertThat(dto.amount()).isEqualTo(100.0);
+        assertThat(dto.paymentMethod()).isEqualTo(PaymentEnum.CARD);
+        assertThat(dto.createdAt()).isNotNull();
+        assertThat(dto.customer().id()).isEqualTo(customer1.getId());
+        assertThat(dto.customer().fullName()).isEqualTo("John Doe");
+        assertThat(dto.customer().email()).isEqualTo("john@test.com");
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should stream short order projection newest first without loading entities")
+    void shouldStreamShortOrderProjection() {
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(TestDataBuilder.createOrder(customer1, 100.0 + i, StatusEnum.NEW));
+        }
+        entityManager.persist(TestDataBuilder.createOrder(customer2, 200.0, StatusEnum.NEW));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OrderShortResponseDto> result;
+        OrderCriteria criteria = OrderCriteria.builder().customerId(customer1.getId()).status(StatusEnum.NEW).build();
+        try (var stream = orderRepository.streamShortByFilters(criteria)) {
+            result = stream.toList();
+        }
+
+        assertThat(result).hasSize(5);
+        assertThat(result).allMatch(dto -> dto.customer().id().equals(customer1.getId()));
+        assertThat(result).extracting(OrderShortResponseDto::createdAt)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+}
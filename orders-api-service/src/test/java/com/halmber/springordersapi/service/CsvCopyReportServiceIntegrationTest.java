@@ -0,0 +1,124 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.BasePostgresIntegrationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.repository.OrderRepository;
+import com.halmber.springordersapi.util.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("CsvCopyReportService Integration Tests")
+class CsvCopyReportServiceIntegrationTest extends BasePostgresIntegrationTest {
+    private static final double[] AMOUNTS = {
+            0.0, 250.0, 100.5, 0.001, 9.99E-4, 1.5E-4, 1.0E-4, 1.5E-5, 1.0E-300,
+            9999999.99, 1.0E7, -1.0E7, 1.23456789E7, 1.0E15, 2.5E20, Double.MAX_VALUE
+    };
+
+    @Autowired
+    private CsvCopyReportService csvCopyReportService;
+
+    @Autowired
+    private CsvReportService csvReportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EmailMessageProducerService emailMessageProducerService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(TestDataBuilder.createCustomer(
+                "Copy", "Report", "copy-report-" + UUID.randomUUID() + "@test.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    @DisplayName("Should format amounts like the entity streaming path on both sides of Java's plain notation range")
+    void shouldFormatAmountsLikeEntityPath() {
+        OffsetDateTime createdAt = OffsetDateTime.now(ZoneOffset.UTC).minusHours(1);
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO orders (id, customer_id, amount, status, payment_method, created_at, updated_at)
+                    VALUES (?, ?, ?, 'NEW', 'CARD', ?, ?)
+                    """, UUID.randomUUID(), customer.getId(), AMOUNTS[i], createdAt.minusSeconds(i), createdAt);
+        }
+        OrderCriteria criteria = OrderCriteria.builder().customerId(customer.getId()).build();
+
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        csvCopyReportService.generateReport(criteria, copied, new AtomicLong(), new ReportCancellation());
+
+        StringWriter streamed = new StringWriter();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<Order> orders = orderRepository.streamByFilters(criteria)) {
+                csvReportService.generateReport(orders, streamed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThat(copied.toString(StandardCharsets.UTF_8)).isEqualTo(streamed.toString());
+        assertThat(copied.toString(StandardCharsets.UTF_8)).contains(",1.0E7,", ",1.5E-5,", ",2.5E20,", ",9.99E-4,");
+    }
+
+    @Test
+    @DisplayName("Should print any double like Double.toString")
+    void shouldPrintDoublesLikeJava() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isFinite(value) || Math.abs(value) < Double.MIN_NORMAL) {
+                continue;
+            }
+
+            assertThat(jdbcTemplate.queryForObject("SELECT java_double_text(?::float8)", String.class, value))
+                    .isEqualTo(Double.toString(value));
+        }
+
+        for (double value : new double[]{-0.0, Double.NaN, Double.NEGATIVE_INFINITY}) {
+            assertThat(jdbcTemplate.queryForObject("SELECT java_double_text(?::float8)", String.class, value))
+                    .isEqualTo(Double.toString(value));
+        }
+    }
+}
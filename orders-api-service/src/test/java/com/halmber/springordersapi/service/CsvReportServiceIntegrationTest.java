@@ -1,6 +1,7 @@
 package com.halmber.springordersapi.service;
 
 import com.halmber.springordersapi.BaseConfigurationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
 import com.halmber.springordersapi.model.enums.PaymentEnum;
@@ -74,7 +75,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldCreateCsvWithHeaders() throws Exception {
         StringWriter writer = new StringWriter();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -90,7 +91,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldContainOrderData() throws Exception {
         StringWriter writer = new StringWriter();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -114,7 +115,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldHaveCorrectNumberOfLines() throws Exception {
         StringWriter writer = new StringWriter();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -130,7 +131,8 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldFilterByStatus() throws Exception {
         StringWriter writer = new StringWriter();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, StatusEnum.NEW, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(
+                OrderCriteria.builder().status(StatusEnum.NEW).build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -148,7 +150,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
         StringWriter writer = new StringWriter();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                null, null, PaymentEnum.CARD)) {
+                OrderCriteria.builder().paymentMethod(PaymentEnum.CARD).build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -182,7 +184,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
         StringWriter writer = new StringWriter();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                testCustomer.getId(), null, null)) {
+                OrderCriteria.builder().customerId(testCustomer.getId()).build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -216,7 +218,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
         StringWriter writer = new StringWriter();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                customerWithComma.getId(), null, null)) {
+                OrderCriteria.builder().customerId(customerWithComma.getId()).build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -233,7 +235,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
 
         // Filter that returns no results
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                null, StatusEnum.CANCELED, null)) {
+                OrderCriteria.builder().status(StatusEnum.CANCELED).build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -260,7 +262,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
 
         StringWriter writer = new StringWriter();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -276,7 +278,7 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldFormatDateCorrectly() throws Exception {
         StringWriter writer = new StringWriter();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -292,7 +294,11 @@ class CsvReportServiceIntegrationTest extends BaseConfigurationTest {
         StringWriter writer = new StringWriter();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                testCustomer.getId(), StatusEnum.NEW, PaymentEnum.CARD)) {
+                OrderCriteria.builder()
+                        .customerId(testCustomer.getId())
+                        .status(StatusEnum.NEW)
+                        .paymentMethod(PaymentEnum.CARD)
+                        .build())) {
             csvReportService.generateReport(stream, writer);
         }
 
@@ -0,0 +1,123 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CsvRowWriter} with the previous {@link LegacyCsvRowWriter} on a CSV export of {@code rows} orders.
+ * Rows are UTF-8 encoded into a discarding stream, so the score covers formatting and encoding only.
+ *
+ * <p>Not a test: run it explicitly, {@code gc.alloc.rate.norm} shows the allocated bytes per export:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.halmber.springordersapi.service.CsvRowWriterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class CsvRowWriterBenchmark {
+    private static final int DISTINCT_ORDERS = 10_000;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Kyiv");
+
+    @Param("1000000")
+    private int rows;
+
+    private Order[] orders;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        orders = new Order[DISTINCT_ORDERS];
+
+        // Reports are sorted by creation time; allocating in that order keeps memory layout like a streamed result set
+        long[] createdAt = random.longs(DISTINCT_ORDERS, 1_700_000_000L, 1_750_000_000L).sorted().toArray();
+
+        for (int i = 0; i < DISTINCT_ORDERS; i++) {
+            Customer customer = Customer.builder()
+                    .id(UUID.randomUUID())
+                    .firstName(i % 50 == 0 ? "Doe, Jr." : "John" + i)
+                    .lastName("Doe" + random.nextInt(1000))
+                    .email("user" + i + "@example.com")
+                    .build();
+
+            orders[i] = Order.builder()
+                    .id(UUID.randomUUID())
+                    .customer(customer)
+                    .amount(random.nextInt(1_000_000) / 100.0)
+                    .status(StatusEnum.values()[random.nextInt(StatusEnum.values().length)])
+                    .paymentMethod(PaymentEnum.values()[random.nextInt(PaymentEnum.values().length)])
+                    .createdAt(Instant.ofEpochSecond(createdAt[DISTINCT_ORDERS - 1 - i]))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public void legacyWriter() throws IOException {
+        LegacyCsvRowWriter rowWriter = new LegacyCsvRowWriter(ZONE);
+
+        try (Writer writer = newWriter()) {
+            for (int i = 0; i < rows; i++) {
+                rowWriter.writeOrderRow(writer, orders[i % DISTINCT_ORDERS]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void bufferWriter() throws IOException {
+        try (Writer writer = newWriter()) {
+            CsvRowWriter rowWriter = new CsvRowWriter(writer, ZONE);
+            for (int i = 0; i < rows; i++) {
+                rowWriter.writeOrderRow(orders[i % DISTINCT_ORDERS]);
+            }
+            rowWriter.flush();
+        }
+    }
+
+    /**
+     * Same writer chain as {@code ReportService}.
+     */
+    private Writer newWriter() {
+        return new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvRowWriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
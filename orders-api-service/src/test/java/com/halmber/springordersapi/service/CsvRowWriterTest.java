@@ -0,0 +1,130 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CsvRowWriter Unit Tests")
+class CsvRowWriterTest {
+    private static final String[] NAMES = {"John", "O'Brien", "Doe, Jr.", "The \"Boss\"", "Multi\nLine", "Олена", ""};
+    private static final double[] AMOUNTS = {0.01, 0.1, 1, 9.99, 100.5, 250, 1234.56, 9_999_999.99, 1e7, 0.005, 1.0 / 3, 1e-4, -42.5};
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "Europe/Kyiv", "America/New_York", "+05:30", "Asia/Kathmandu"})
+    @DisplayName("Should write the same rows as the legacy writer in every time zone")
+    void shouldMatchLegacyWriter(String zoneId) throws Exception {
+        ZoneId zone = ZoneId.of(zoneId);
+        Random random = new Random(42);
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        LegacyCsvRowWriter legacyWriter = new LegacyCsvRowWriter(zone);
+        CsvRowWriter rowWriter = new CsvRowWriter(actual, zone);
+
+        for (int i = 0; i < 20_000; i++) {
+            Order order = randomOrder(random);
+            legacyWriter.writeOrderRow(expected, order);
+            rowWriter.writeOrderRow(order);
+        }
+        rowWriter.flush();
+
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("Should write the same dates as the legacy writer around offset transitions")
+    void shouldMatchLegacyWriterAroundOffsetTransitions() throws Exception {
+        ZoneId zone = ZoneId.of("Europe/Kyiv");
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        LegacyCsvRowWriter legacyWriter = new LegacyCsvRowWriter(zone);
+        CsvRowWriter rowWriter = new CsvRowWriter(actual, zone);
+
+        // Descending, as reports are sorted, then ascending
+        long transition = Instant.parse("2024-10-27T01:00:00Z").getEpochSecond();
+        for (long second : new long[]{transition + 1, transition, transition - 1, transition, transition + 1}) {
+            Order order = order("John", "Doe", "john@example.com", 1, PaymentEnum.CARD, Instant.ofEpochSecond(second));
+            legacyWriter.writeOrderRow(expected, order);
+            rowWriter.writeOrderRow(order);
+        }
+        rowWriter.flush();
+
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("Should quote and escape names with quotes and commas")
+    void shouldQuoteAndEscapeSpecialCharacters() throws Exception {
+        StringWriter writer = new StringWriter();
+        CsvRowWriter rowWriter = new CsvRowWriter(writer, ZoneId.of("UTC"));
+        Order order = order("Jane \"JJ\"", "Smith, PhD", "jane@example.com", 100.5, PaymentEnum.CARD,
+                Instant.parse("2024-02-29T23:59:59Z"));
+
+        rowWriter.writeOrderRow(order);
+        rowWriter.flush();
+
+        assertThat(writer.toString()).isEqualTo(
+                order.getId() + "," + order.getCustomer().getId() +
+                        ",\"Jane \"\"JJ\"\" Smith, PhD\",jane@example.com,100.5,NEW,CARD,2024-02-29 23:59:59\n");
+    }
+
+    @Test
+    @DisplayName("Should write an empty payment method when it is missing")
+    void shouldWriteEmptyPaymentMethodWhenMissing() throws Exception {
+        StringWriter writer = new StringWriter();
+        CsvRowWriter rowWriter = new CsvRowWriter(writer, ZoneId.of("UTC"));
+
+        rowWriter.writeOrderRow(order("John", "Doe", "john@example.com", 250, null, Instant.EPOCH));
+        rowWriter.flush();
+
+        assertThat(writer.toString()).endsWith(",250.0,NEW,,1970-01-01 00:00:00\n");
+    }
+
+    private Order randomOrder(Random random) {
+        double amount = random.nextBoolean()
+                ? AMOUNTS[random.nextInt(AMOUNTS.length)]
+                : random.nextInt(100_000_000) / 100.0;
+        // 1900 - 2100
+        Instant createdAt = Instant.ofEpochSecond(random.nextLong(-2_208_988_800L, 4_102_444_800L));
+
+        return order(
+                NAMES[random.nextInt(NAMES.length)],
+                NAMES[random.nextInt(NAMES.length)],
+                random.nextInt(10) == 0 ? "a,b@example.com" : "user" + random.nextInt() + "@example.com",
+                amount,
+                PaymentEnum.values()[random.nextInt(PaymentEnum.values().length)],
+                createdAt
+        );
+    }
+
+    private Order order(String firstName, String lastName, String email, double amount,
+                        PaymentEnum paymentMethod, Instant createdAt) {
+        Customer customer = Customer.builder()
+                .id(UUID.randomUUID())
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .build();
+
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .customer(customer)
+                .amount(amount)
+                .status(StatusEnum.NEW)
+                .paymentMethod(paymentMethod)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Order;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The row writer {@link CsvReportService} used before {@link CsvRowWriter}.
+ * Kept as the reference for output parity tests and as the benchmark baseline.
+ */
+class LegacyCsvRowWriter {
+    private final DateTimeFormatter dateFormatter;
+
+    LegacyCsvRowWriter(ZoneId zone) {
+        this.dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(zone);
+    }
+
+    void writeOrderRow(Writer writer, Order order) throws IOException {
+        String[] values = {
+                escapeCsv(order.getId().toString()),
+                escapeCsv(order.getCustomer().getId().toString()),
+                escapeCsv(order.getCustomer().getFullName()),
+                escapeCsv(order.getCustomer().getEmail()),
+                String.valueOf(order.getAmount()),
+                escapeCsv(order.getStatus().name()),
+                escapeCsv(order.getPaymentMethod().name()),
+                escapeCsv(dateFormatter.format(order.getCreatedAt()))
+        };
+
+        writer.write(String.join(",", values));
+        writer.write("\n");
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,204 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.BasePostgresIntegrationTest;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.util.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("OrderCopyImportService Integration Tests")
+class OrderCopyImportServiceIntegrationTest extends BasePostgresIntegrationTest {
+
+    @Autowired
+    private OrderCopyImportService copyImportService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EmailMessageProducerService emailMessageProducerService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(TestDataBuilder.createCustomer(
+                "Copy", "Import", "copy-" + UUID.randomUUID() + "@test.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    @DisplayName("Should insert the staged orders of existing customers and report the lines of unknown ones")
+    void shouldLoadOrders() {
+        Customer unknownCustomer = Customer.builder().id(UUID.randomUUID()).build();
+        String escapedId = "LOAD\t1\\a\nb\r";
+        Order withoutPaymentMethod = order(null, 15.0);
+        withoutPaymentMethod.setPaymentMethod(null);
+
+        OrderCopyImportService.Result result = load(
+                order("LOAD-1", 10.0),
+                order(unknownCustomer, "LOAD-2", 20.0),
+                order(escapedId, 30.0),
+                withoutPaymentMethod,
+                order("LOAD-DUP", 40.0),
+                order(unknownCustomer, null, 50.0),
+                order("LOAD-DUP", 45.0));
+
+        assertThat(result.written()).isEqualTo(4);
+        assertThat(result.rejected()).containsExactly(
+                new OrderCopyImportService.RejectedLine(3, unknownCustomer.getId()),
+                new OrderCopyImportService.RejectedLine(7, unknownCustomer.getId()));
+
+        // Creation times follow the file order, the last line of a duplicate external id wins
+        List<Map<String, Object>> orders = jdbcTemplate.queryForList("""
+                SELECT external_id, amount, status, payment_method FROM orders
+                WHERE customer_id = ? ORDER BY created_at
+                """, customer.getId());
+        assertThat(orders).extracting(row -> row.get("external_id"))
+                .containsExactly("LOAD-1", escapedId, null, "LOAD-DUP");
+        assertThat(orders).extracting(row -> row.get("amount")).containsExactly(10.0, 30.0, 15.0, 45.0);
+        assertThat(orders).extracting(row -> row.get("status")).containsOnly("NEW");
+        assertThat(orders).extracting(row -> row.get("payment_method")).containsExactly("CARD", "CARD", null, "CARD");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM order_external_ids WHERE external_id IN (?, 'LOAD-DUP')", Integer.class,
+                escapedId)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should update the order of a concurrent import that inserted the same new external id first")
+    void shouldUpdateOrderOfConcurrentImport() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstLoaded = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            try (OrderCopyImportService.CopyLoad load = copyImportService.begin()) {
+                load.write(1, order("C-RACE", 10.0));
+                int written = load.finish().written();
+                firstLoaded.countDown();
+                await(commitFirst);
+                return written;
+            }
+        }));
+        await(firstLoaded);
+
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            try (OrderCopyImportService.CopyLoad load = copyImportService.begin()) {
+                load.write(1, order("C-RACE", 20.0));
+                load.write(2, order("C-OTHER", 30.0));
+                load.write(3, order(null, 40.0));
+                return load.finish().written();
+            }
+        }));
+        waitUntilBlockedOnLock();
+        commitFirst.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT amount FROM orders WHERE external_id = 'C-RACE'", Double.class)).containsExactly(20.0);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM orders o JOIN order_external_ids e ON e.order_id = o.id
+                WHERE e.external_id IN ('C-RACE', 'C-OTHER')
+                """, Integer.class)).isEqualTo(2);
+        // The order without an external id isn't inserted again by the retry
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE customer_id = ? AND external_id IS NULL", Integer.class,
+                customer.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write the earlier line of an external id when the later one has an unknown customer")
+    void shouldIgnoreLaterLineOfUnknownCustomer() {
+        UUID unknownCustomerId = UUID.randomUUID();
+
+        OrderCopyImportService.Result result = load(
+                order("DUP-X", 10.0),
+                order(Customer.builder().id(unknownCustomerId).build(), "DUP-X", 20.0));
+
+        assertThat(result.written()).isEqualTo(1);
+        assertThat(result.rejected()).containsExactly(new OrderCopyImportService.RejectedLine(3, unknownCustomerId));
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT amount FROM orders WHERE external_id = 'DUP-X'", Double.class)).containsExactly(10.0);
+    }
+
+    /**
+     * Loads the orders in a transaction of their own, numbered from line 2 like the records of a file.
+     */
+    private OrderCopyImportService.Result load(Order... orders) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            try (OrderCopyImportService.CopyLoad load = copyImportService.begin()) {
+                for (int i = 0; i < orders.length; i++) {
+                    load.write(i + 2, orders[i]);
+                }
+                return load.finish();
+            }
+        });
+    }
+
+    private Order order(String externalId, double amount) {
+        return order(customer, externalId, amount);
+    }
+
+    private static Order order(Customer customer, String externalId, double amount) {
+        return Order.builder()
+                .externalId(externalId)
+                .customer(customer)
+                .amount(amount)
+                .status(StatusEnum.NEW)
+                .paymentMethod(PaymentEnum.CARD)
+                .build();
+    }
+
+    private void waitUntilBlockedOnLock() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND wait_event_type = 'Lock'
+                """, Integer.class) == 0) {
+            assertThat(System.nanoTime()).as("second import waiting for the first one").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderImportErrorReportServiceTest {
+    @TempDir
+    private Path directory;
+
+    private OrderImportErrorReportService errorReportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        errorReportService = new OrderImportErrorReportService(new ObjectMapper(), directory, Duration.ofHours(1));
+        errorReportService.init();
+    }
+
+    @Test
+    @DisplayName("Should write one error per line and serve the errors flushed so far")
+    void shouldWriteErrorsAsNdjson() throws Exception {
+        UUID id;
+        try (OrderImportErrorReportService.Report report = errorReportService.create()) {
+            id = report.getId();
+            report.write(new OrderImportResultDto.ImportError(3, "Parse error", "Unexpected \"token\"\nat 1:2"));
+            report.flush();
+
+            assertThat(Files.readAllLines(errorReportService.getReport(id))).containsExactly(
+                    "{\"lineNumber\":3,\"reason\":\"Parse error\",\"details\":\"Unexpected \\\"token\\\"\\nat 1:2\"}");
+
+            report.write(new OrderImportResultDto.ImportError(7, "Invalid amount", null));
+        }
+
+        assertThat(Files.readAllLines(errorReportService.getReport(id))).hasSize(2)
+                .last().isEqualTo("{\"lineNumber\":7,\"reason\":\"Invalid amount\",\"details\":null}");
+    }
+
+    @Test
+    @DisplayName("Should remove reports older than the TTL and leave other files alone")
+    void shouldPurgeExpiredReports() throws Exception {
+        UUID expired;
+        try (OrderImportErrorReportService.Report report = errorReportService.create()) {
+            expired = report.getId();
+        }
+        Files.setLastModifiedTime(errorReportService.getReport(expired), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path other = Files.writeString(directory.resolve("notes.ndjson"), "{}");
+        Files.setLastModifiedTime(other, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        UUID recent;
+        try (OrderImportErrorReportService.Report report = errorReportService.create()) {
+            recent = report.getId();
+        }
+
+        assertThatThrownBy(() -> errorReportService.getReport(expired))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not found");
+        assertThat(errorReportService.getReport(recent)).exists();
+        assertThat(other).exists();
+    }
+}
@@ -0,0 +1,289 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderImportProgress;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportJobResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+import com.halmber.springordersapi.model.enums.OrderImportJobStatusEnum;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.service.exeption.OrderImportFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class OrderImportJobServiceTest {
+    private static final String ORDERS = "[{\"customerId\": \"c1\"}, {\"customerId\": \"c2\"}]";
+
+    @Mock
+    private OrderImportService orderImportService;
+
+    private final ReportCompressionService compressionService =
+            new ReportCompressionService(4, 3, DataSize.ofKilobytes(64));
+
+    @TempDir
+    private Path directory;
+
+    private OrderImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importJobService = newService(DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should store the upload on disk, import it in chunks and report progress")
+    void shouldImportUploadedFile() throws Exception {
+        UUID checkpointId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            InputStreamSource source = invocation.getArgument(0);
+            assertThat(new String(source.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(ORDERS);
+
+            OrderImportProgress progress = invocation.getArgument(4);
+            progress.setCheckpointId(checkpointId);
+            progress.update(2, 1, List.of(OrderImportResultDto.ImportError.builder()
+                    .lineNumber(2).reason("Customer not found").build()));
+            return OrderImportResultDto.builder().totalRecords(2).successfulImports(1).failedImports(1)
+                    .checkpointId(checkpointId).build();
+        }).when(orderImportService).importOrdersInChunks(any(), eq(OrderImportFormatEnum.JSON), eq(hash(ORDERS)), isNull(), any());
+
+        OrderImportJobResponseDto submitted = importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null);
+        assertThat(submitted.fileSize()).isEqualTo(ORDERS.length());
+
+        OrderImportJobResponseDto finished = awaitFinished(submitted.id());
+        assertThat(finished.status()).isEqualTo(OrderImportJobStatusEnum.COMPLETED);
+        assertThat(finished.recordsProcessed()).isEqualTo(2);
+        assertThat(finished.successfulImports()).isEqualTo(1);
+        assertThat(finished.failedImports()).isEqualTo(1);
+        assertThat(finished.errors()).extracting(OrderImportResultDto.ImportError::lineNumber).containsExactly(2);
+        assertThat(finished.checkpointId()).isEqualTo(checkpointId);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should report the checkpoint of a failed import to resume it")
+    void shouldFailJobWithCheckpoint() throws Exception {
+        UUID checkpointId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            OrderImportProgress progress = invocation.getArgument(4);
+            progress.setCheckpointId(checkpointId);
+            throw new OrderImportFailedException(checkpointId, 0, new IllegalStateException("Database is down"));
+        }).when(orderImportService).importOrdersInChunks(any(), any(), any(), eq(checkpointId), any());
+
+        OrderImportJobResponseDto finished = awaitFinished(
+                importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, checkpointId).id());
+
+        assertThat(finished.status()).isEqualTo(OrderImportJobStatusEnum.FAILED);
+        assertThat(finished.error()).contains("resumeFrom=" + checkpointId).doesNotContain("Database is down");
+        assertThat(finished.checkpointId()).isEqualTo(checkpointId);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should reject empty and too large uploads without leaving files")
+    void shouldRejectInvalidUploads() {
+        assertThatThrownBy(() -> importJobService.submit(body(""), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("empty");
+        assertThatThrownBy(() -> importJobService.submit(
+                new ByteArrayInputStream(new byte[2 * 1024 * 1024]), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum allowed size of 1MB");
+
+        assertThat(directory).isEmptyDirectory();
+        verifyNoInteractions(orderImportService);
+    }
+
+    @Test
+    @DisplayName("Should store compressed uploads decompressed and limit their decompressed size")
+    void shouldDecompressUploads() throws Exception {
+        CountDownLatch imported = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            InputStreamSource source = invocation.getArgument(0);
+            assertThat(new String(source.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(ORDERS);
+            imported.countDown();
+            return OrderImportResultDto.builder().build();
+        }).when(orderImportService).importOrdersInChunks(any(), eq(OrderImportFormatEnum.JSON), eq(hash(ORDERS)), isNull(), any());
+
+        OrderImportJobResponseDto submitted = importJobService.submit(compressed(ORDERS.getBytes(StandardCharsets.UTF_8),
+                ReportCompressionEnum.ZSTD), OrderImportFormatEnum.JSON, ReportCompressionEnum.ZSTD, null);
+        assertThat(submitted.fileSize()).isEqualTo(ORDERS.length());
+        assertThat(imported.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 2MB of zeros compress to a few KB
+        assertThatThrownBy(() -> importJobService.submit(compressed(new byte[2 * 1024 * 1024], ReportCompressionEnum.GZIP),
+                OrderImportFormatEnum.JSON, ReportCompressionEnum.GZIP, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum allowed size of 1MB");
+    }
+
+    @Test
+    @DisplayName("Should reject jobs when worker and queue are busy")
+    void shouldRejectJobsWhenBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return OrderImportResultDto.builder().build();
+        }).when(orderImportService).importOrdersInChunks(any(), any(), any(), any(), any());
+
+        try {
+            importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null); // running
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null); // queued
+
+            assertThatThrownBy(() -> importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null))
+                    .isInstanceOf(TaskRejectedException.class)
+                    .hasMessageContaining("Too many import jobs");
+            // The rejected upload is removed, the running and queued ones are kept
+            try (var files = Files.list(directory)) {
+                assertThat(files).hasSize(2);
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep sending progress events to followers while another one doesn't read")
+    void shouldNotBlockFollowersOnSlowClient() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return OrderImportResultDto.builder().build();
+        }).when(orderImportService).importOrdersInChunks(any(), any(), any(), any(), any());
+
+        try {
+            UUID id = importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null).id();
+            CountDownLatch blocked = new CountDownLatch(1);
+            importJobService.follow(id, new SseEmitter(0L) {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    // A client that doesn't read: the write blocks until the job is done
+                    blocked.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            CountDownLatch events = new CountDownLatch(3);
+            importJobService.follow(id, new SseEmitter(0L) {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    events.countDown();
+                }
+            });
+
+            assertThat(events.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should remove expired jobs")
+    void shouldPurgeExpiredJobs() throws Exception {
+        importJobService.shutdown();
+        importJobService = new OrderImportJobService(orderImportService, compressionService, directory, DataSize.ofMegabytes(1),
+                Duration.ZERO, 1, 1, 10, Duration.ofMillis(100), false);
+        doThrow(new IllegalStateException("Database is down"))
+                .when(orderImportService).importOrdersInChunks(any(), any(), any(), any(), any());
+        OrderImportJobResponseDto submitted = importJobService.submit(body(ORDERS), OrderImportFormatEnum.JSON, ReportCompressionEnum.NONE, null);
+        awaitFinished(submitted.id());
+
+        importJobService.purgeExpired();
+
+        assertThatThrownBy(() -> importJobService.getJob(submitted.id()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    @DisplayName("Should remove uploads left by a previous run on startup")
+    void shouldRemoveLeftoverFilesOnStartup() throws Exception {
+        Path leftover = Files.createFile(directory.resolve(UUID.randomUUID() + ".json.part"));
+        Path leftoverCsv = Files.createFile(directory.resolve(UUID.randomUUID() + ".csv"));
+        Path unrelated = Files.createFile(directory.resolve("orders.json"));
+
+        importJobService.init();
+
+        assertThat(leftover).doesNotExist();
+        assertThat(leftoverCsv).doesNotExist();
+        assertThat(unrelated).exists();
+    }
+
+    private OrderImportJobService newService(DataSize maxFileSize) throws Exception {
+        OrderImportJobService service = new OrderImportJobService(orderImportService, compressionService, directory, maxFileSize,
+                Duration.ofHours(1), 1, 1, 10, Duration.ofMillis(100), false);
+        service.init();
+        return service;
+    }
+
+    private InputStream compressed(byte[] content, ReportCompressionEnum compression) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = compressionService.compress(compressed, compression)) {
+            outputStream.write(content);
+        }
+        return new ByteArrayInputStream(compressed.toByteArray());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(String content) throws Exception {
+        return OrderImportService.hash(body(content));
+    }
+
+    private OrderImportJobResponseDto awaitFinished(UUID id) throws InterruptedException {
+        OrderImportJobResponseDto job = importJobService.getJob(id);
+        for (int attempt = 0; attempt < 100 && job.finishedAt() == null; attempt++) {
+            Thread.sleep(20);
+            job = importJobService.getJob(id);
+        }
+
+        return job;
+    }
+}
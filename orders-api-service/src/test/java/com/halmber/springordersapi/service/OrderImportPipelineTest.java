@@ -0,0 +1,189 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class OrderImportPipelineTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final ThreadFactory threadFactory = task -> {
+        Thread thread = new Thread(task);
+        threads.add(thread);
+        return thread;
+    };
+
+    @Test
+    @DisplayName("Should write batches validated out of order in file order, with their record numbers")
+    void shouldWriteInFileOrder() throws Exception {
+        OrderImportPipeline<Integer> pipeline = new OrderImportPipeline<>(10, 4, 8, threadFactory);
+        List<Integer> written = new ArrayList<>();
+
+        boolean completed;
+        try (OrderImportReader reader = open(1000)) {
+            completed = pipeline.run(reader, Integer.MAX_VALUE, line -> {
+                sleepRandomly();
+                return line.lineNumber();
+            }, written::addAll);
+        }
+
+        assertThat(completed).isTrue();
+        assertThat(written).containsExactlyElementsOf(IntStream.rangeClosed(1, 1000).boxed().toList());
+        assertThat(threads).hasSize(5).noneMatch(Thread::isAlive);
+    }
+
+    @Test
+    @DisplayName("Should stop after the limit and continue from there")
+    void shouldStopAtLimit() throws Exception {
+        OrderImportPipeline<Integer> pipeline = new OrderImportPipeline<>(10, 2, 4, threadFactory);
+        List<Integer> written = new ArrayList<>();
+
+        try (OrderImportReader reader = open(25)) {
+            assertThat(pipeline.run(reader, 20, line -> line.lineNumber(), written::addAll)).isFalse();
+            assertThat(written).hasSize(20).endsWith(20);
+
+            assertThat(pipeline.run(reader, 20, line -> line.lineNumber(), written::addAll)).isTrue();
+            assertThat(written).hasSize(25).endsWith(25);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not parse further ahead of the writer than the batch limit")
+    void shouldApplyBackpressure() throws Exception {
+        OrderImportPipeline<Integer> pipeline = new OrderImportPipeline<>(10, 2, 3, threadFactory);
+        AtomicInteger validated = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+
+        try (OrderImportReader reader = open(500)) {
+            pipeline.run(reader, Integer.MAX_VALUE, line -> {
+                maxAhead.accumulateAndGet(validated.incrementAndGet() - written.get(), Math::max);
+                return line.lineNumber();
+            }, batch -> {
+                sleep(2);
+                written.addAndGet(batch.size());
+            });
+        }
+
+        assertThat(written.get()).isEqualTo(500);
+        assertThat(maxAhead.get()).isLessThanOrEqualTo(3 * 10);
+    }
+
+    @Test
+    @DisplayName("Should stop all stages and rethrow when the writer fails")
+    void shouldStopWhenWriterFails() throws Exception {
+        OrderImportPipeline<Integer> pipeline = new OrderImportPipeline<>(10, 2, 4, threadFactory);
+        AtomicInteger batches = new AtomicInteger();
+
+        try (OrderImportReader reader = open(1000)) {
+            assertThatThrownBy(() -> pipeline.run(reader, Integer.MAX_VALUE, line -> line.lineNumber(), batch -> {
+                if (batches.incrementAndGet() == 2) {
+                    throw new IllegalStateException("Database is down");
+                }
+            })).isInstanceOf(IllegalStateException.class).hasMessage("Database is down");
+        }
+
+        assertThat(threads).hasSize(3).noneMatch(Thread::isAlive);
+    }
+
+    @Test
+    @DisplayName("Should stop all stages and rethrow when a validator fails, without waiting for its batch")
+    void shouldStopWhenValidatorFails() throws Exception {
+        OrderImportPipeline<Integer> pipeline = new OrderImportPipeline<>(10, 2, 4, threadFactory);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+
+        try (OrderImportReader reader = open(1000)) {
+            // The failed batch never reaches the writer, the ones after it can't be written. Failing late, after
+            // the other validator has handed over every batch the parser could read ahead
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                    assertThatThrownBy(() -> pipeline.run(reader, Integer.MAX_VALUE, line -> {
+                        if (line.lineNumber() == 15) {
+                            sleep(500);
+                            throw new IllegalArgumentException("Validator bug");
+                        }
+                        return line.lineNumber();
+                    }, written::addAll)).isInstanceOf(IllegalArgumentException.class).hasMessage("Validator bug"));
+        }
+
+        assertThat(written).hasSizeLessThanOrEqualTo(10);
+        assertThat(threads).hasSize(3).noneMatch(Thread::isAlive);
+    }
+
+    @Test
+    @DisplayName("Should rethrow parser failures after writing the records before them")
+    void shouldRethrowParserFailure() throws Exception {
+        OrderImportPipeline<Integer> pipeline = new OrderImportPipeline<>(10, 2, 4, threadFactory);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        String truncated = records(30).replaceAll("]$", "");
+
+        try (OrderImportReader reader = open(truncated)) {
+            assertThatThrownBy(() -> pipeline.run(reader, Integer.MAX_VALUE, line -> line.lineNumber(), written::addAll))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Unexpected end-of-input");
+        }
+
+        assertThat(written).hasSizeLessThanOrEqualTo(30);
+        assertThat(threads).noneMatch(Thread::isAlive);
+    }
+
+    @Test
+    @DisplayName("Should run on the calling thread without validators")
+    void shouldRunInlineWithoutValidators() throws IOException {
+        OrderImportPipeline<String> pipeline = new OrderImportPipeline<>(10, 0, 4, threadFactory);
+        List<String> written = new ArrayList<>();
+
+        try (OrderImportReader reader = open(15)) {
+            pipeline.run(reader, Integer.MAX_VALUE, line -> Thread.currentThread().getName(), written::addAll);
+        }
+
+        assertThat(written).hasSize(15).containsOnly(Thread.currentThread().getName());
+        assertThat(threads).isEmpty();
+    }
+
+    private OrderImportReader open(int count) throws IOException {
+        return open(records(count));
+    }
+
+    private OrderImportReader open(String content) throws IOException {
+        return OrderImportReader.open(OrderImportFormatEnum.JSON,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper);
+    }
+
+    private static String records(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> "{\"customerId\": \"c%d\", \"amount\": %d, \"status\": \"NEW\"}".formatted(i, i))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static void sleepRandomly() {
+        if (ThreadLocalRandom.current().nextInt(20) == 0) {
+            sleep(1);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
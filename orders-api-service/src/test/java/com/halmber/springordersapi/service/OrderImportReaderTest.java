@@ -0,0 +1,167 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.dto.request.order.OrderImportDto;
+import com.halmber.springordersapi.model.enums.OrderImportFormatEnum;
+import com.halmber.springordersapi.service.OrderImportReader.ParsedLine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderImportReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should number NDJSON records by line, skipping blank lines and reporting malformed lines")
+    void shouldReadNdjsonByLine() throws IOException {
+        String content = "\uFEFF{\"customerId\": \"c1\", \"amount\": 10, \"status\": \"NEW\", \"paymentMethod\": \"CARD\"}\r\n"
+                + "\n"
+                + "{\"customerId\": \"c2\", \"amount\": \n"
+                + "   \n"
+                + "{\"customerId\": \"c3\"} {\"customerId\": \"c4\"}\n"
+                + "{\"customerId\": \"c5\", \"amount\": 12.5}";
+
+        List<ParsedLine> lines = readAll(OrderImportFormatEnum.NDJSON, content);
+
+        assertThat(lines).extracting(ParsedLine::lineNumber).containsExactly(1, 3, 5, 6);
+        assertThat(lines.get(0).dto()).isEqualTo(new OrderImportDto(null, "c1", 10.0, "NEW", "CARD"));
+        assertThat(lines.get(1).error()).isNotNull();
+        assertThat(lines.get(2).error()).isNotNull();
+        assertThat(lines.get(3).dto().amount()).isEqualTo(12.5);
+    }
+
+    @Test
+    @DisplayName("Should report NDJSON lines longer than the limit without buffering them")
+    void shouldReportTooLongNdjsonLines() throws IOException {
+        String content = "{\"customerId\": \"" + "x".repeat(NdjsonOrderImportReader.MAX_LINE_LENGTH) + "\"}\n"
+                + "{\"customerId\": \"c2\"}\n";
+
+        List<ParsedLine> lines = readAll(OrderImportFormatEnum.NDJSON, content);
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).error()).hasMessageContaining("longer than");
+        assertThat(lines.get(1).lineNumber()).isEqualTo(2);
+        assertThat(lines.get(1).dto().customerId()).isEqualTo("c2");
+    }
+
+    @Test
+    @DisplayName("Should map CSV columns by header and number records by the line they start on")
+    void shouldReadCsvByHeader() throws IOException {
+        String content = """
+                Status,amount,CUSTOMERID,orderId,note,paymentMethod
+                NEW,10.5,c1,o1,,CARD
+
+                DONE,7,c2,o2,"multi
+                line, quoted \"\"note\"\"",CASH
+                NEW,abc,c3,o3,,CARD
+                NEW,,c4,o4,,PAYPAL
+                """;
+
+        List<ParsedLine> lines = readAll(OrderImportFormatEnum.CSV, content);
+
+        assertThat(lines).extracting(ParsedLine::lineNumber).containsExactly(2, 4, 6, 7);
+        assertThat(lines.get(0).dto()).isEqualTo(new OrderImportDto("o1", "c1", 10.5, "NEW", "CARD"));
+        assertThat(lines.get(1).dto()).isEqualTo(new OrderImportDto("o2", "c2", 7.0, "DONE", "CASH"));
+        assertThat(lines.get(2).error()).hasMessage("amount is not a number: abc");
+        assertThat(lines.get(3).dto().amount()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should report malformed CSV records and continue with the line after the one they start on")
+    void shouldResyncAfterMalformedCsvRecords() throws IOException {
+        String content = "customerId,amount,status,paymentMethod\r\n"
+                + "c1,1,NEW,CARD\r\n"
+                + "c2,\"2\"x,NEW,CARD\r\n"
+                + "c3,  \"3\" ,NEW,CARD\r"
+                + "c4,4,\"NEW,CARD\n"
+                + "c5,5,NEW,CARD\n"
+                + "c6,6,NEW,CARD";
+
+        List<ParsedLine> lines = readAll(OrderImportFormatEnum.CSV, content);
+
+        assertThat(lines).extracting(ParsedLine::lineNumber).containsExactly(2, 3, 4, 5, 6, 7);
+        assertThat(lines.get(0).dto().customerId()).isEqualTo("c1");
+        assertThat(lines.get(1).error()).hasMessage("Unexpected character 'x' after a quoted field");
+        assertThat(lines.get(2).dto()).isEqualTo(new OrderImportDto(null, "c3", 3.0, "NEW", "CARD"));
+        assertThat(lines.get(3).error()).hasMessage("Quoted field is not closed");
+        assertThat(lines.get(4).dto().customerId()).isEqualTo("c5");
+        assertThat(lines.get(5).dto().customerId()).isEqualTo("c6");
+    }
+
+    @Test
+    @DisplayName("Should stop reading a quoted CSV field at the record length limit")
+    void shouldReportTooLongCsvRecords() throws IOException {
+        int fillerLines = CsvOrderImportReader.MAX_RECORD_LENGTH / 1000 + 1;
+        // The quote is closed, past the limit
+        String content = "customerId,amount,status,paymentMethod\n"
+                + "c1,1,NEW,\"CARD\n"
+                + ("x".repeat(1000) + "\n").repeat(fillerLines)
+                + "\"\n"
+                + "c2,2,NEW,CARD\n";
+
+        List<ParsedLine> lines = readAll(OrderImportFormatEnum.CSV, content);
+
+        assertThat(lines.get(0).error()).hasMessage("Quoted field is not closed");
+        assertThat(lines.get(lines.size() - 1).lineNumber()).isEqualTo(fillerLines + 4);
+        assertThat(lines.get(lines.size() - 1).dto().customerId()).isEqualTo("c2");
+    }
+
+    @Test
+    @DisplayName("Should reject CSV files without the required columns")
+    void shouldRejectCsvWithoutRequiredColumns() {
+        assertThatThrownBy(() -> readAll(OrderImportFormatEnum.CSV, "customerId,amount\nc1,10\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing the columns [status, paymentMethod]");
+        assertThatThrownBy(() -> readAll(OrderImportFormatEnum.CSV, ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no header row");
+    }
+
+    @Test
+    @DisplayName("Should skip records of every format and continue with the line numbers of the file")
+    void shouldSkipRecords() throws IOException {
+        String json = "[{\"customerId\": \"c1\"}, {\"customerId\": \"c2\"}, {\"customerId\": \"c3\"}]";
+        String ndjson = "{\"customerId\": \"c1\"}\n\n{\"customerId\": \"c2\"}\n{\"customerId\": \"c3\"}\n";
+        String csv = "customerId,amount,status,paymentMethod\nc1,1,NEW,CARD\n\"c2\",2,NEW,CARD\nc3,3,NEW,CARD\n";
+
+        assertThat(readAfterSkip(OrderImportFormatEnum.JSON, json, 2)).isEqualTo(3);
+        assertThat(readAfterSkip(OrderImportFormatEnum.NDJSON, ndjson, 2)).isEqualTo(4);
+        assertThat(readAfterSkip(OrderImportFormatEnum.CSV, csv, 2)).isEqualTo(4);
+
+        assertThatThrownBy(() -> readAfterSkip(OrderImportFormatEnum.CSV, csv, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File has less than 4 records");
+    }
+
+    private int readAfterSkip(OrderImportFormatEnum format, String content, int count) throws IOException {
+        try (OrderImportReader reader = open(format, content)) {
+            reader.skip(count);
+            ParsedLine line = reader.next();
+            assertThat(line.dto().customerId()).isEqualTo("c3");
+            return line.lineNumber();
+        }
+    }
+
+    private List<ParsedLine> readAll(OrderImportFormatEnum format, String content) throws IOException {
+        List<ParsedLine> lines = new ArrayList<>();
+        try (OrderImportReader reader = open(format, content)) {
+            for (ParsedLine line = reader.next(); line != null; line = reader.next()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private OrderImportReader open(OrderImportFormatEnum format, String content) throws IOException {
+        return OrderImportReader.open(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                objectMapper);
+    }
+}
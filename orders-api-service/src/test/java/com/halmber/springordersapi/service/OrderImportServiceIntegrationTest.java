@@ -3,7 +3,10 @@ package com.halmber.springordersapi.service;
 import com.halmber.springordersapi.BaseConfigurationTest;
 import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
 import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.StatusEnum;
 import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.repository.OrderImportCheckpointRepository;
 import com.halmber.springordersapi.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,9 +17,11 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -32,6 +37,9 @@ class OrderImportServiceIntegrationTest extends BaseConfigurationTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private OrderImportCheckpointRepository checkpointRepository;
+
     @MockitoBean
     private EmailMessageProducerService emailMessageProducerService;
 
@@ -137,6 +145,53 @@ class OrderImportServiceIntegrationTest extends BaseConfigurationTest {
         );
     }
 
+    @Test
+    void shouldImportInChunksAndCompleteCheckpoint() throws IOException {
+        String order = """
+                {"customerId": "%s", "amount": 10, "status": "NEW", "paymentMethod": "CARD"}""".formatted(validCustomerId);
+        MockMultipartFile file = getMockMultipartFile("[%s, %s, {\"customerId\": \"%s\"}]"
+                .formatted(order, order, validCustomerId));
+
+        OrderImportResultDto result = importService.importOrdersInChunks(file, null);
+
+        assertThat(result.totalRecords()).isEqualTo(3);
+        assertThat(result.successfulImports()).isEqualTo(2);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::lineNumber).containsExactly(3);
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(checkpointRepository.findById(result.checkpointId())).hasValueSatisfying(checkpoint -> {
+            assertThat(checkpoint.getCommittedRecords()).isEqualTo(3);
+            assertThat(checkpoint.getSuccessfulImports()).isEqualTo(2);
+            assertThat(checkpoint.isCompleted()).isTrue();
+        });
+
+        // Completed imports can't be resumed
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importOrdersInChunks(file, result.checkpointId()));
+    }
+
+    @Test
+    void shouldUpdateOrdersWithTheSameOrderIdOnReimport() throws IOException {
+        String orders = """
+                [
+                  {"orderId": "A-1", "customerId": "%1$s", "amount": 10, "status": "NEW", "paymentMethod": "CARD"},
+                  {"orderId": "A-2", "customerId": "%1$s", "amount": 20, "status": "NEW", "paymentMethod": "CARD"},
+                  {"customerId": "%1$s", "amount": 30, "status": "NEW", "paymentMethod": "CARD"}
+                ]
+                """;
+        importService.importOrders(getMockMultipartFile(orders.formatted(validCustomerId)));
+
+        OrderImportResultDto result = importService.importOrders(getMockMultipartFile(orders
+                .replace("\"amount\": 20, \"status\": \"NEW\"", "\"amount\": 25, \"status\": \"DONE\"")
+                .formatted(validCustomerId)));
+
+        assertThat(result.successfulImports()).isEqualTo(3);
+        // Orders without an order id can't be matched and are added again
+        assertThat(orderRepository.count()).isEqualTo(4);
+        assertThat(orderRepository.findAllByExternalIdIn(List.of("A-1", "A-2")))
+                .extracting(Order::getExternalId, Order::getAmount, Order::getStatus)
+                .containsExactlyInAnyOrder(tuple("A-1", 10.0, StatusEnum.NEW), tuple("A-2", 25.0, StatusEnum.DONE));
+    }
+
     @Test
     void shouldRejectEmptyFile() {
         MockMultipartFile file = new MockMultipartFile(
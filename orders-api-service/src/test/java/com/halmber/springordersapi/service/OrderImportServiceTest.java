@@ -0,0 +1,444 @@
+package com.halmber.springordersapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.entity.OrderImportCheckpoint;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.repository.OrderImportCheckpointRepository;
+import com.halmber.springordersapi.repository.OrderRepository;
+import com.halmber.springordersapi.service.exeption.OrderImportFailedException;
+import com.halmber.springordersapi.util.TestDataBuilder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderImportService Unit Tests")
+class OrderImportServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderCopyImportService orderCopyImportService;
+
+    @Mock
+    private OrderImportCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @TempDir
+    private Path errorReports;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReportCompressionService compressionService =
+            new ReportCompressionService(4, 3, DataSize.ofKilobytes(64));
+
+    private OrderImportErrorReportService errorReportService;
+
+    private OrderImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        errorReportService = new OrderImportErrorReportService(objectMapper, errorReports, Duration.ofHours(1));
+        importService = new OrderImportService(orderRepository, customerRepository, objectMapper,
+                orderCopyImportService, checkpointRepository, new TransactionTemplate(transactionManager),
+                entityManager, errorReportService, compressionService, 2, 2, 4, 10, DataSize.ofMegabytes(20), false);
+    }
+
+    @Test
+    @DisplayName("Should look up each distinct customer once, in bulk per batch")
+    @SuppressWarnings("unchecked")
+    void shouldPrefetchCustomersPerBatch() throws IOException {
+        Customer first = customer();
+        Customer second = customer();
+        UUID missing = UUID.randomUUID();
+        Customer late = customer();
+
+        when(customerRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return Stream.of(first, second, late).filter(customer -> ids.contains(customer.getId())).toList();
+        });
+
+        // 120 orders in batches of 50: the first batch references three customers, the third one a new one
+        String orders = IntStream.rangeClosed(1, 120)
+                .mapToObj(line -> order(switch (line % 3) {
+                    case 0 -> line > 100 ? late.getId() : first.getId();
+                    case 1 -> second.getId();
+                    default -> missing;
+                }))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        OrderImportResultDto result = importService.importOrders(file(orders));
+
+        assertThat(result.totalRecords()).isEqualTo(120);
+        assertThat(result.failedImports()).isEqualTo(40);
+        assertThat(result.errors()).allSatisfy(error -> assertThat(error.reason()).isEqualTo("Customer not found"));
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::lineNumber)
+                .isSorted()
+                .startsWith(2, 5, 8);
+
+        ArgumentCaptor<Iterable<UUID>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(customerRepository, times(2)).findAllById(ids.capture());
+        assertThat(ids.getAllValues().get(0)).containsExactlyInAnyOrder(first.getId(), second.getId(), missing);
+        assertThat(ids.getAllValues().get(1)).containsExactly(late.getId());
+        verify(customerRepository, never()).findById(any());
+        verify(orderRepository, times(3)).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should report parse and validation errors in file order")
+    void shouldKeepErrorsInLineOrder() throws IOException {
+        Customer customer = customer();
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+
+        OrderImportResultDto result = importService.importOrders(file("""
+                [
+                  {"customerId": "%s", "amount": -1, "status": "NEW", "paymentMethod": "CARD"},
+                  {"customerId": "%s", "amount": 10, "status": "NEW"},
+                  {"customerId": "%s", "amount": 10, "status": "NEW", "paymentMethod": "CARD"},
+                  {"customerId": "%s", "amount": 10, "status": "LOST", "paymentMethod": "CARD"}
+                ]
+                """.formatted(customer.getId(), customer.getId(), customer.getId(), customer.getId())));
+
+        assertThat(result.successfulImports()).isEqualTo(1);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::lineNumber).containsExactly(1, 2, 4);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::reason)
+                .containsExactly("Invalid amount", "Parse error", "Invalid status");
+        assertThat(result.errorsByReason())
+                .isEqualTo(Map.of("Invalid amount", 1, "Parse error", 1, "Invalid status", 1));
+        assertThat(result.errorReportId()).isNull();
+        verify(customerRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should keep the first errors inline, count all of them by reason and write them all to the error report")
+    void shouldWriteErrorsBeyondTheInlineLimitToTheReport() throws IOException {
+        Customer customer = customer();
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+
+        // Odd records have no status, every fourth one a negative amount, the rest are valid
+        String orders = IntStream.rangeClosed(1, 120)
+                .mapToObj(line -> line % 2 == 1
+                        ? "{\"customerId\": \"%s\", \"amount\": 10}".formatted(customer.getId())
+                        : line % 4 == 0
+                        ? "{\"customerId\": \"%s\", \"amount\": -1, \"status\": \"NEW\"}".formatted(customer.getId())
+                        : order(customer.getId()))
+                .collect(Collectors.joining(",", "[", "]"));
+        List<Integer> errorLines = IntStream.rangeClosed(1, 120).filter(line -> line % 4 != 2).boxed().toList();
+
+        OrderImportResultDto result = importService.importOrders(file(orders));
+
+        assertThat(result.successfulImports()).isEqualTo(30);
+        assertThat(result.failedImports()).isEqualTo(90);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::lineNumber)
+                .containsExactlyElementsOf(errorLines.subList(0, 10));
+        assertThat(result.errorsByReason()).isEqualTo(Map.of("Missing status", 60, "Invalid amount", 30));
+        assertThat(result.errorReportId()).isNotNull();
+
+        List<String> report = Files.readAllLines(errorReportService.getReport(result.errorReportId()));
+        assertThat(report).hasSize(90);
+        assertThat(report.stream().map(line -> read(line).lineNumber())).containsExactlyElementsOf(errorLines);
+        assertThat(read(report.get(2))).isEqualTo(new OrderImportResultDto.ImportError(4, "Invalid amount",
+                "Amount must be positive, got: -1.0"));
+    }
+
+    @Test
+    @DisplayName("Should bulk load valid orders and report the unknown customers found by the load")
+    void shouldBulkLoadOrdersWhenSupported() throws IOException {
+        Customer customer = customer();
+        Customer deleted = customer();
+        OrderCopyImportService.CopyLoad copyLoad = mock(OrderCopyImportService.CopyLoad.class);
+
+        when(orderCopyImportService.isSupported()).thenReturn(true);
+        when(orderCopyImportService.begin()).thenReturn(copyLoad);
+        when(copyLoad.finish()).thenReturn(new OrderCopyImportService.Result(2,
+                List.of(new OrderCopyImportService.RejectedLine(3, deleted.getId()))));
+
+        OrderImportResultDto result = importService.importOrders(file("""
+                [
+                  {"customerId": "%s", "amount": 10, "status": "NEW", "paymentMethod": "CARD"},
+                  {"customerId": "%s", "amount": 10, "status": "LOST", "paymentMethod": "CARD"},
+                  {"customerId": "%s", "amount": 10, "status": "NEW", "paymentMethod": "CARD"},
+                  {"customerId": "%s", "amount": 20, "status": "DONE", "paymentMethod": "CASH"}
+                ]
+                """.formatted(customer.getId(), customer.getId(), deleted.getId(), customer.getId())));
+
+        assertThat(result.successfulImports()).isEqualTo(2);
+        assertThat(result.failedImports()).isEqualTo(2);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::lineNumber).containsExactly(2, 3);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::reason)
+                .containsExactly("Invalid status", "Customer not found");
+
+        verify(copyLoad).write(eq(1), any(Order.class));
+        verify(copyLoad).write(eq(3), any(Order.class));
+        verify(copyLoad).write(eq(4), any(Order.class));
+        verify(copyLoad).close();
+        verify(orderRepository, never()).saveAll(any());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Should commit every chunk with its checkpoint and clear the persistence context")
+    void shouldCommitChunksWithCheckpoint() throws IOException {
+        Customer customer = customer();
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+
+        OrderImportResultDto result = importService.importOrdersInChunks(file(orders(customer.getId(), 5)), null);
+
+        assertThat(result.totalRecords()).isEqualTo(5);
+        assertThat(result.successfulImports()).isEqualTo(5);
+        assertThat(result.checkpointId()).isNotNull();
+
+        // 2 + 2 + 1 records, the last chunk also reads the end of the array
+        ArgumentCaptor<OrderImportCheckpoint> checkpoints = ArgumentCaptor.forClass(OrderImportCheckpoint.class);
+        verify(checkpointRepository, times(4)).save(checkpoints.capture());
+        assertThat(checkpoints.getAllValues()).extracting(OrderImportCheckpoint::getCommittedRecords)
+                .containsExactly(0, 2, 4, 5);
+        assertThat(checkpoints.getAllValues()).extracting(OrderImportCheckpoint::isCompleted)
+                .containsExactly(false, false, false, true);
+        verify(orderRepository, times(3)).saveAll(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("Should keep committed chunks of a failed import and resume after them")
+    void shouldResumeFailedImportFromCheckpoint() throws IOException {
+        Customer customer = customer();
+        MockMultipartFile file = file(orders(customer.getId(), 5));
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        when(orderRepository.saveAll(any()))
+                .thenReturn(List.of())
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(List.of());
+
+        OrderImportFailedException failure = assertThrows(OrderImportFailedException.class,
+                () -> importService.importOrdersInChunks(file, null));
+
+        assertThat(failure.getCommittedRecords()).isEqualTo(2);
+        assertThat(failure.getMessage()).contains("resumeFrom=" + failure.getCheckpointId()).doesNotContain("connection lost");
+        verify(transactionManager).rollback(any());
+
+        ArgumentCaptor<OrderImportCheckpoint> checkpoints = ArgumentCaptor.forClass(OrderImportCheckpoint.class);
+        verify(checkpointRepository, times(2)).save(checkpoints.capture());
+        OrderImportCheckpoint committed = checkpoints.getValue();
+        when(checkpointRepository.findById(failure.getCheckpointId())).thenReturn(Optional.of(committed));
+
+        OrderImportResultDto result = importService.importOrdersInChunks(file, failure.getCheckpointId());
+
+        assertThat(result.totalRecords()).isEqualTo(5);
+        assertThat(result.successfulImports()).isEqualTo(5);
+        assertThat(result.checkpointId()).isEqualTo(failure.getCheckpointId());
+        // Records 1 and 2 were skipped: 1 chunk before the failure, 2 after resuming
+        verify(orderRepository, times(4)).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to resume an import with a different file")
+    void shouldRejectResumeWithDifferentFile() {
+        UUID checkpointId = UUID.randomUUID();
+        when(checkpointRepository.findById(checkpointId)).thenReturn(Optional.of(
+                OrderImportCheckpoint.builder().id(checkpointId).fileHash("0".repeat(64)).committedRecords(2).build()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importOrdersInChunks(file(orders(UUID.randomUUID(), 3)), checkpointId));
+        verifyNoInteractions(orderRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should detect CSV by extension and NDJSON by content type and report errors by file line")
+    void shouldImportCsvAndNdjson() throws IOException {
+        Customer customer = customer();
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+
+        OrderImportResultDto csv = importService.importOrders(new MockMultipartFile("file", "orders.CSV",
+                "application/vnd.ms-excel", """
+                customerId,amount,status,paymentMethod
+                %s,10.5,NEW,CARD
+                %s,-1,NEW,CARD
+                """.formatted(customer.getId(), customer.getId()).getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(csv.successfulImports()).isEqualTo(1);
+        assertThat(csv.errors()).extracting(OrderImportResultDto.ImportError::lineNumber).containsExactly(3);
+
+        OrderImportResultDto ndjson = importService.importOrders(new MockMultipartFile("file", "orders.txt",
+                "application/x-ndjson; charset=UTF-8", (order(customer.getId()) + "\n\n{\n" + order(customer.getId()))
+                .getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(ndjson.totalRecords()).isEqualTo(3);
+        assertThat(ndjson.successfulImports()).isEqualTo(2);
+        assertThat(ndjson.errors()).extracting(OrderImportResultDto.ImportError::lineNumber).containsExactly(3);
+
+        assertThrows(IllegalArgumentException.class, () -> importService.importOrders(
+                new MockMultipartFile("file", "orders.txt", "text/plain", "{}".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    @DisplayName("Should decompress gzip and zstd files and limit their decompressed size")
+    void shouldImportCompressedFiles() throws IOException {
+        Customer customer = customer();
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        byte[] orders = orders(customer.getId(), 3).getBytes(StandardCharsets.UTF_8);
+
+        OrderImportResultDto gzip = importService.importOrders(new MockMultipartFile("file", "orders.json.gz",
+                "application/gzip", compress(orders, ReportCompressionEnum.GZIP)));
+        OrderImportResultDto zstd = importService.importOrdersInChunks(new MockMultipartFile("file", "orders.JSON.zst",
+                "application/octet-stream", compress(orders, ReportCompressionEnum.ZSTD)), null);
+
+        assertThat(gzip.successfulImports()).isEqualTo(3);
+        assertThat(zstd.successfulImports()).isEqualTo(3);
+
+        // A JSON array padded with 11MB of whitespace, a few KB compressed
+        byte[] padded = ("[" + " ".repeat(11 * 1024 * 1024) + "]").getBytes(StandardCharsets.UTF_8);
+        IllegalArgumentException tooLarge = assertThrows(IllegalArgumentException.class, () -> importService.importOrders(
+                new MockMultipartFile("file", "orders.json.gz", "application/gzip",
+                        compress(padded, ReportCompressionEnum.GZIP))));
+        assertThat(tooLarge).hasMessage("Decompressed file size exceeds maximum allowed size of 10MB");
+
+        assertThrows(IllegalArgumentException.class, () -> importService.importOrders(
+                new MockMultipartFile("file", "orders.gz", "application/gzip", compress(orders, ReportCompressionEnum.GZIP))));
+    }
+
+    @Test
+    @DisplayName("Should accept chunked imports beyond 10MB, up to the chunked limit")
+    void shouldApplyChunkedFileSizeLimit() throws IOException {
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        byte[] padded = ("[" + " ".repeat(11 * 1024 * 1024) + "]").getBytes(StandardCharsets.UTF_8);
+        MockMultipartFile file = new MockMultipartFile("file", "orders.json", "application/json", padded);
+
+        assertThrows(IllegalArgumentException.class, () -> importService.importOrders(file));
+        assertThat(importService.importOrdersInChunks(file, null).totalRecords()).isZero();
+
+        byte[] tooLarge = ("[" + " ".repeat(21 * 1024 * 1024) + "]").getBytes(StandardCharsets.UTF_8);
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class, () -> importService
+                .importOrdersInChunks(new MockMultipartFile("file", "orders.json", "application/json", tooLarge), null));
+        assertThat(failure).hasMessage("File size exceeds maximum allowed size of 20MB");
+    }
+
+    @Test
+    @DisplayName("Should update orders imported earlier with the same order id, looked up once per batch")
+    @SuppressWarnings("unchecked")
+    void shouldUpdateOrdersByExternalId() throws IOException {
+        Customer customer = customer();
+        Order existing = Order.builder().id(UUID.randomUUID()).externalId("A-1").amount(1.0).build();
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(orderRepository.findAllByExternalIdIn(any())).thenReturn(List.of(existing));
+
+        OrderImportResultDto result = importService.importOrders(file("""
+                [
+                  {"orderId": "A-1", "customerId": "%1$s", "amount": 10, "status": "DONE", "paymentMethod": "CARD"},
+                  {"orderId": "A-2", "customerId": "%1$s", "amount": 20, "status": "NEW", "paymentMethod": "CARD"},
+                  {"orderId": "A-2", "customerId": "%1$s", "amount": 25, "status": "NEW", "paymentMethod": "CARD"},
+                  {"orderId": "%2$s", "customerId": "%1$s", "amount": 30, "status": "NEW", "paymentMethod": "CARD"}
+                ]
+                """.formatted(customer.getId(), "x".repeat(65))));
+
+        assertThat(result.successfulImports()).isEqualTo(3);
+        assertThat(result.errors()).extracting(OrderImportResultDto.ImportError::reason).containsExactly("Invalid order ID");
+        assertThat(existing.getAmount()).isEqualTo(10.0);
+        assertThat(existing.getCustomer()).isEqualTo(customer);
+
+        ArgumentCaptor<Collection<String>> externalIds = ArgumentCaptor.forClass(Collection.class);
+        verify(orderRepository).findAllByExternalIdIn(externalIds.capture());
+        assertThat(externalIds.getValue()).containsExactly("A-1", "A-2");
+
+        ArgumentCaptor<List<Order>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement().satisfies(order -> {
+            assertThat(order.getExternalId()).isEqualTo("A-2");
+            assertThat(order.getAmount()).isEqualTo(25.0);
+        });
+    }
+
+    private byte[] compress(byte[] content, ReportCompressionEnum compression) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = compressionService.compress(compressed, compression)) {
+            outputStream.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private OrderImportResultDto.ImportError read(String json) {
+        try {
+            return objectMapper.readValue(json, OrderImportResultDto.ImportError.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private OrderImportCheckpoint saved(OrderImportCheckpoint checkpoint) {
+        if (checkpoint.getId() == null) {
+            checkpoint.setId(UUID.randomUUID());
+        }
+        return checkpoint;
+    }
+
+    private String orders(UUID customerId, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> order(customerId))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private Customer customer() {
+        Customer customer = TestDataBuilder.createCustomer("John", "Doe", "john@test.com");
+        customer.setId(UUID.randomUUID());
+        return customer;
+    }
+
+    private String order(UUID customerId) {
+        return """
+                {"customerId": "%s", "amount": 10.5, "status": "NEW", "paymentMethod": "CARD"}""".formatted(customerId);
+    }
+
+    private MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "orders.json", "application/json",
+                content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,168 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.BasePostgresIntegrationTest;
+import com.halmber.springordersapi.model.dto.response.order.OrderImportResultDto;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.repository.OrderRepository;
+import com.halmber.springordersapi.util.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@DisplayName("OrderPartitionService Integration Tests")
+class OrderPartitionServiceIntegrationTest extends BasePostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private EmailMessageProducerService emailMessageProducerService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(TestDataBuilder.createCustomer(
+                "Partition", "Test", "partition-" + UUID.randomUUID() + "@test.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Cascades to the orders, the trigger removes their external ids
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    @DisplayName("Should store orders in the partition of their UTC month")
+    void shouldRouteOrdersToMonthPartitions() {
+        orderPartitionService.createPartitions(YearMonth.of(2030, 1));
+
+        UUID lastOfJanuary = insertOrder(OffsetDateTime.parse("2030-01-31T23:59:59.999999Z"), null);
+        UUID firstOfFebruary = insertOrder(OffsetDateTime.parse("2030-02-01T00:00:00Z"), null);
+
+        assertThat(partitionOf(lastOfJanuary)).isEqualTo("orders_2030_01");
+        assertThat(partitionOf(firstOfFebruary)).isEqualTo("orders_2030_02");
+        assertThat(String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN SELECT id FROM orders
+                WHERE created_at >= '2030-02-01T00:00:00Z' AND created_at < '2030-03-01T00:00:00Z'
+                """, String.class)))
+                .contains("orders_2030_02")
+                .doesNotContain("orders_2030_01", "orders_2030_03", "orders_default");
+    }
+
+    @Test
+    @DisplayName("Should move orders of the default partition into the partition created for their month")
+    void shouldMoveDefaultPartitionOrders() {
+        UUID order = insertOrder(OffsetDateTime.parse("2031-06-15T12:00:00Z"), "P-MOVED");
+        assertThat(partitionOf(order)).isEqualTo("orders_default");
+
+        // June is created with May and the months after it, not rolled back with them
+        assertThat(orderPartitionService.createPartitions(YearMonth.of(2031, 5))).isEqualTo(4);
+
+        assertThat(partitionOf(order)).isEqualTo("orders_2031_06");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM orders_default", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT order_id FROM order_external_ids WHERE external_id = 'P-MOVED'", UUID.class)).isEqualTo(order);
+    }
+
+    @Test
+    @DisplayName("Should update re-imported orders in their partition on both sides of a month boundary")
+    void shouldUpdateReimportedOrdersAcrossMonthBoundary() throws IOException {
+        orderPartitionService.createPartitions(YearMonth.of(2030, 1));
+        UUID january = insertOrder(OffsetDateTime.parse("2030-01-31T23:59:59.999999Z"), "P-JAN");
+        UUID february = insertOrder(OffsetDateTime.parse("2030-02-01T00:00:00Z"), "P-FEB");
+
+        String orders = """
+                [
+                  {"orderId": "P-JAN", "customerId": "%1$s", "amount": 11, "status": "DONE", "paymentMethod": "CARD"},
+                  {"orderId": "P-FEB", "customerId": "%1$s", "amount": 12, "status": "DONE", "paymentMethod": "CARD"},
+                  {"orderId": "P-NEW", "customerId": "%1$s", "amount": %2$s, "status": "NEW", "paymentMethod": "CARD"}
+                ]
+                """;
+        OrderImportResultDto first = orderImportService.importOrders(jsonFile(orders.formatted(customer.getId(), 13)));
+        OrderImportResultDto second = orderImportService.importOrders(jsonFile(orders.formatted(customer.getId(), 14)));
+
+        assertThat(first.successfulImports()).isEqualTo(3);
+        assertThat(second.successfulImports()).isEqualTo(3);
+        assertThat(orderRepository.findAllByExternalIdIn(List.of("P-JAN", "P-FEB", "P-NEW")))
+                .extracting(Order::getExternalId, Order::getAmount, Order::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple("P-JAN", 11.0, StatusEnum.DONE),
+                        tuple("P-FEB", 12.0, StatusEnum.DONE),
+                        tuple("P-NEW", 14.0, StatusEnum.NEW));
+        assertThat(partitionOf(january)).isEqualTo("orders_2030_01");
+        assertThat(partitionOf(february)).isEqualTo("orders_2030_02");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM order_external_ids WHERE external_id IN ('P-JAN', 'P-FEB', 'P-NEW')
+                """, Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should update and delete orders by id with the partition key")
+    void shouldUpdateAndDeleteOrdersById() {
+        Order order = orderRepository.save(TestDataBuilder.createOrder(customer, 10.0, StatusEnum.NEW));
+        order.setExternalId("P-DELETED");
+        orderRepository.save(order);
+
+        orderService.update(order.getId(), TestDataBuilder.createOrderEditDto(StatusEnum.DONE, 20.0));
+        assertThat(orderRepository.findById(order.getId()))
+                .hasValueSatisfying(updated -> assertThat(updated.getAmount()).isEqualTo(20.0));
+
+        orderService.delete(order.getId());
+        assertThat(orderRepository.findById(order.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM order_external_ids WHERE external_id = 'P-DELETED'", Integer.class)).isZero();
+    }
+
+    private UUID insertOrder(OffsetDateTime createdAt, String externalId) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, customer_id, amount, status, created_at, updated_at, external_id)
+                VALUES (?, ?, 10, 'NEW', ?, ?, ?)
+                """, id, customer.getId(), createdAt, createdAt, externalId);
+        return id;
+    }
+
+    private String partitionOf(UUID orderId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM orders WHERE id = ?", String.class, orderId);
+    }
+
+    private static MockMultipartFile jsonFile(String content) {
+        return new MockMultipartFile("file", "orders.json", "application/json", content.getBytes());
+    }
+}
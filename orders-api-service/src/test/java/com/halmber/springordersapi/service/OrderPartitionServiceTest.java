@@ -0,0 +1,92 @@
+package com.halmber.springordersapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderPartitionService Unit Tests")
+class OrderPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderPartitionService orderPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        orderPartitionService = new OrderPartitionService(jdbcTemplate, 3);
+    }
+
+    @Test
+    @DisplayName("Should create partitions from the current month through the months ahead")
+    void shouldCreatePartitionsAhead() {
+        when(jdbcTemplate.execute(anyConnectionCallback())).thenReturn(true);
+        when(jdbcTemplate.query(eq("SELECT partition_name, error FROM create_orders_partitions(?, ?)"),
+                anyPartitionResultMapper(), eq(LocalDate.of(2026, 11, 1)), eq(LocalDate.of(2027, 2, 1))))
+                .thenReturn(List.of(
+                        new OrderPartitionService.PartitionResult("orders_2027_01", null),
+                        new OrderPartitionService.PartitionResult("orders_2027_02", null)));
+
+        assertThat(orderPartitionService.createPartitions(YearMonth.of(2026, 11))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should count only the months created without error")
+    void shouldSkipFailedMonths() {
+        when(jdbcTemplate.execute(anyConnectionCallback())).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), anyPartitionResultMapper(), any(), any()))
+                .thenReturn(List.of(
+                        new OrderPartitionService.PartitionResult("orders_2026_11", "lock timeout"),
+                        new OrderPartitionService.PartitionResult("orders_2026_12", null)));
+
+        assertThat(orderPartitionService.createPartitions(YearMonth.of(2026, 11))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should log and skip the run when partitions can't be created")
+    void shouldSkipRunOnFailure() {
+        when(jdbcTemplate.execute(anyConnectionCallback())).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), anyPartitionResultMapper(), any(), any()))
+                .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+
+        assertThat(orderPartitionService.createPartitions(YearMonth.of(2026, 11))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should do nothing on databases other than PostgreSQL")
+    void shouldSkipOtherDatabases() {
+        when(jdbcTemplate.execute(anyConnectionCallback())).thenReturn(false);
+
+        assertThat(orderPartitionService.createPartitions(YearMonth.of(2026, 11))).isZero();
+        assertThat(orderPartitionService.createPartitions(YearMonth.of(2026, 12))).isZero();
+
+        verify(jdbcTemplate, times(1)).execute(anyConnectionCallback());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    private static ConnectionCallback<Boolean> anyConnectionCallback() {
+        return any();
+    }
+
+    private static RowMapper<OrderPartitionService.PartitionResult> anyPartitionResultMapper() {
+        return any();
+    }
+}
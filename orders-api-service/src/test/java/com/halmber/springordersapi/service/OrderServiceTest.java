@@ -1,11 +1,15 @@
 package com.halmber.springordersapi.service;
 
+import com.halmber.springordersapi.controller.exception.InvalidRequestParameterException;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderCursor;
 import com.halmber.springordersapi.model.OrderFilter;
 import com.halmber.springordersapi.model.dto.request.order.OrderCreateDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderEditDto;
 import com.halmber.springordersapi.model.dto.request.order.OrderFilterDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderResponseDto;
 import com.halmber.springordersapi.model.dto.response.order.OrderShortListResponseDto;
+import com.halmber.springordersapi.model.dto.response.order.OrderShortResponseDto;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
 import com.halmber.springordersapi.model.enums.StatusEnum;
@@ -18,10 +22,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -182,50 +188,113 @@ class OrderServiceTest {
         OrderFilterDto filterDto = TestDataBuilder.createOrderFilterDto(customerId, 0, 20);
         OrderFilter filter = TestDataBuilder.createOrderFilter(customerId, 0, 20);
 
-        Customer customer = TestDataBuilder.createCustomer("John", "Doe", "john@test.com");
-        List<Order> orders = List.of(
-                TestDataBuilder.createOrder(customer, 100.0, StatusEnum.NEW),
-                TestDataBuilder.createOrder(customer, 200.0, StatusEnum.PROCESSING)
+        List<OrderShortResponseDto> orders = List.of(
+                OrderShortResponseDto.builder().id(UUID.randomUUID()).amount(100.0).status(StatusEnum.NEW).build(),
+                OrderShortResponseDto.builder().id(UUID.randomUUID()).amount(200.0).status(StatusEnum.PROCESSING).build()
         );
-        Page<Order> page = new PageImpl<>(orders, Pageable.unpaged(), 2);
+        Page<OrderShortResponseDto> page = new PageImpl<>(orders, Pageable.unpaged(), 2);
 
-        when(repository.findByFilters(
-                eq(customerId), isNull(), isNull(), any(Pageable.class)
+        when(repository.findShortByFilters(
+                eq(OrderCriteria.builder().customerId(customerId).build()), any(Pageable.class)
         )).thenReturn(page);
-        when(mapper.toShortDtoList(orders)).thenReturn(new ArrayList<>());
         when(mapper.toOrderFilter(filterDto)).thenReturn(filter);
 
         OrderShortListResponseDto result = orderService.getFilteredPaginatedList(filterDto);
 
         assertThat(result).isNotNull();
         assertThat(result.totalPages()).isEqualTo(1);
-        verify(repository).findByFilters(eq(customerId), isNull(), isNull(), any(Pageable.class));
+        assertThat(result.orders()).isEqualTo(orders);
+        verify(repository).findShortByFilters(
+                eq(OrderCriteria.builder().customerId(customerId).build()), any(Pageable.class));
+        verify(mapper, never()).toShortDtoList(any());
+    }
+
+    @Test
+    @DisplayName("Should use keyset pagination when cursor is present")
+    void shouldUseKeysetPaginationWhenCursorIsPresent() {
+        UUID customerId = UUID.randomUUID();
+        OrderCursor cursor = new OrderCursor(Instant.parse("2026-01-01T10:00:00Z"), UUID.randomUUID());
+        OrderFilterDto filterDto = OrderFilterDto.builder()
+                .customerId(customerId.toString())
+                .size(2)
+                .after(cursor.encode())
+                .build();
+
+        List<OrderShortResponseDto> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(OrderShortResponseDto.builder()
+                    .id(UUID.randomUUID())
+                    .amount(100.0 + i)
+                    .status(StatusEnum.NEW)
+                    .createdAt(Instant.parse("2026-01-01T09:00:00Z").minusSeconds(i))
+                    .build());
+        }
+
+        when(mapper.toOrderFilter(filterDto)).thenReturn(TestDataBuilder.createOrderFilter(customerId, null, 2));
+        when(repository.findShortByFiltersAfter(
+                eq(OrderCriteria.builder().customerId(customerId).build()),
+                eq(cursor.createdAt()),
+                eq(cursor.id()),
+                eq(Limit.of(3))
+        )).thenReturn(orders);
+
+        OrderShortListResponseDto result = orderService.getFilteredPaginatedList(filterDto);
+
+        assertThat(result.orders()).isEqualTo(orders.subList(0, 2));
+        assertThat(result.totalPages()).isEqualTo(-1);
+        assertThat(OrderCursor.decode(result.nextCursor()))
+                .isEqualTo(new OrderCursor(orders.get(1).createdAt(), orders.get(1).id()));
+        verify(repository, never()).findShortByFilters(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return no next cursor on the last keyset page")
+    void shouldReturnNoNextCursorOnLastKeysetPage() {
+        Customer customer = TestDataBuilder.createCustomer("John", "Doe", "john@test.com");
+        List<Order> orders = List.of(TestDataBuilder.createOrder(customer, 100.0, StatusEnum.NEW));
+
+        when(repository.findByFiltersAfter(eq(OrderCriteria.builder().build()), isNull(), isNull(), eq(Limit.of(6))))
+                .thenReturn(orders);
+        when(mapper.toList(orders)).thenReturn(new ArrayList<>());
+
+        assertThat(orderService.listOrdersByCursor("", 5).nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> orderService.listOrdersByCursor("not-a-cursor", 5))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("Invalid cursor");
+
+        verifyNoInteractions(repository);
     }
 
     @Test
     @DisplayName("Should delete order successfully")
     void shouldDeleteOrder() {
         UUID orderId = UUID.randomUUID();
-        when(repository.existsById(orderId)).thenReturn(true);
+        Order order = Order.builder().id(orderId).build();
+        when(repository.findById(orderId)).thenReturn(Optional.of(order));
 
         orderService.delete(orderId);
 
-        verify(repository).existsById(orderId);
-        verify(repository).deleteById(orderId);
+        verify(repository).findById(orderId);
+        verify(repository).delete(order);
     }
 
     @Test
     @DisplayName("Should throw exception when deleting non-existent order")
     void shouldThrowExceptionWhenDeletingNonExistentOrder() {
         UUID orderId = UUID.randomUUID();
-        when(repository.existsById(orderId)).thenReturn(false);
+        when(repository.findById(orderId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.delete(orderId))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("not found");
 
-        verify(repository).existsById(orderId);
-        verify(repository, never()).deleteById(any());
+        verify(repository).findById(orderId);
+        verify(repository, never()).delete(any());
     }
 }
 
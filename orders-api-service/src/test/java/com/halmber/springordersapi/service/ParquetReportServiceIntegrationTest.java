@@ -0,0 +1,198 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.BaseConfigurationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.repository.OrderRepository;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ParquetReportServiceIntegrationTest extends BaseConfigurationTest {
+
+    @Autowired
+    private ParquetReportService parquetReportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @TempDir
+    private Path directory;
+
+    private Order testOrder1;
+    private Order testOrder2;
+
+    @BeforeEach
+    void setUp() {
+        Customer testCustomer = customerRepository.saveAndFlush(Customer.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .phone("+380501234567")
+                .city("Kyiv")
+                .build());
+
+        testOrder1 = orderRepository.saveAndFlush(Order.builder()
+                .customer(testCustomer)
+                .amount(100.50)
+                .status(StatusEnum.NEW)
+                .paymentMethod(PaymentEnum.CARD)
+                .build());
+
+        testOrder2 = orderRepository.saveAndFlush(Order.builder()
+                .customer(testCustomer)
+                .amount(250.00)
+                .status(StatusEnum.PROCESSING)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void generateReport_shouldWriteTypedColumns() throws Exception {
+        Path file = directory.resolve("report.parquet");
+        try (OutputStream outputStream = Files.newOutputStream(file);
+             Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
+            parquetReportService.generateReport(stream, outputStream);
+        }
+
+        try (ParquetFileReader reader = open(file)) {
+            MessageType schema = reader.getFileMetaData().getSchema();
+            assertThat(schema.getFields()).extracting(field -> field.getName()).containsExactly(
+                    "order_id", "customer_id", "customer_name", "email",
+                    "amount", "status", "payment_method", "created_at");
+            assertThat(schema.getType("amount").asPrimitiveType().getPrimitiveTypeName())
+                    .isEqualTo(PrimitiveType.PrimitiveTypeName.DOUBLE);
+            assertThat(schema.getType("status").getLogicalTypeAnnotation())
+                    .isEqualTo(LogicalTypeAnnotation.enumType());
+            assertThat(schema.getType("created_at").getLogicalTypeAnnotation())
+                    .isEqualTo(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS));
+
+            List<Group> rows = readRows(reader);
+            assertThat(rows).hasSize(2);
+
+            // Newest first, like the other report formats
+            Group row = rows.getFirst();
+            assertThat(row.getString("order_id", 0)).isEqualTo(testOrder2.getId().toString());
+            assertThat(row.getString("customer_name", 0)).isEqualTo("John Doe");
+            assertThat(row.getString("email", 0)).isEqualTo("john.doe@example.com");
+            assertThat(row.getDouble("amount", 0)).isEqualTo(250.00);
+            assertThat(row.getString("status", 0)).isEqualTo("PROCESSING");
+            assertThat(row.getFieldRepetitionCount("payment_method")).isZero();
+
+            Group olderRow = rows.get(1);
+            assertThat(olderRow.getString("payment_method", 0)).isEqualTo("CARD");
+            assertThat(olderRow.getLong("created_at", 0))
+                    .isEqualTo(ChronoUnit.MICROS.between(Instant.EPOCH, testOrder1.getCreatedAt()));
+        }
+    }
+
+    @Test
+    void generateReport_shouldWriteDictionaryEncodedColumnsInBoundedRowGroups() throws Exception {
+        ParquetReportService smallRowGroups =
+                new ParquetReportService(DataSize.ofKilobytes(256), DataSize.ofKilobytes(64), 3);
+        Customer customer = Customer.builder()
+                .id(UUID.randomUUID())
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build();
+        Instant now = Instant.now();
+
+        Path file = directory.resolve("large.parquet");
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            smallRowGroups.generateReport(IntStream.range(0, 50_000).mapToObj(i -> Order.builder()
+                    .id(UUID.randomUUID())
+                    .customer(customer)
+                    .amount(i / 100.0)
+                    .status(StatusEnum.values()[i % StatusEnum.values().length])
+                    .paymentMethod(PaymentEnum.values()[i % PaymentEnum.values().length])
+                    .createdAt(now.minusSeconds(i))
+                    .build()), outputStream);
+        }
+
+        try (ParquetFileReader reader = open(file)) {
+            assertThat(reader.getRecordCount()).isEqualTo(50_000);
+            assertThat(reader.getRowGroups()).hasSizeGreaterThan(1);
+            assertThat(reader.getRowGroups()).allSatisfy(rowGroup ->
+                    assertThat(rowGroup.getTotalByteSize()).isLessThan(2 * DataSize.ofKilobytes(256).toBytes()));
+
+            Map<String, ColumnChunkMetaData> columns = reader.getFooter().getBlocks().getFirst().getColumns().stream()
+                    .collect(Collectors.toMap(column -> column.getPath().toDotString(), Function.identity()));
+            assertThat(columns.get("status").getEncodings()).anyMatch(Encoding::usesDictionary);
+            assertThat(columns.get("payment_method").getEncodings()).anyMatch(Encoding::usesDictionary);
+            assertThat(columns.get("order_id").getEncodings()).noneMatch(Encoding::usesDictionary);
+        }
+    }
+
+    private ParquetFileReader open(Path file) throws IOException {
+        return ParquetFileReader.open(new LocalInputFile(file), ParquetReadOptions.builder(new PlainParquetConfiguration())
+                .withCodecFactory(new ZstdParquetCodecFactory(3))
+                .build());
+    }
+
+    private List<Group> readRows(ParquetFileReader reader) throws IOException {
+        MessageType schema = reader.getFileMetaData().getSchema();
+        List<Group> rows = new ArrayList<>();
+
+        PageReadStore rowGroup;
+        while ((rowGroup = reader.readNextRowGroup()) != null) {
+            RecordReader<Group> recordReader = new ColumnIOFactory().getColumnIO(schema)
+                    .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+            for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                rows.add(recordReader.read());
+            }
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,162 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.OrderReportFilter;
+import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportCacheServiceTest {
+    private static final OrderReportFilter FILTER = OrderReportFilter.builder()
+            .criteria(OrderCriteria.builder().customerId(UUID.randomUUID()).status(StatusEnum.NEW).build())
+            .fileType(ReportFileTypeEnum.CSV)
+            .build();
+    private static final OrderDataVersion VERSION =
+            new OrderDataVersion(2, Instant.parse("2025-01-01T10:00:00Z"), Instant.parse("2025-01-01T09:00:00Z"));
+
+    @TempDir
+    private Path directory;
+
+    private ReportCacheService reportCacheService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        reportCacheService = newCache(DataSize.ofKilobytes(1));
+    }
+
+    @Test
+    @DisplayName("Should build different keys for different filters and data versions")
+    void shouldBuildKeyFromFilterAndVersion() {
+        String key = reportCacheService.key(FILTER, VERSION);
+
+        assertThat(reportCacheService.key(FILTER, VERSION)).isEqualTo(key);
+        assertThat(key).hasSize(64);
+        assertThat(reportCacheService.key(
+                OrderReportFilter.builder().criteria(FILTER.criteria())
+                        .fileType(ReportFileTypeEnum.XLSX).build(), VERSION))
+                .isNotEqualTo(key);
+        assertThat(reportCacheService.key(
+                OrderReportFilter.builder()
+                        .criteria(OrderCriteria.builder()
+                                .customerId(FILTER.criteria().customerId())
+                                .status(StatusEnum.NEW)
+                                .createdFrom(Instant.parse("2026-10-01T00:00:00Z"))
+                                .build())
+                        .fileType(ReportFileTypeEnum.CSV).build(), VERSION))
+                .isNotEqualTo(key);
+        assertThat(reportCacheService.key(FILTER, new OrderDataVersion(3, VERSION.lastOrderUpdate(), VERSION.lastCustomerUpdate())))
+                .isNotEqualTo(key);
+        assertThat(reportCacheService.key(FILTER, new OrderDataVersion(2, Instant.now(), VERSION.lastCustomerUpdate())))
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Should serve committed report and write it through to the target")
+    void shouldServeCommittedReport() throws IOException {
+        String key = reportCacheService.key(FILTER, VERSION);
+        assertThat(reportCacheService.copyTo(key, new ByteArrayOutputStream())).isFalse();
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        write(key, "report content", target).commit();
+
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        assertThat(target.toString(StandardCharsets.UTF_8)).isEqualTo("report content");
+        assertThat(reportCacheService.copyTo(key, cached)).isTrue();
+        assertThat(cached.toString(StandardCharsets.UTF_8)).isEqualTo("report content");
+    }
+
+    @Test
+    @DisplayName("Should not cache discarded report")
+    void shouldNotCacheDiscardedReport() throws IOException {
+        write("failed", "partial", new ByteArrayOutputStream()).discard();
+
+        assertThat(reportCacheService.copyTo("failed", new ByteArrayOutputStream())).isFalse();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used reports above the size limit")
+    void shouldEvictLeastRecentlyUsedReports() throws IOException {
+        String content = "x".repeat(400);
+        write("first", content, OutputStream.nullOutputStream()).commit();
+        write("second", content, OutputStream.nullOutputStream()).commit();
+        assertThat(reportCacheService.copyTo("first", OutputStream.nullOutputStream())).isTrue();
+
+        write("third", content, OutputStream.nullOutputStream()).commit();
+
+        assertThat(reportCacheService.copyTo("second", OutputStream.nullOutputStream())).isFalse();
+        assertThat(reportCacheService.copyTo("first", OutputStream.nullOutputStream())).isTrue();
+        assertThat(reportCacheService.copyTo("third", OutputStream.nullOutputStream())).isTrue();
+        assertThat(directory.resolve("second.report")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should keep an opened report readable after it is evicted")
+    void shouldReadOpenedReportAfterEviction() throws IOException {
+        String content = "x".repeat(400);
+        write("first", content, OutputStream.nullOutputStream()).commit();
+
+        try (InputStream opened = reportCacheService.open("first")) {
+            write("second", content, OutputStream.nullOutputStream()).commit();
+            write("third", content, OutputStream.nullOutputStream()).commit();
+
+            assertThat(directory.resolve("first.report")).doesNotExist();
+            assertThat(new String(opened.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+        }
+        assertThat(reportCacheService.open("first")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache report larger than the whole cache")
+    void shouldNotCacheOversizedReport() throws IOException {
+        write("huge", "x".repeat(2048), OutputStream.nullOutputStream()).commit();
+
+        assertThat(reportCacheService.copyTo("huge", OutputStream.nullOutputStream())).isFalse();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should load cached reports on startup and drop unfinished ones")
+    void shouldLoadCachedReportsOnStartup() throws IOException {
+        write("kept", "cached", OutputStream.nullOutputStream()).commit();
+        Path unfinished = Files.writeString(directory.resolve("abc123.tmp"), "partial");
+
+        ReportCacheService restarted = newCache(DataSize.ofKilobytes(1));
+
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        assertThat(restarted.copyTo("kept", cached)).isTrue();
+        assertThat(cached.toString(StandardCharsets.UTF_8)).isEqualTo("cached");
+        assertThat(unfinished).doesNotExist();
+    }
+
+    private ReportCacheService.Entry write(String key, String content, OutputStream target) throws IOException {
+        ReportCacheService.Entry entry = reportCacheService.newEntry(key);
+        try (OutputStream outputStream = entry.tee(target)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return entry;
+    }
+
+    private ReportCacheService newCache(DataSize maxSize) throws IOException {
+        ReportCacheService cache = new ReportCacheService(true, directory, maxSize);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,74 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.service.exeption.ReportCancelledException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportCancellationTest {
+    private final ReportCancellation cancellation = new ReportCancellation();
+
+    @Test
+    @DisplayName("Should cancel the report when a write to the client fails")
+    void shouldCancelOnFailedWrite() {
+        AtomicInteger writes = new AtomicInteger();
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                writes.incrementAndGet();
+                throw new IOException("Broken pipe");
+            }
+        };
+        OutputStream outputStream = cancellation.guard(disconnected);
+
+        assertThatThrownBy(() -> outputStream.write('a')).isInstanceOf(IOException.class).hasMessage("Broken pipe");
+        assertThat(cancellation.isCancelled()).isTrue();
+
+        // Later writes fail without reaching the client stream
+        assertThatThrownBy(() -> outputStream.write('b')).isInstanceOf(ReportCancelledException.class);
+        assertThatThrownBy(outputStream::flush).isInstanceOf(ReportCancelledException.class);
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should pass writes through until cancelled")
+    void shouldWriteUntilCancelled() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        OutputStream outputStream = cancellation.guard(target);
+
+        outputStream.write("row\n".getBytes());
+        outputStream.flush();
+        cancellation.cancel();
+
+        assertThat(target.toString()).isEqualTo("row\n");
+        assertThatThrownBy(() -> outputStream.write("row\n".getBytes())).isInstanceOf(ReportCancelledException.class);
+        assertThatThrownBy(cancellation::throwIfCancelled).isInstanceOf(ReportCancelledException.class);
+    }
+
+    @Test
+    @DisplayName("Should run registered actions once, unless their registration is closed")
+    void shouldRunRegisteredActions() {
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        cancellation.onCancel(registered::incrementAndGet);
+        cancellation.onCancel(closed::incrementAndGet).close();
+
+        cancellation.cancel();
+        cancellation.cancel();
+
+        assertThat(registered).hasValue(1);
+        assertThat(closed).hasValue(0);
+
+        // Registered after the fact: runs right away
+        AtomicInteger late = new AtomicInteger();
+        cancellation.onCancel(late::incrementAndGet);
+        assertThat(late).hasValue(1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.halmber.springordersapi.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportCompressionServiceTest {
+    private final ReportCompressionService reportCompressionService =
+            new ReportCompressionService(4, 3, DataSize.ofKilobytes(64));
+
+    @Test
+    @DisplayName("Should prefer zstd, then gzip, respecting quality values")
+    void shouldNegotiateEncoding() {
+        assertThat(reportCompressionService.negotiate(null)).isEqualTo(ReportCompressionEnum.NONE);
+        assertThat(reportCompressionService.negotiate("identity")).isEqualTo(ReportCompressionEnum.NONE);
+        assertThat(reportCompressionService.negotiate("gzip, deflate, br")).isEqualTo(ReportCompressionEnum.GZIP);
+        assertThat(reportCompressionService.negotiate("gzip, deflate, br, zstd")).isEqualTo(ReportCompressionEnum.ZSTD);
+        assertThat(reportCompressionService.negotiate("zstd;q=0.5, GZIP")).isEqualTo(ReportCompressionEnum.GZIP);
+        assertThat(reportCompressionService.negotiate("gzip;q=0, zstd;q=0")).isEqualTo(ReportCompressionEnum.NONE);
+        assertThat(reportCompressionService.negotiate("*")).isEqualTo(ReportCompressionEnum.ZSTD);
+        assertThat(reportCompressionService.negotiate("zstd;q=0, *")).isEqualTo(ReportCompressionEnum.GZIP);
+        assertThat(reportCompressionService.negotiate("gzip;q=abc")).isEqualTo(ReportCompressionEnum.NONE);
+    }
+
+    @Test
+    @DisplayName("Should compress data written in small chunks")
+    void shouldCompressStream() throws IOException {
+        String row = "6f1c2c9e-0d4b-4c59-9d0e-2b1f3c4d5e6f,John Doe,john@test.com,100.5,NEW,CARD,2025-01-01 10:00:00\n";
+        String expected = row.repeat(10_000);
+
+        for (ReportCompressionEnum compression : ReportCompressionEnum.values()) {
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            try (OutputStream outputStream = reportCompressionService.compress(target, compression)) {
+                for (int i = 0; i < 10_000; i++) {
+                    outputStream.write(row.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            byte[] compressed = target.toByteArray();
+            InputStream inputStream = switch (compression) {
+                case NONE -> new ByteArrayInputStream(compressed);
+                case GZIP -> new GZIPInputStream(new ByteArrayInputStream(compressed));
+                case ZSTD -> new ZstdInputStream(new ByteArrayInputStream(compressed));
+            };
+            try (inputStream) {
+                assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(expected);
+            }
+            if (compression != ReportCompressionEnum.NONE) {
+                assertThat(compressed.length).isLessThan(expected.length() / 10);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should decompress what it compresses and detect the compression of uploads")
+    void shouldDecompressStream() throws IOException {
+        byte[] content = "[{\"customerId\": \"c1\"}]\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        for (ReportCompressionEnum compression : ReportCompressionEnum.values()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream outputStream = reportCompressionService.compress(compressed, compression)) {
+                outputStream.write(content);
+            }
+            try (InputStream inputStream = reportCompressionService.decompress(
+                    new ByteArrayInputStream(compressed.toByteArray()), compression)) {
+                assertThat(inputStream.readAllBytes()).isEqualTo(content);
+            }
+        }
+
+        assertThat(ReportCompressionEnum.fromFilename("orders.CSV.GZ")).isEqualTo(ReportCompressionEnum.GZIP);
+        assertThat(ReportCompressionEnum.fromFilename("orders.json.zst")).isEqualTo(ReportCompressionEnum.ZSTD);
+        assertThat(ReportCompressionEnum.fromFilename("orders.json")).isEqualTo(ReportCompressionEnum.NONE);
+        assertThat(ReportCompressionEnum.fromEncoding(null)).isEqualTo(ReportCompressionEnum.NONE);
+        assertThat(ReportCompressionEnum.fromEncoding("identity")).isEqualTo(ReportCompressionEnum.NONE);
+        assertThat(ReportCompressionEnum.fromEncoding(" GZIP")).isEqualTo(ReportCompressionEnum.GZIP);
+        assertThat(ReportCompressionEnum.fromEncoding("zstd")).isEqualTo(ReportCompressionEnum.ZSTD);
+        assertThatThrownBy(() -> ReportCompressionEnum.fromEncoding("br"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported Content-Encoding");
+    }
+}
@@ -0,0 +1,212 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderReportFilter;
+import com.halmber.springordersapi.model.ReportJob;
+import com.halmber.springordersapi.model.dto.response.order.ReportJobResponseDto;
+import com.halmber.springordersapi.model.enums.ReportCompressionEnum;
+import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
+import com.halmber.springordersapi.model.enums.ReportJobStatusEnum;
+import com.halmber.springordersapi.service.exeption.ReportNotReadyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+    private static final OrderReportFilter CSV_FILTER = OrderReportFilter.builder()
+            .fileType(ReportFileTypeEnum.CSV)
+            .build();
+
+    @Mock
+    private ReportService reportService;
+
+    private final ReportCompressionService reportCompressionService =
+            new ReportCompressionService(4, 3, DataSize.ofKilobytes(64));
+
+    @TempDir
+    private Path directory;
+
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportJobService = new ReportJobService(reportService, reportCompressionService, directory, Duration.ofHours(1), 1, 1, false);
+        reportJobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should render report to disk and report rows written")
+    void shouldRenderReportToDisk() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            AtomicLong rowsWritten = invocation.getArgument(3);
+            outputStream.write("header\nrow1\nrow2\n".getBytes(StandardCharsets.UTF_8));
+            rowsWritten.addAndGet(2);
+            return null;
+        }).when(reportService).generateReport(any(), any(), any(), any());
+
+        ReportJobResponseDto submitted = reportJobService.submit(CSV_FILTER);
+        ReportJobResponseDto finished = awaitFinished(submitted.id());
+
+        assertThat(finished.status()).isEqualTo(ReportJobStatusEnum.COMPLETED);
+        assertThat(finished.rowsWritten()).isEqualTo(2);
+        assertThat(finished.fileSize()).isEqualTo(17);
+
+        ReportJob job = reportJobService.getCompletedJob(submitted.id());
+        assertThat(job.getFile()).hasFileName(submitted.id() + ".csv");
+        assertThat(Files.readString(job.getFile())).isEqualTo("header\nrow1\nrow2\n");
+    }
+
+    @Test
+    @DisplayName("Should render compressed report file when compression is requested")
+    void shouldRenderCompressedReport() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("header\nrow1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).generateReport(any(), any(), any(), any());
+
+        ReportJobResponseDto submitted = reportJobService.submit(OrderReportFilter.builder()
+                .fileType(ReportFileTypeEnum.CSV)
+                .compression(ReportCompressionEnum.GZIP)
+                .build());
+        awaitFinished(submitted.id());
+
+        ReportJob job = reportJobService.getCompletedJob(submitted.id());
+        assertThat(job.getFile()).hasFileName(submitted.id() + ".csv.gz");
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(job.getFile()))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("header\nrow1\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark job as failed and remove partial file on error")
+    void shouldFailJobOnError() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new RuntimeException("Database is down");
+        }).when(reportService).generateReport(any(), any(), any(), any());
+
+        ReportJobResponseDto submitted = reportJobService.submit(CSV_FILTER);
+        ReportJobResponseDto finished = awaitFinished(submitted.id());
+
+        assertThat(finished.status()).isEqualTo(ReportJobStatusEnum.FAILED);
+        assertThat(finished.error()).isEqualTo("Database is down");
+        assertThat(finished.fileSize()).isNull();
+        assertThat(directory).isEmptyDirectory();
+        assertThatThrownBy(() -> reportJobService.getCompletedJob(submitted.id()))
+                .isInstanceOf(ReportNotReadyException.class)
+                .hasMessageContaining("FAILED");
+    }
+
+    @Test
+    @DisplayName("Should reject jobs when worker and queue are busy")
+    void shouldRejectJobsWhenBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(reportService).generateReport(any(), any(), any(), any());
+
+        try {
+            reportJobService.submit(CSV_FILTER); // running
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            reportJobService.submit(CSV_FILTER); // queued
+
+            assertThatThrownBy(() -> reportJobService.submit(CSV_FILTER))
+                    .isInstanceOf(TaskRejectedException.class)
+                    .hasMessageContaining("Too many report jobs");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should remove expired jobs with their files")
+    void shouldPurgeExpiredJobs() throws Exception {
+        reportJobService = new ReportJobService(reportService, reportCompressionService, directory, Duration.ZERO, 1, 1, false);
+        ReportJobResponseDto submitted = reportJobService.submit(CSV_FILTER);
+        awaitFinished(submitted.id());
+        assertThat(directory).isNotEmptyDirectory();
+
+        reportJobService.purgeExpired();
+
+        assertThat(directory).isEmptyDirectory();
+        assertThatThrownBy(() -> reportJobService.getJob(submitted.id()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    @DisplayName("Should render reports on virtual threads when enabled")
+    void shouldRenderOnVirtualThreads() throws Exception {
+        reportJobService.shutdown();
+        reportJobService = new ReportJobService(reportService, reportCompressionService, directory, Duration.ofHours(1), 1, 1, true);
+        reportJobService.init();
+        AtomicBoolean virtual = new AtomicBoolean();
+        doAnswer(invocation -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            return null;
+        }).when(reportService).generateReport(any(), any(), any(), any());
+
+        ReportJobResponseDto finished = awaitFinished(reportJobService.submit(CSV_FILTER).id());
+
+        assertThat(finished.status()).isEqualTo(ReportJobStatusEnum.COMPLETED);
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should remove report files left by a previous run on startup")
+    void shouldRemoveLeftoverFilesOnStartup() throws Exception {
+        Path leftover = Files.createFile(directory.resolve(UUID.randomUUID() + ".xlsx.part"));
+        Path unrelated = Files.createFile(directory.resolve("notes.txt"));
+
+        reportJobService.init();
+
+        assertThat(leftover).doesNotExist();
+        assertThat(unrelated).exists();
+    }
+
+    private ReportJobResponseDto awaitFinished(UUID id) throws InterruptedException {
+        ReportJobResponseDto job = reportJobService.getJob(id);
+        for (int attempt = 0; attempt < 100 && job.finishedAt() == null; attempt++) {
+            Thread.sleep(20);
+            job = reportJobService.getJob(id);
+        }
+
+        return job;
+    }
+}
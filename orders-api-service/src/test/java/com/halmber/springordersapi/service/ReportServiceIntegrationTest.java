@@ -0,0 +1,136 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.BasePostgresIntegrationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.enums.ReportFileTypeEnum;
+import com.halmber.springordersapi.repository.CustomerRepository;
+import com.halmber.springordersapi.util.TestDataBuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "reports.csv.parallel.partitions=2",
+        "reports.csv.parallel.min-rows=1",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@DisplayName("ReportService Integration Tests")
+class ReportServiceIntegrationTest extends BasePostgresIntegrationTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private EmailMessageProducerService emailMessageProducerService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(TestDataBuilder.createCustomer(
+                "Report", "Test", "report-" + UUID.randomUUID() + "@test.com"));
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int hours = 1; hours <= 4; hours++) {
+            jdbcTemplate.update("""
+                    INSERT INTO orders (id, customer_id, amount, status, payment_method, created_at, updated_at)
+                    VALUES (?, ?, ?, 'NEW', 'CARD', ?, ?)
+                    """, UUID.randomUUID(), customer.getId(), hours * 10.0, now.minusHours(hours), now);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    @DisplayName("Should render parallel CSV on the report transaction's connection and serve the cached copy without one")
+    void shouldServeCachedReportWithoutConnection() throws SQLException {
+        OrderCriteria criteria = OrderCriteria.builder().customerId(customer.getId()).build();
+
+        ConnectionSamplingStream rendered = new ConnectionSamplingStream();
+        AtomicLong renderedRows = new AtomicLong();
+        reportService.generateReport(criteria, ReportFileTypeEnum.CSV, rendered, renderedRows);
+
+        assertThat(renderedRows).hasValue(4);
+        assertThat(rendered.toString(StandardCharsets.UTF_8).lines()).hasSize(5);
+        // The report transaction, which coordinates the export, and the worker of the second partition if still running
+        assertThat(rendered.maxActiveConnections).isBetween(1, 2);
+
+        ConnectionSamplingStream cached = new ConnectionSamplingStream();
+        AtomicLong cachedRows = new AtomicLong();
+        reportService.generateReport(criteria, ReportFileTypeEnum.CSV, cached, cachedRows);
+
+        assertThat(cachedRows).hasValue(4);
+        assertThat(cached.toByteArray()).isEqualTo(rendered.toByteArray());
+        assertThat(cached.maxActiveConnections).isZero();
+    }
+
+    @Test
+    @DisplayName("Should export with a single COPY when the pool has no connection free for the partitions")
+    void shouldExportSeriallyWhenPoolIsExhausted() throws SQLException {
+        OrderCriteria criteria = OrderCriteria.builder().customerId(customer.getId()).build();
+        AtomicLong rowsWritten = new AtomicLong();
+
+        // The report transaction gets the last connection, the second partition would wait for one until timeout
+        List<Connection> held = List.of(dataSource.getConnection(), dataSource.getConnection());
+        try {
+            reportService.generateReport(criteria, ReportFileTypeEnum.CSV, new ByteArrayOutputStream(), rowsWritten);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        assertThat(rowsWritten).hasValue(4);
+    }
+
+    /**
+     * Records the number of pool connections in use while the report is written.
+     */
+    private class ConnectionSamplingStream extends ByteArrayOutputStream {
+        private final HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        private int maxActiveConnections;
+
+        private ConnectionSamplingStream() throws SQLException {
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            maxActiveConnections = Math.max(maxActiveConnections, pool.getHikariPoolMXBean().getActiveConnections());
+            super.write(bytes, offset, length);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.halmber.springordersapi.service;
 
+import com.halmber.springordersapi.model.OrderCriteria;
+import com.halmber.springordersapi.model.OrderDataVersion;
+import com.halmber.springordersapi.model.OrderReportFilter;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
 import com.halmber.springordersapi.model.enums.PaymentEnum;
@@ -11,24 +14,32 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ReportService Unit Tests")
 class ReportServiceTest {
+    private static final OrderCriteria ALL_ORDERS = OrderCriteria.builder().build();
 
     @Mock
     private OrderRepository orderRepository;
@@ -36,18 +47,35 @@ class ReportServiceTest {
     @Mock
     private CsvReportService csvReportService;
 
+    @Mock
+    private CsvCopyReportService csvCopyReportService;
+
+    @Mock
+    private ParallelCsvExportService parallelCsvExportService;
+
     @Mock
     private XlsxReportService xlsxReportService;
 
+    @Mock
+    private ParquetReportService parquetReportService;
+
+    @Mock
+    private ReportCacheService reportCacheService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ReportService reportService;
 
     @Test
     @DisplayName("Should generate CSV report with filters")
     void shouldGenerateCsvReportWithFilters() throws IOException {
-        UUID customerId = UUID.randomUUID();
-        StatusEnum status = StatusEnum.NEW;
-        PaymentEnum paymentMethod = PaymentEnum.CARD;
+        OrderCriteria criteria = OrderCriteria.builder()
+                .customerId(UUID.randomUUID())
+                .status(StatusEnum.NEW)
+                .paymentMethod(PaymentEnum.CARD)
+                .build();
         OutputStream outputStream = new ByteArrayOutputStream();
 
         Customer customer = TestDataBuilder.createCustomer("John", "Doe", "john@test.com");
@@ -55,13 +83,13 @@ class ReportServiceTest {
 
         Stream<Order> orderStream = Stream.of(order);
 
-        when(orderRepository.streamByFilters(customerId, status, paymentMethod))
+        when(orderRepository.streamByFilters(criteria))
                 .thenReturn(orderStream);
 
-        reportService.generateReport(customerId, status, paymentMethod,
+        reportService.generateReport(criteria,
                 ReportFileTypeEnum.CSV, outputStream);
 
-        verify(orderRepository).streamByFilters(customerId, status, paymentMethod);
+        verify(orderRepository).streamByFilters(criteria);
         verify(csvReportService).generateReport(any(Stream.class), any());
         verify(xlsxReportService, never()).generateReport(any(), any());
     }
@@ -69,7 +97,7 @@ class ReportServiceTest {
     @Test
     @DisplayName("Should generate XLSX report with filters")
     void shouldGenerateXlsxReportWithFilters() throws IOException {
-        UUID customerId = UUID.randomUUID();
+        OrderCriteria criteria = OrderCriteria.builder().customerId(UUID.randomUUID()).build();
         OutputStream outputStream = new ByteArrayOutputStream();
 
         Customer customer = TestDataBuilder.createCustomer("Jane", "Smith", "jane@test.com");
@@ -77,13 +105,13 @@ class ReportServiceTest {
 
         Stream<Order> orderStream = Stream.of(order);
 
-        when(orderRepository.streamByFilters(customerId, null, null))
+        when(orderRepository.streamByFilters(criteria))
                 .thenReturn(orderStream);
 
-        reportService.generateReport(customerId, null, null,
+        reportService.generateReport(criteria,
                 ReportFileTypeEnum.XLSX, outputStream);
 
-        verify(orderRepository).streamByFilters(customerId, null, null);
+        verify(orderRepository).streamByFilters(criteria);
         verify(xlsxReportService).generateReport(any(Stream.class), any());
         verify(csvReportService, never()).generateReport(any(), any());
     }
@@ -98,13 +126,12 @@ class ReportServiceTest {
 
         Stream<Order> orderStream = Stream.of(order);
 
-        when(orderRepository.streamByFilters(null, null, null))
+        when(orderRepository.streamByFilters(ALL_ORDERS))
                 .thenReturn(orderStream);
 
-        reportService.generateReport(null, null, null,
-                ReportFileTypeEnum.CSV, outputStream);
+        reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.CSV, outputStream);
 
-        verify(orderRepository).streamByFilters(null, null, null);
+        verify(orderRepository).streamByFilters(ALL_ORDERS);
         verify(csvReportService).generateReport(any(Stream.class), any());
     }
 
@@ -114,12 +141,12 @@ class ReportServiceTest {
         OutputStream outputStream = new ByteArrayOutputStream();
 
         Stream<Order> orderStream = Stream.empty();
-        when(orderRepository.streamByFilters(any(), any(), any()))
+        when(orderRepository.streamByFilters(any()))
                 .thenReturn(orderStream);
 
         assertThatThrownBy(() -> {
             // Simulate unsupported file type scenario
-            reportService.generateReport(null, null, null, null, outputStream);
+            reportService.generateReport(ALL_ORDERS, null, outputStream);
         }).isInstanceOf(RuntimeException.class);
     }
 
@@ -129,15 +156,14 @@ class ReportServiceTest {
         OutputStream outputStream = new ByteArrayOutputStream();
 
         Stream<Order> orderStream = Stream.empty();
-        when(orderRepository.streamByFilters(any(), any(), any()))
+        when(orderRepository.streamByFilters(any()))
                 .thenReturn(orderStream);
 
         doThrow(new IOException("Write error"))
                 .when(csvReportService).generateReport(any(), any());
 
         assertThatThrownBy(() ->
-                reportService.generateReport(null, null, null,
-                        ReportFileTypeEnum.CSV, outputStream)
+                reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.CSV, outputStream)
         ).isInstanceOf(RuntimeException.class)
                 .hasCauseInstanceOf(IOException.class);
 
@@ -150,15 +176,14 @@ class ReportServiceTest {
         OutputStream outputStream = new ByteArrayOutputStream();
 
         Stream<Order> orderStream = Stream.empty();
-        when(orderRepository.streamByFilters(any(), any(), any()))
+        when(orderRepository.streamByFilters(any()))
                 .thenReturn(orderStream);
 
         doThrow(new IOException("Write error"))
                 .when(xlsxReportService).generateReport(any(), any());
 
         assertThatThrownBy(() ->
-                reportService.generateReport(null, null, null,
-                        ReportFileTypeEnum.XLSX, outputStream)
+                reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.XLSX, outputStream)
         ).isInstanceOf(RuntimeException.class)
                 .hasCauseInstanceOf(IOException.class);
 
@@ -168,31 +193,24 @@ class ReportServiceTest {
     @Test
     @DisplayName("Should pass correct parameters to repository")
     void shouldPassCorrectParametersToRepository() throws IOException {
-        UUID customerId = UUID.randomUUID();
-        StatusEnum status = StatusEnum.DONE;
-        PaymentEnum paymentMethod = PaymentEnum.PAYPAL;
+        OrderCriteria criteria = OrderCriteria.builder()
+                .customerId(UUID.randomUUID())
+                .status(StatusEnum.DONE)
+                .paymentMethod(PaymentEnum.PAYPAL)
+                .createdFrom(Instant.parse("2026-10-01T00:00:00Z"))
+                .createdTo(Instant.parse("2026-10-08T00:00:00Z"))
+                .amountMin(1000.0)
+                .build();
         OutputStream outputStream = new ByteArrayOutputStream();
 
-        Stream<Order> orderStream = Stream.empty();
-        when(orderRepository.streamByFilters(customerId, status, paymentMethod))
-                .thenReturn(orderStream);
-
-        reportService.generateReport(customerId, status, paymentMethod,
-                ReportFileTypeEnum.CSV, outputStream);
+        when(orderRepository.streamByFilters(any())).thenReturn(Stream.empty());
 
-        ArgumentCaptor<UUID> customerIdCaptor = ArgumentCaptor.forClass(UUID.class);
-        ArgumentCaptor<StatusEnum> statusCaptor = ArgumentCaptor.forClass(StatusEnum.class);
-        ArgumentCaptor<PaymentEnum> paymentCaptor = ArgumentCaptor.forClass(PaymentEnum.class);
+        reportService.generateReport(criteria, ReportFileTypeEnum.CSV, outputStream);
 
-        verify(orderRepository).streamByFilters(
-                customerIdCaptor.capture(),
-                statusCaptor.capture(),
-                paymentCaptor.capture()
-        );
+        ArgumentCaptor<OrderCriteria> criteriaCaptor = ArgumentCaptor.forClass(OrderCriteria.class);
+        verify(orderRepository).streamByFilters(criteriaCaptor.capture());
 
-        assertThat(customerIdCaptor.getValue()).isEqualTo(customerId);
-        assertThat(statusCaptor.getValue()).isEqualTo(status);
-        assertThat(paymentCaptor.getValue()).isEqualTo(paymentMethod);
+        assertThat(criteriaCaptor.getValue()).isEqualTo(criteria);
     }
 
     @Test
@@ -203,12 +221,132 @@ class ReportServiceTest {
         @SuppressWarnings("unchecked")
         Stream<Order> orderStream = mock(Stream.class);
 
-        when(orderRepository.streamByFilters(any(), any(), any()))
+        when(orderRepository.streamByFilters(any()))
                 .thenReturn(orderStream);
 
-        reportService.generateReport(null, null, null,
-                ReportFileTypeEnum.CSV, outputStream);
+        reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.CSV, outputStream);
 
         verify(orderStream).close();
     }
+
+    @Test
+    @DisplayName("Should generate CSV report with COPY when supported")
+    void shouldGenerateCsvReportWithCopyWhenSupported() throws IOException {
+        OrderCriteria criteria = OrderCriteria.builder()
+                .customerId(UUID.randomUUID())
+                .status(StatusEnum.NEW)
+                .paymentMethod(PaymentEnum.CARD)
+                .build();
+        OutputStream outputStream = new ByteArrayOutputStream();
+
+        when(csvCopyReportService.isSupported()).thenReturn(true);
+
+        reportService.generateReport(criteria, ReportFileTypeEnum.CSV, outputStream);
+
+        verify(csvCopyReportService).generateReport(
+                eq(criteria), eq(outputStream), any(AtomicLong.class), any(ReportCancellation.class));
+        verify(orderRepository, never()).streamByFilters(any());
+        verify(csvReportService, never()).generateReport(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should generate CSV report with parallel COPY when enabled")
+    void shouldGenerateCsvReportWithParallelCopyWhenEnabled() throws IOException {
+        OutputStream outputStream = new ByteArrayOutputStream();
+
+        when(parallelCsvExportService.isEnabled()).thenReturn(true);
+
+        OrderCriteria criteria = OrderCriteria.builder().status(StatusEnum.DONE).build();
+        reportService.generateReport(criteria, ReportFileTypeEnum.CSV, outputStream);
+
+        verify(parallelCsvExportService).generateReport(
+                eq(criteria), eq(outputStream), any(AtomicLong.class), any(ReportCancellation.class));
+        verify(csvCopyReportService, never()).generateReport(any(), any(), any(), any());
+        verify(orderRepository, never()).streamByFilters(any());
+    }
+
+    @Test
+    @DisplayName("Should not use COPY for XLSX reports")
+    void shouldNotUseCopyForXlsxReports() throws IOException {
+        OutputStream outputStream = new ByteArrayOutputStream();
+
+        when(orderRepository.streamByFilters(ALL_ORDERS)).thenReturn(Stream.empty());
+
+        reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.XLSX, outputStream);
+
+        verify(csvCopyReportService, never()).generateReport(any(), any(), any(), any());
+        verify(xlsxReportService).generateReport(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should serve cached report without streaming orders")
+    void shouldServeCachedReport() throws IOException {
+        OutputStream outputStream = new ByteArrayOutputStream();
+        OrderDataVersion version = new OrderDataVersion(42, Instant.now(), Instant.now());
+        AtomicLong rowsWritten = new AtomicLong();
+
+        when(reportCacheService.isEnabled()).thenReturn(true);
+        OrderCriteria criteria = OrderCriteria.builder().status(StatusEnum.DONE).build();
+        when(orderRepository.findDataVersion(criteria)).thenReturn(version);
+        when(reportCacheService.key(any(OrderReportFilter.class), eq(version))).thenReturn("key");
+        InputStream cachedFile = mock(InputStream.class);
+        when(reportCacheService.open("key")).thenReturn(cachedFile);
+
+        reportService.generateReport(criteria, ReportFileTypeEnum.XLSX, outputStream, rowsWritten);
+
+        assertThat(rowsWritten).hasValue(42);
+        // The file is copied once the transaction, and its connection, is released
+        InOrder inOrder = inOrder(transactionManager, cachedFile);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(cachedFile).transferTo(outputStream);
+        inOrder.verify(cachedFile).close();
+        verify(orderRepository, never()).streamByFilters(any());
+        verify(xlsxReportService, never()).generateReport(any(), any());
+        verify(reportCacheService, never()).newEntry(any());
+    }
+
+    @Test
+    @DisplayName("Should render and cache report on cache miss")
+    void shouldRenderAndCacheReportOnMiss() throws IOException {
+        OutputStream outputStream = new ByteArrayOutputStream();
+        OutputStream teeStream = new ByteArrayOutputStream();
+        OrderDataVersion version = new OrderDataVersion(0, null, null);
+        ReportCacheService.Entry cacheEntry = mock(ReportCacheService.Entry.class);
+
+        when(reportCacheService.isEnabled()).thenReturn(true);
+        when(orderRepository.findDataVersion(ALL_ORDERS)).thenReturn(version);
+        when(reportCacheService.key(any(OrderReportFilter.class), eq(version))).thenReturn("key");
+        when(reportCacheService.newEntry("key")).thenReturn(cacheEntry);
+        when(cacheEntry.tee(outputStream)).thenReturn(teeStream);
+        when(orderRepository.streamByFilters(ALL_ORDERS)).thenReturn(Stream.empty());
+
+        reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.XLSX, outputStream);
+
+        verify(xlsxReportService).generateReport(any(), eq(teeStream));
+        verify(cacheEntry).commit();
+        verify(cacheEntry, never()).discard();
+        // Version and orders are read in the same snapshot
+        ArgumentCaptor<TransactionDefinition> transaction = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(transaction.capture());
+        assertThat(transaction.getValue().isReadOnly()).isTrue();
+        assertThat(transaction.getValue().getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Test
+    @DisplayName("Should discard cache entry when report generation fails")
+    void shouldDiscardCacheEntryOnFailure() throws IOException {
+        OutputStream outputStream = new ByteArrayOutputStream();
+        ReportCacheService.Entry cacheEntry = mock(ReportCacheService.Entry.class);
+
+        when(reportCacheService.isEnabled()).thenReturn(true);
+        when(reportCacheService.newEntry(any())).thenReturn(cacheEntry);
+        when(orderRepository.streamByFilters(ALL_ORDERS)).thenReturn(Stream.empty());
+        doThrow(new IOException("Disk full")).when(xlsxReportService).generateReport(any(), any());
+
+        assertThatThrownBy(() -> reportService.generateReport(ALL_ORDERS, ReportFileTypeEnum.XLSX, outputStream))
+                .isInstanceOf(RuntimeException.class);
+
+        verify(cacheEntry).discard();
+        verify(cacheEntry, never()).commit();
+    }
 }
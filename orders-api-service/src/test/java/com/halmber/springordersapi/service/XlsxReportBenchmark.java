@@ -0,0 +1,139 @@
+package com.halmber.springordersapi.service;
+
+import com.halmber.springordersapi.model.entity.Customer;
+import com.halmber.springordersapi.model.entity.Order;
+import com.halmber.springordersapi.model.enums.PaymentEnum;
+import com.halmber.springordersapi.model.enums.StatusEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link XlsxReportService} with the previous POI implementation, {@link LegacyXlsxReportService},
+ * on an XLSX export of {@code rows} orders. The workbook is counted and discarded, so the score covers
+ * generation and compression (and, for POI, its temp files).
+ *
+ * <p>Every benchmark runs in its own JVM; at the end it prints the peak resident set size of that JVM
+ * ({@code VmHWM}, Linux only) and the workbook size.
+ *
+ * <p>Not a test: run it explicitly, JMH forks need the test classpath:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.halmber.springordersapi.service.XlsxReportBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class XlsxReportBenchmark {
+    private static final int DISTINCT_ORDERS = 10_000;
+
+    @Param("1000000")
+    private int rows;
+
+    private Order[] orders;
+    private long workbookSize;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        orders = new Order[DISTINCT_ORDERS];
+        long[] createdAt = random.longs(DISTINCT_ORDERS, 1_700_000_000L, 1_750_000_000L).sorted().toArray();
+
+        for (int i = 0; i < DISTINCT_ORDERS; i++) {
+            Customer customer = Customer.builder()
+                    .id(UUID.randomUUID())
+                    .firstName("John" + i)
+                    .lastName("Doe" + random.nextInt(1000))
+                    .email("user" + i + "@example.com")
+                    .build();
+
+            orders[i] = Order.builder()
+                    .id(UUID.randomUUID())
+                    .customer(customer)
+                    .amount(random.nextInt(1_000_000) / 100.0)
+                    .status(StatusEnum.values()[random.nextInt(StatusEnum.values().length)])
+                    .paymentMethod(PaymentEnum.values()[random.nextInt(PaymentEnum.values().length)])
+                    .createdAt(Instant.ofEpochSecond(createdAt[DISTINCT_ORDERS - 1 - i]))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public long poiWorkbook() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        new LegacyXlsxReportService().generateReport(orders(), outputStream);
+        return workbookSize = outputStream.count;
+    }
+
+    @Benchmark
+    public long streamingWriter() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        new XlsxReportService(XlsxOrderWriter.MAX_ROWS_PER_SHEET, 1).generateReport(orders(), outputStream);
+        return workbookSize = outputStream.count;
+    }
+
+    @TearDown(Level.Trial)
+    public void printPeakRss() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (Files.exists(status)) {
+            try (Stream<String> lines = Files.lines(status)) {
+                lines.filter(line -> line.startsWith("VmHWM")).forEach(line -> System.out.println("Peak RSS: " + line));
+            }
+        }
+        System.out.println("Workbook size: " + workbookSize + " bytes");
+    }
+
+    private Stream<Order> orders() {
+        return IntStream.range(0, rows).mapToObj(i -> orders[i % DISTINCT_ORDERS]);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(XlsxReportBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
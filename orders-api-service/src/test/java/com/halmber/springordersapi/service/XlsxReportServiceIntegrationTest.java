@@ -1,6 +1,7 @@
 package com.halmber.springordersapi.service;
 
 import com.halmber.springordersapi.BaseConfigurationTest;
+import com.halmber.springordersapi.model.OrderCriteria;
 import com.halmber.springordersapi.model.entity.Customer;
 import com.halmber.springordersapi.model.entity.Order;
 import com.halmber.springordersapi.model.enums.PaymentEnum;
@@ -18,6 +19,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -77,7 +83,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldCreateValidXlsxFile() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -96,7 +102,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldHaveHeaderRow() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -121,7 +127,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldContainOrderData() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -151,7 +157,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldHaveCorrectRowCount() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -167,7 +173,8 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldFilterByStatus() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, StatusEnum.NEW, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(
+                OrderCriteria.builder().status(StatusEnum.NEW).build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -186,7 +193,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                null, null, PaymentEnum.CARD)) {
+                OrderCriteria.builder().paymentMethod(PaymentEnum.CARD).build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -220,7 +227,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                testCustomer.getId(), null, null)) {
+                OrderCriteria.builder().customerId(testCustomer.getId()).build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -241,7 +248,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldApplyHeaderStyling() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -261,7 +268,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldApplyDataStyling() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -283,7 +290,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
 
         // Filter that returns no results
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                null, StatusEnum.CANCELED, null)) {
+                OrderCriteria.builder().status(StatusEnum.CANCELED).build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -309,7 +316,7 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -326,7 +333,11 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         try (Stream<Order> stream = orderRepository.streamByFilters(
-                testCustomer.getId(), StatusEnum.NEW, PaymentEnum.CARD)) {
+                OrderCriteria.builder()
+                        .customerId(testCustomer.getId())
+                        .status(StatusEnum.NEW)
+                        .paymentMethod(PaymentEnum.CARD)
+                        .build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
@@ -346,17 +357,60 @@ class XlsxReportServiceIntegrationTest extends BaseConfigurationTest {
     void generateReport_shouldFormatDateCorrectly() throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        try (Stream<Order> stream = orderRepository.streamByFilters(null, null, null)) {
+        try (Stream<Order> stream = orderRepository.streamByFilters(OrderCriteria.builder().build())) {
             xlsxReportService.generateReport(stream, outputStream);
         }
 
         try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
             Sheet sheet = workbook.getSheetAt(0);
-            Row row1 = sheet.getRow(1);
-            String dateValue = getCellValue(row1.getCell(7));
+            Cell dateCell = sheet.getRow(1).getCell(7);
+
+            // Real date cell, displayed as yyyy-MM-dd HH:mm:ss
+            assertThat(dateCell.getCellType()).isEqualTo(CellType.NUMERIC);
+            assertThat(DateUtil.isCellDateFormatted(dateCell)).isTrue();
+            assertThat(new DataFormatter().formatCellValue(dateCell)).isEqualTo(
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault())
+                            .format(testOrder2.getCreatedAt()));
+        }
+    }
 
-            // Check date format (yyyy-MM-dd HH:mm:ss)
-            assertThat(dateValue).matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}");
+    @Test
+    void generateReport_shouldRollOverToNextSheetWhenSheetIsFull() throws Exception {
+        XlsxReportService smallSheets = new XlsxReportService(3, 1);
+        Customer customer = Customer.builder()
+                .id(UUID.randomUUID())
+                .firstName("Tom & \"Jerry\"")
+                .lastName("<Cat>")
+                .email("tom@example.com")
+                .build();
+        Instant now = Instant.now();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        smallSheets.generateReport(IntStream.range(0, 5).mapToObj(i -> Order.builder()
+                .id(UUID.randomUUID())
+                .customer(customer)
+                .amount(10.0 * i)
+                .status(StatusEnum.NEW)
+                .createdAt(now.minusSeconds(i))
+                .build()), outputStream);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(3);
+            assertThat(workbook.getSheetName(0)).isEqualTo("Orders");
+            assertThat(workbook.getSheetName(1)).isEqualTo("Orders (2)");
+            assertThat(workbook.getSheetName(2)).isEqualTo("Orders (3)");
+
+            // Every sheet starts with the header, rows continue in order
+            assertThat(workbook.getSheetAt(0).getLastRowNum()).isEqualTo(2);
+            assertThat(workbook.getSheetAt(1).getLastRowNum()).isEqualTo(2);
+            assertThat(workbook.getSheetAt(2).getLastRowNum()).isEqualTo(1);
+            assertThat(getCellValue(workbook.getSheetAt(2).getRow(0).getCell(0))).isEqualTo("Order ID");
+            assertThat(workbook.getSheetAt(1).getRow(1).getCell(4).getNumericCellValue()).isEqualTo(20.0);
+            assertThat(workbook.getSheetAt(2).getRow(1).getCell(4).getNumericCellValue()).isEqualTo(40.0);
+
+            Row row = workbook.getSheetAt(0).getRow(1);
+            assertThat(getCellValue(row.getCell(2))).isEqualTo("Tom & \"Jerry\" <Cat>");
+            assertThat(getCellValue(row.getCell(6))).isEmpty();
         }
     }
 